@@ -0,0 +1,17 @@
+package com.example.account.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 거래 API 의 리액티브 구현. 요청 처리, DB 접근(R2DBC), 계좌 락(Redisson reactive) 모두 스레드를 막지 않는다.
+ * 서블릿 구현(AccountApplication)과 같은 요청/응답을 쓰므로 같은 부하로 비교할 수 있다. (ReactiveComparison)
+ */
+@SpringBootApplication
+public class ReactiveAccountApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveAccountApplication.class, args);
+    }
+
+}
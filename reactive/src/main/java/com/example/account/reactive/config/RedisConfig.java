@@ -0,0 +1,31 @@
+package com.example.account.reactive.config;
+
+import org.redisson.Redisson;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.embedded.RedisServer;
+
+@Configuration
+public class RedisConfig {
+    @Value("${spring.redis.host}")
+    private String redisHost;
+
+    @Value("${spring.redis.port}")
+    private int redisPort;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RedisServer redisServer() {
+        return RedisServer.builder().port(redisPort).setting("maxheap 128M").build();
+    }
+
+    // 내장 Redis 가 뜬 뒤에 연결하도록 redisServer 를 받는다.
+    @Bean(destroyMethod = "shutdown")
+    public RedissonReactiveClient redissonReactiveClient(RedisServer redisServer) {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        return Redisson.create(config).reactive();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.reactive.controller;
+
+import com.example.account.reactive.dto.CreateAccount;
+import com.example.account.reactive.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+// 부하 테스트가 계좌를 만들 때 쓴다. 해지와 목록 조회는 서블릿 구현에만 있다.
+@RestController
+@RequiredArgsConstructor
+public class AccountController {
+    private final AccountService accountService;
+
+    @PostMapping("/account")
+    public Mono<CreateAccount.Response> createAccount(@RequestBody @Valid CreateAccount.Request request) {
+        return accountService.createAccount(request.getUserId(), request.getInitialBalance())
+                .map(CreateAccount.Response::from);
+    }
+}
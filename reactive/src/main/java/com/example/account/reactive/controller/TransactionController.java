@@ -0,0 +1,65 @@
+package com.example.account.reactive.controller;
+
+import com.example.account.exception.AccountException;
+import com.example.account.reactive.dto.CancelBalance;
+import com.example.account.reactive.dto.QueryTransactionResponse;
+import com.example.account.reactive.dto.UseBalance;
+import com.example.account.reactive.service.LockService;
+import com.example.account.reactive.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.time.Duration;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class TransactionController {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+
+    // 락을 잡은 채 기다리는 시간. 타이머로 기다리므로 스레드를 잡지 않는다.
+    @Value("${transaction.use.delay-ms:0}")
+    private long useBalanceDelayMs;
+
+    @PostMapping("/transaction/use")
+    public Mono<UseBalance.Response> useBalance(@Valid @RequestBody UseBalance.Request request) {
+        return lockService.withLock(request.getAccountNumber(), () -> useDelay()
+                        .then(transactionService.useBalance(
+                                request.getUserId(), request.getAccountNumber(), request.getAmount()))
+                        .onErrorResume(AccountException.class, e -> {
+                            log.debug("Failed to UseBalance: {}", e.getErrorCode());
+                            return transactionService.saveFailedUseTransaction(
+                                            request.getAccountNumber(), request.getAmount())
+                                    .then(Mono.error(e));
+                        }))
+                .map(UseBalance.Response::from);
+    }
+
+    @PostMapping("/transaction/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(@Valid @RequestBody CancelBalance.Request request) {
+        return lockService.withLock(request.getAccountNumber(), () -> transactionService.cancelBalance(
+                                request.getTransactionId(), request.getAccountNumber(), request.getAmount())
+                        .onErrorResume(AccountException.class, e -> {
+                            log.debug("Failed to CancelBalance: {}", e.getErrorCode());
+                            return transactionService.saveFailedCancelTransaction(
+                                            request.getAccountNumber(), request.getAmount())
+                                    .then(Mono.error(e));
+                        }))
+                .map(CancelBalance.Response::from);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<QueryTransactionResponse> queryTransaction(@PathVariable String transactionId) {
+        return transactionService.queryTransaction(transactionId)
+                .map(QueryTransactionResponse::from);
+    }
+
+    private Mono<Void> useDelay() {
+        return useBalanceDelayMs > 0 ? Mono.delay(Duration.ofMillis(useBalanceDelayMs)).then() : Mono.empty();
+    }
+}
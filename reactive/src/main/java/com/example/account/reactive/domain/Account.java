@@ -0,0 +1,37 @@
+package com.example.account.reactive.domain;
+
+import com.example.account.type.AccountStatus;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC 는 연관 관계를 불러오지 않으므로 소유자는 id 로만 가진다.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("account")
+public class Account {
+    @Id
+    private Long id;
+
+    private Long accountUserId;
+
+    private String accountNumber;
+
+    private AccountStatus accountStatus;
+
+    private Long balance;
+    private LocalDateTime registeredAt;
+    private LocalDateTime unregisteredAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
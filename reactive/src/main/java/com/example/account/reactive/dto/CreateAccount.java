@@ -0,0 +1,42 @@
+package com.example.account.reactive.dto;
+
+import com.example.account.reactive.domain.Account;
+import lombok.*;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class CreateAccount {
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotNull
+        @Min(0)
+        private Long initialBalance;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private Long userId;
+        private String accountNumber;
+        private LocalDateTime registeredAt;
+
+        public static Response from(Account account) {
+            return Response.builder()
+                    .userId(account.getAccountUserId())
+                    .accountNumber(account.getAccountNumber())
+                    .registeredAt(account.getRegisteredAt())
+                    .build();
+        }
+    }
+}
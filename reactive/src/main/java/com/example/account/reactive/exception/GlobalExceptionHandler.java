@@ -0,0 +1,46 @@
+package com.example.account.reactive.exception;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// 서블릿 구현과 같이 에러도 HTTP 200 에 ErrorResponse 로 응답한다.
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+    private static final Set<ErrorCode> EXPECTED_REJECTIONS =
+            EnumSet.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ErrorCode.AMOUNT_EXCEED_BALANCE);
+
+    @ExceptionHandler(AccountException.class)
+    public ErrorResponse handleAccountException(AccountException ex) {
+        if (EXPECTED_REJECTIONS.contains(ex.getErrorCode())) {
+            log.debug("{} is occurred", ex.getErrorCode());
+        } else {
+            log.error("{} is occurred", ex.getErrorCode());
+        }
+
+        return new ErrorResponse(ex.getErrorCode(), ex.getErrorMessage());
+    }
+
+    // 본문 검증 실패(WebExchangeBindException)와 읽을 수 없는 본문
+    @ExceptionHandler(ServerWebInputException.class)
+    public ErrorResponse handleServerWebInputException(ServerWebInputException ex) {
+        log.error("ServerWebInputException is occurred", ex);
+
+        return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ErrorResponse handleException(Exception ex) {
+        log.error("Exception is occurred", ex);
+
+        return new ErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR, ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
+    }
+}
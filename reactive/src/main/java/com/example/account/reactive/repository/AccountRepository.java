@@ -0,0 +1,27 @@
+package com.example.account.reactive.repository;
+
+import com.example.account.reactive.domain.Account;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface AccountRepository extends ReactiveCrudRepository<Account, Long> {
+    Mono<Account> findByAccountNumber(String accountNumber);
+
+    Mono<Long> countByAccountUserId(Long accountUserId);
+
+    @Query("select next value for account_number_seq")
+    Mono<Long> nextAccountNumber();
+
+    // 잔액이 충분할 때만 차감한다. 락 저장소 장애로 분산 락 없이 진행해도 잔액이 음수가 되지 않는다.
+    @Modifying
+    @Query("update account set balance = balance - :amount, updated_at = now() where id = :id and balance >= :amount")
+    Mono<Integer> withdraw(Long id, Long amount);
+
+    @Modifying
+    @Query("update account set balance = balance + :amount, updated_at = now() where id = :id")
+    Mono<Integer> deposit(Long id, Long amount);
+}
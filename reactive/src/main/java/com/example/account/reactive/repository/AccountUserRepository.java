@@ -0,0 +1,9 @@
+package com.example.account.reactive.repository;
+
+import com.example.account.reactive.domain.AccountUser;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountUserRepository extends ReactiveCrudRepository<AccountUser, Long> {
+}
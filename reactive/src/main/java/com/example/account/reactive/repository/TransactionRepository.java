@@ -0,0 +1,11 @@
+package com.example.account.reactive.repository;
+
+import com.example.account.reactive.domain.Transaction;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface TransactionRepository extends ReactiveCrudRepository<Transaction, Long> {
+    Mono<Transaction> findByTransactionId(String transactionId);
+}
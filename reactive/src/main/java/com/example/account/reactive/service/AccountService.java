@@ -0,0 +1,40 @@
+package com.example.account.reactive.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.reactive.domain.Account;
+import com.example.account.reactive.repository.AccountRepository;
+import com.example.account.reactive.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class AccountService {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+
+    @Transactional
+    public Mono<Account> createAccount(Long userId, Long initialBalance) {
+        return accountUserRepository.findById(userId)
+                .switchIfEmpty(Mono.error(AccountException.of(ErrorCode.USER_NOT_FOUND)))
+                .flatMap(accountUser -> accountRepository.countByAccountUserId(userId))
+                .flatMap(accountCount -> accountCount >= MAX_ACCOUNT_PER_USER
+                        ? Mono.error(AccountException.of(ErrorCode.MAX_ACCOUNT_PER_USER_10))
+                        : accountRepository.nextAccountNumber())
+                .flatMap(accountNumber -> accountRepository.save(Account.builder()
+                        .accountUserId(userId)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .accountNumber(String.valueOf(accountNumber))
+                        .balance(initialBalance)
+                        .registeredAt(LocalDateTime.now())
+                        .build()));
+    }
+}
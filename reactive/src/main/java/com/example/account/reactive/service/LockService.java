@@ -0,0 +1,88 @@
+package com.example.account.reactive.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Redisson reactive 락. 락을 기다리는 동안 어떤 스레드도 잡지 않는다.
+ * 락은 스레드가 아닌 요청 단위로 소유되므로 요청마다 음수 소유자 id 를 만든다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LockService {
+    // Redis 장애로 락 없이 진행하는 경우의 소유자 id. 잔액은 조건부 update 로만 바꾸므로 음수가 되지 않는다.
+    public static final long DEGRADED_OWNER_ID = 0L;
+
+    private static final AtomicLong LOCK_OWNER_SEQUENCE = new AtomicLong();
+
+    private final RedissonReactiveClient redissonReactiveClient;
+
+    @Value("${lock.wait-millis:5000}")
+    private long waitMillis;
+
+    @Value("${lock.lease-millis:15000}")
+    private long leaseMillis;
+
+    /**
+     * 계좌 락을 잡고 action 을 실행한다. 성공, 실패, 취소 어느 쪽으로 끝나든 락을 푼다.
+     * 대기 시간 안에 락을 얻지 못하면 ACCOUNT_TRANSACTION_LOCK 으로 실패한다.
+     */
+    public <T> Mono<T> withLock(String accountNumber, Supplier<Mono<T>> action) {
+        return Mono.usingWhen(lock(accountNumber),
+                ownerId -> action.get(),
+                ownerId -> unlock(accountNumber, ownerId));
+    }
+
+    Mono<Long> lock(String accountNumber) {
+        return Mono.defer(() -> {
+            long ownerId = -LOCK_OWNER_SEQUENCE.incrementAndGet();
+            log.debug("Trying lock for accountNumber : {}", accountNumber);
+            return redissonReactiveClient.getLock(getLockKey(accountNumber))
+                    .tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS, ownerId)
+                    .flatMap(isLock -> {
+                        if (!isLock) {
+                            log.debug("Lock acquisition failed. accountNumber : {}", accountNumber);
+                            return Mono.error(AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                        }
+                        return Mono.just(ownerId);
+                    })
+                    .onErrorResume(RedisException.class, e -> {
+                        log.error("Lock provider failed", e);
+                        return Mono.just(DEGRADED_OWNER_ID);
+                    });
+        });
+    }
+
+    // lease 가 끝났거나 Redis 에 닿지 않아도 실패로 돌리지 않는다. 풀지 못한 락은 lease 로 풀린다.
+    Mono<Void> unlock(String accountNumber, long ownerId) {
+        if (ownerId == DEGRADED_OWNER_ID) {
+            return Mono.empty();
+        }
+        return redissonReactiveClient.getLock(getLockKey(accountNumber))
+                .unlock(ownerId)
+                .onErrorResume(e -> {
+                    if (e instanceof IllegalMonitorStateException) {
+                        log.debug("lock {} was not held, skipping", getLockKey(accountNumber));
+                    } else {
+                        log.error("Lock provider unlock failed", e);
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private static String getLockKey(String accountNumber) {
+        return "ACLK:" + accountNumber;
+    }
+}
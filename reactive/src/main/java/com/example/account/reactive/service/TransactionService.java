@@ -0,0 +1,139 @@
+package com.example.account.reactive.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.reactive.domain.Account;
+import com.example.account.reactive.domain.AccountUser;
+import com.example.account.reactive.domain.Transaction;
+import com.example.account.reactive.dto.TransactionDto;
+import com.example.account.reactive.repository.AccountRepository;
+import com.example.account.reactive.repository.AccountUserRepository;
+import com.example.account.reactive.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 서블릿 구현의 TransactionService 와 같은 규칙으로 잔액을 바꾼다.
+ * 잔액은 읽고 고쳐 쓰지 않고 조건부 update 로 바꾼다. 계좌 락이 없는 경우에도 동시 차감이 잔액을 넘지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionService {
+    private final TransactionRepository transactionRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+
+    @Transactional
+    public Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return accountUserRepository.findById(userId)
+                .switchIfEmpty(Mono.error(AccountException.of(ErrorCode.USER_NOT_FOUND)))
+                .zipWhen(accountUser -> getAccount(accountNumber))
+                .flatMap(loaded -> {
+                    Account account = loaded.getT2();
+                    validateUseBalance(loaded.getT1(), account, amount);
+                    return accountRepository.withdraw(account.getId(), amount)
+                            .flatMap(updated -> updated == 1
+                                    ? accountRepository.findById(account.getId())
+                                    : Mono.error(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+                })
+                .flatMap(account -> saveTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
+    }
+
+    public void validateUseBalance(AccountUser accountUser, Account account, Long amount) {
+        if (!accountUser.getId().equals(account.getAccountUserId())) {
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UNMATCH);
+        }
+
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+
+        if (account.getBalance() < amount) {
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedUseTransaction(String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .flatMap(account -> saveTransaction(TransactionType.USE, TransactionResultType.F, account, amount))
+                .then();
+    }
+
+    @Transactional
+    public Mono<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .zipWhen(account -> transactionRepository.findByTransactionId(transactionId)
+                        .switchIfEmpty(Mono.error(AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND))))
+                .flatMap(loaded -> {
+                    Account account = loaded.getT1();
+                    validateCancelBalance(loaded.getT2(), account, amount);
+                    return accountRepository.deposit(account.getId(), amount)
+                            .then(accountRepository.findById(account.getId()));
+                })
+                .flatMap(account -> saveTransaction(TransactionType.CANCEL, TransactionResultType.S, account, amount));
+    }
+
+    public void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+        if (!transaction.getAccountId().equals(account.getId())) {
+            throw AccountException.of(ErrorCode.TRANSACTION_ACCOUNT_UNMATCH);
+        }
+
+        if (!transaction.getAmount().equals(amount)) {
+            throw AccountException.of(ErrorCode.CANCEL_MUST_FULLY);
+        }
+
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw AccountException.of(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedCancelTransaction(String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .flatMap(account -> saveTransaction(TransactionType.CANCEL, TransactionResultType.F, account, amount))
+                .then();
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<TransactionDto> queryTransaction(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .switchIfEmpty(Mono.error(AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND)))
+                .flatMap(transaction -> accountRepository.findById(transaction.getAccountId())
+                        .map(account -> TransactionDto.fromEntity(transaction, account.getAccountNumber())));
+    }
+
+    private Mono<Account> getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND)));
+    }
+
+    private Mono<TransactionDto> saveTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount) {
+        return transactionRepository.save(Transaction.builder()
+                        .transactionType(transactionType)
+                        .transactionResultType(transactionResultType)
+                        .accountId(account.getId())
+                        .amount(amount)
+                        .balanceSnapshot(account.getBalance())
+                        .transactionId(generateTransactionId())
+                        .transactedAt(LocalDateTime.now())
+                        .build())
+                .map(transaction -> TransactionDto.fromEntity(transaction, account.getAccountNumber()));
+    }
+
+    private static String generateTransactionId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
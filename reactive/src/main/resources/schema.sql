@@ -0,0 +1,35 @@
+create table if not exists account_user (
+    id bigint generated by default as identity primary key,
+    name varchar(255),
+    created_at timestamp,
+    updated_at timestamp
+);
+
+create table if not exists account (
+    id bigint generated by default as identity primary key,
+    account_user_id bigint not null,
+    account_number varchar(255) not null unique,
+    account_status varchar(255),
+    balance bigint,
+    registered_at timestamp,
+    unregistered_at timestamp,
+    created_at timestamp,
+    updated_at timestamp
+);
+
+create table if not exists transaction (
+    id bigint generated by default as identity primary key,
+    transaction_type varchar(255),
+    transaction_result_type varchar(255),
+    account_id bigint,
+    amount bigint,
+    balance_snapshot bigint,
+    transaction_id varchar(255),
+    transacted_at timestamp,
+    created_at timestamp,
+    updated_at timestamp
+);
+
+create index if not exists idx_transaction_transaction_id on transaction (transaction_id);
+
+create sequence if not exists account_number_seq start with 1000000000;
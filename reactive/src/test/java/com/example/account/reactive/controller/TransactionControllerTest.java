@@ -0,0 +1,117 @@
+package com.example.account.reactive.controller;
+
+import com.example.account.exception.AccountException;
+import com.example.account.reactive.dto.TransactionDto;
+import com.example.account.reactive.dto.UseBalance;
+import com.example.account.reactive.service.LockService;
+import com.example.account.reactive.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(TransactionController.class)
+class TransactionControllerTest {
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private LockService lockService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        given(lockService.withLock(anyString(), any()))
+                .willAnswer(invocation -> ((Supplier<Mono<?>>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    void successUseBalance() {
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.just(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+
+        webTestClient.post().uri("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "1234567890", 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo("1234567890")
+                .jsonPath("$.transactionResultType").isEqualTo("S")
+                .jsonPath("$.transactionId").isEqualTo("transactionId")
+                .jsonPath("$.amount").isEqualTo(12345);
+    }
+
+    @Test
+    void failedUseBalanceIsRecorded() {
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.error(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        given(transactionService.saveFailedUseTransaction(anyString(), anyLong())).willReturn(Mono.empty());
+
+        webTestClient.post().uri("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "1234567890", 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("AMOUNT_EXCEED_BALANCE");
+
+        verify(transactionService).saveFailedUseTransaction("1234567890", 1000L);
+    }
+
+    @Test
+    void invalidUseBalanceRequest() {
+        webTestClient.post().uri("/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "123", 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("INVALID_REQUEST");
+    }
+
+    @Test
+    void successQueryTransaction() {
+        given(transactionService.queryTransaction(anyString()))
+                .willReturn(Mono.just(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactionType(TransactionType.USE)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+
+        webTestClient.get().uri("/transaction/transactionId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionType").isEqualTo("USE")
+                .jsonPath("$.transactionId").isEqualTo("transactionId");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.account.reactive.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLockReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.RedisConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LockServiceTest {
+    @Mock
+    private RedissonReactiveClient redissonReactiveClient;
+
+    @Mock
+    private RLockReactive lock;
+
+    @InjectMocks
+    private LockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lockService, "waitMillis", 1_000L);
+        ReflectionTestUtils.setField(lockService, "leaseMillis", 15_000L);
+        given(redissonReactiveClient.getLock("ACLK:1000000012")).willReturn(lock);
+    }
+
+    @Test
+    void runActionUnderLockAndUnlock() {
+        AtomicLong owner = new AtomicLong();
+        given(lock.tryLock(eq(1_000L), eq(15_000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willAnswer(invocation -> {
+                    owner.set(invocation.getArgument(3));
+                    return Mono.just(true);
+                });
+        given(lock.unlock(anyLong())).willReturn(Mono.empty());
+
+        StepVerifier.create(lockService.withLock("1000000012", () -> Mono.just("done")))
+                .expectNext("done")
+                .verifyComplete();
+
+        assertTrue(owner.get() < 0);
+        verify(lock).unlock(owner.get());
+    }
+
+    @Test
+    void unlockWhenActionFails() {
+        given(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong())).willReturn(Mono.just(true));
+        given(lock.unlock(anyLong())).willReturn(Mono.empty());
+
+        StepVerifier.create(lockService.withLock("1000000012",
+                        () -> Mono.error(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE))))
+                .expectError(AccountException.class)
+                .verify();
+
+        verify(lock).unlock(anyLong());
+    }
+
+    @Test
+    void failWhenLockNotAcquired() {
+        given(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong())).willReturn(Mono.just(false));
+
+        StepVerifier.create(lockService.withLock("1000000012", () -> Mono.just("done")))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                        ((AccountException) e).getErrorCode()))
+                .verify();
+        verify(lock, never()).unlock(anyLong());
+    }
+
+    @Test
+    void proceedWithoutLockWhenRedisFails() {
+        given(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+                .willReturn(Mono.error(new RedisConnectionException("down")));
+
+        StepVerifier.create(lockService.withLock("1000000012", () -> Mono.just("done")))
+                .expectNext("done")
+                .verifyComplete();
+        verify(lock, never()).unlock(anyLong());
+    }
+
+    @Test
+    void expiredLeaseOnUnlockIsNotAnError() {
+        given(lock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong())).willReturn(Mono.just(true));
+        given(lock.unlock(anyLong())).willReturn(Mono.error(new IllegalMonitorStateException("not held")));
+
+        StepVerifier.create(lockService.withLock("1000000012", () -> Mono.just("done")))
+                .expectNext("done")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.account.reactive.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.reactive.domain.Account;
+import com.example.account.reactive.domain.AccountUser;
+import com.example.account.reactive.domain.Transaction;
+import com.example.account.reactive.repository.AccountRepository;
+import com.example.account.reactive.repository.AccountUserRepository;
+import com.example.account.reactive.repository.TransactionRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private final AccountUser user = AccountUser.builder().id(12L).name("Pobi").build();
+
+    @Test
+    void successUseBalance() {
+        Account account = account(10_000L);
+        given(accountUserRepository.findById(12L)).willReturn(Mono.just(user));
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account));
+        given(accountRepository.withdraw(1L, 1_000L)).willReturn(Mono.just(1));
+        given(accountRepository.findById(1L)).willReturn(Mono.just(account(9_000L)));
+        given(transactionRepository.save(any())).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", 1_000L))
+                .assertNext(transactionDto -> {
+                    assertEquals("1000000012", transactionDto.getAccountNumber());
+                    assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+                    assertEquals(9_000L, transactionDto.getBalanceSnapshot());
+                })
+                .verifyComplete();
+
+        verify(transactionRepository).save(captor.capture());
+        assertEquals(TransactionType.USE, captor.getValue().getTransactionType());
+        assertEquals(1L, captor.getValue().getAccountId());
+    }
+
+    @Test
+    void useBalanceFailsWhenConcurrentWithdrawalDrainedBalance() {
+        given(accountUserRepository.findById(12L)).willReturn(Mono.just(user));
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account(10_000L)));
+        // 읽은 뒤 다른 요청이 먼저 차감해 조건부 update 가 0 건이다.
+        given(accountRepository.withdraw(1L, 1_000L)).willReturn(Mono.just(0));
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", 1_000L))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                        ((AccountException) e).getErrorCode()))
+                .verify();
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void useBalanceUserUnmatch() {
+        given(accountUserRepository.findById(12L)).willReturn(Mono.just(user));
+        Account account = account(10_000L);
+        account.setAccountUserId(13L);
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account));
+
+        StepVerifier.create(transactionService.useBalance(12L, "1000000012", 1_000L))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.USER_ACCOUNT_UNMATCH,
+                        ((AccountException) e).getErrorCode()))
+                .verify();
+        verify(accountRepository, never()).withdraw(anyLong(), anyLong());
+    }
+
+    @Test
+    void successCancelBalance() {
+        Account account = account(9_000L);
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account));
+        given(transactionRepository.findByTransactionId("transactionId")).willReturn(Mono.just(Transaction.builder()
+                .accountId(1L)
+                .amount(1_000L)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .build()));
+        given(accountRepository.deposit(1L, 1_000L)).willReturn(Mono.just(1));
+        given(accountRepository.findById(1L)).willReturn(Mono.just(account(10_000L)));
+        given(transactionRepository.save(any())).willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(transactionService.cancelBalance("transactionId", "1000000012", 1_000L))
+                .assertNext(transactionDto -> {
+                    assertEquals(TransactionType.CANCEL, transactionDto.getTransactionType());
+                    assertEquals(10_000L, transactionDto.getBalanceSnapshot());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void cancelBalanceMustBeFull() {
+        given(accountRepository.findByAccountNumber("1000000012")).willReturn(Mono.just(account(9_000L)));
+        given(transactionRepository.findByTransactionId("transactionId")).willReturn(Mono.just(Transaction.builder()
+                .accountId(1L)
+                .amount(1_000L)
+                .transactedAt(LocalDateTime.now())
+                .build()));
+
+        StepVerifier.create(transactionService.cancelBalance("transactionId", "1000000012", 500L))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.CANCEL_MUST_FULLY,
+                        ((AccountException) e).getErrorCode()))
+                .verify();
+        verify(accountRepository, never()).deposit(anyLong(), anyLong());
+    }
+
+    @Test
+    void queryTransactionNotFound() {
+        given(transactionRepository.findByTransactionId("transactionId")).willReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.queryTransaction("transactionId"))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.TRANSACTION_NOT_FOUND,
+                        ((AccountException) e).getErrorCode()))
+                .verify();
+    }
+
+    private Account account(long balance) {
+        return Account.builder()
+                .id(1L)
+                .accountUserId(12L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(balance)
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMappingBenchmark {
+    private Transaction transaction;
+    private TransactionDto transactionDto;
+
+    @Setup
+    public void setUp() {
+        transaction = Transaction.builder()
+                .account(Account.builder().accountNumber("1000000000").build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("0123456789abcdef0123456789abcdef")
+                .transactedAt(LocalDateTime.now())
+                .build();
+        transactionDto = TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public TransactionDto transactionDtoFromEntity() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public UseBalance.Response useBalanceResponseFrom() {
+        return UseBalance.Response.from(transactionDto);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.account.benchmark;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.GlobalExceptionHandler;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거절 경로 비용 비교. 스택 트레이스를 채우는 예외와 미리 만들어 둔 예외, 그리고 예외 처리기까지의 처리량.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ErrorPathBenchmark {
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Setup
+    public void setUp() throws Exception {
+        globalExceptionHandler = new GlobalExceptionHandler(new ObjectMapper(),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    @Benchmark
+    public RuntimeException stackTraceException() {
+        return new IllegalStateException(ErrorCode.ACCOUNT_TRANSACTION_LOCK.getDescription());
+    }
+
+    @Benchmark
+    public AccountException newStacklessException() {
+        return new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    @Benchmark
+    public AccountException preallocatedException() {
+        return AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ResponseEntity<byte[]> handleExpectedRejection() throws Exception {
+        return globalExceptionHandler.handleAccountException(AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> handleCustomMessage() throws Exception {
+        return globalExceptionHandler.handleAccountException(
+                new AccountException(ErrorCode.INVALID_REQUEST, "custom"));
+    }
+}
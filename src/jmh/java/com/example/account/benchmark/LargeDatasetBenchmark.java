@@ -0,0 +1,87 @@
+package com.example.account.benchmark;
+
+import com.example.account.AccountApplication;
+import com.example.account.dataset.Dataset;
+import com.example.account.dataset.DatasetLoader;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 합성 데이터를 채운 H2 위에서 조회한다. 빈 테이블에서는 드러나지 않는 인덱스와 스캔 비용을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LargeDatasetBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({"1000000"})
+    private long transactions;
+
+    @Param({"0.8"})
+    private double skew;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private AccountService accountService;
+    private Dataset dataset;
+    private String[] transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=6393",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "warmup.enabled=false",
+                        "dataset.enabled=true",
+                        "dataset.users=10000",
+                        "dataset.accounts=100000",
+                        "dataset.transactions=" + transactions,
+                        "dataset.skew=" + skew,
+                        "dataset.end=2024-01-01T00:00")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        accountService = context.getBean(AccountService.class);
+        dataset = context.getBean(DatasetLoader.class).getDataset();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        SplittableRandom random = new SplittableRandom(dataset.getSpec().getSeed());
+        transactionIds = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            transactionIds[i] = jdbcTemplate.queryForObject(
+                    "select transaction_id from transaction where id = ?", String.class,
+                    dataset.transactionId(random.nextLong(transactions)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto queryTransaction() {
+        return transactionService.queryTransaction(transactionIds[ThreadLocalRandom.current().nextInt(SAMPLES)], null);
+    }
+
+    @Benchmark
+    public List<AccountDto> getAccountByUserId() {
+        return accountService.getAccountByUserId(
+                dataset.userId(ThreadLocalRandom.current().nextInt(dataset.getSpec().getUsers())));
+    }
+}
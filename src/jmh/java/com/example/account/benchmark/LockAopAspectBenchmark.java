@@ -0,0 +1,64 @@
+package com.example.account.benchmark;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.dto.UseBalance;
+import com.example.account.service.LockAopAspect;
+import com.example.account.service.LockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 락 자체 비용을 빼고 LockAopAspect 프록시가 더하는 오버헤드만 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LockAopAspectBenchmark {
+    private LockedTarget target;
+    private LockedTarget proxy;
+    private UseBalance.Request request;
+
+    public static class LockedTarget {
+        @AccountLock
+        public String handle(AccountLockIdInterface request) {
+            return request.getAccountNumber();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        LockService noOpLockService = new LockService(null, null) {
+            @Override
+            public boolean lock(String accountNumber) {
+                return true;
+            }
+
+            @Override
+            public void unlock(String accountNumber) {
+            }
+        };
+
+        target = new LockedTarget();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LockAopAspect(noOpLockService, new ThreadPoolTaskExecutor(), new SimpleMeterRegistry()));
+        proxy = proxyFactory.getProxy();
+
+        request = new UseBalance.Request(1L, "1000000000", 1000L);
+    }
+
+    @Benchmark
+    public String direct() {
+        return target.handle(request);
+    }
+
+    @Benchmark
+    public String throughAspect() {
+        return proxy.handle(request);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.account.benchmark;
+
+import com.example.account.service.LockCircuitBreaker;
+import com.example.account.service.LockNodeRing;
+import com.example.account.service.LockService;
+import com.example.account.service.RedissonLockProvider;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 임베디드 Redis 에 대해 계좌 락 획득/해제 왕복 비용을 잰다.
+ * 스레드마다 다른 계좌를 사용하므로 경합이 아닌 순수 왕복 지연을 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockServiceBenchmark {
+    private static final int REDIS_PORT = 6390;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockService lockService;
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        String accountNumber;
+
+        @Setup
+        public void setUp() {
+            accountNumber = String.valueOf(1_000_000_000L + Thread.currentThread().getId());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = RedisServer.builder().port(REDIS_PORT).setting("maxheap 128M").build();
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+        LockNodeRing lockNodeRing = new LockNodeRing(128, Map.of("redis://127.0.0.1:" + REDIS_PORT, redissonClient));
+        lockService = new LockService(new RedissonLockProvider(lockNodeRing), new LockCircuitBreaker(5, 10_000L));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public void lockAndUnlock(ThreadAccount threadAccount) {
+        lockService.lock(threadAccount.accountNumber);
+        lockService.unlock(threadAccount.accountNumber);
+    }
+
+    @Benchmark
+    public Long lockAndUnlockAsync(ThreadAccount threadAccount) {
+        Long ownerId = lockService.lockAsync(threadAccount.accountNumber, 1000L).join();
+        lockService.unlockAsync(threadAccount.accountNumber, ownerId).join();
+        return ownerId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.account.benchmark;
+
+import com.example.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdBenchmark {
+    @Benchmark
+    public String generateTransactionId() {
+        return TransactionService.generateTransactionId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateTransactionIdContended() {
+        return TransactionService.generateTransactionId();
+    }
+}
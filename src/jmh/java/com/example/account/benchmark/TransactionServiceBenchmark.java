@@ -0,0 +1,70 @@
+package com.example.account.benchmark;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 메모리 DB 위에서 사용/취소 한 쌍을 실행한다. 잔액은 매 호출 후 원래대로 돌아온다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionServiceBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long AMOUNT = 1000L;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=6391",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(USER_ID, 1_000_000_000L)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useAndCancelBalance() {
+        TransactionDto used = transactionService.useBalance(USER_ID, accountNumber, AMOUNT);
+        return transactionService.cancelBalance(used.getTransactionId(), accountNumber, AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionDto queryTransaction(QueriedTransaction queried) {
+        return transactionService.queryTransaction(queried.transactionId, null);
+    }
+
+    @State(Scope.Benchmark)
+    public static class QueriedTransaction {
+        String transactionId;
+
+        @Setup(Level.Trial)
+        public void setUp(TransactionServiceBenchmark benchmark) {
+            transactionId = benchmark.transactionService
+                    .useBalance(USER_ID, benchmark.accountNumber, AMOUNT)
+                    .getTransactionId();
+        }
+    }
+}
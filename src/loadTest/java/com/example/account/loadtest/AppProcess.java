@@ -0,0 +1,161 @@
+package com.example.account.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션을 별도 프로세스(JVM 또는 네이티브 실행 파일)로 띄우고 첫 응답 시간과 RSS 를 잰다.
+ */
+public class AppProcess implements AutoCloseable {
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_MILLIS = 10L;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final Process process;
+    private final long startedAt;
+    private final int serverPort;
+    private final Path log;
+
+    private AppProcess(Process process, long startedAt, int serverPort, Path log) {
+        this.process = process;
+        this.startedAt = startedAt;
+        this.serverPort = serverPort;
+        this.log = log;
+    }
+
+    /**
+     * @param launcher 실행 명령. 예) [java, -cp, ..., AccountApplication] 또는 [build/native/nativeCompile/account]
+     */
+    public static AppProcess start(List<String> launcher, String profiles, Path log, String... args) throws IOException {
+        int serverPort = freePort();
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--spring.profiles.active=" + profiles);
+        command.add("--server.port=" + serverPort);
+        command.add("--spring.redis.port=" + freePort());
+        command.add("--logging.level.root=WARN");
+        command.addAll(List.of(args));
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new AppProcess(process, startedAt, serverPort, log);
+    }
+
+    public static List<String> jvmLauncher(String classpath, String... jvmArgs) {
+        return jvmLauncherFor("com.example.account.AccountApplication", classpath, jvmArgs);
+    }
+
+    public static List<String> jvmLauncherFor(String mainClass, String classpath, String... jvmArgs) {
+        List<String> launcher = new ArrayList<>();
+        launcher.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        launcher.addAll(List.of(jvmArgs));
+        launcher.add("-cp");
+        launcher.add(classpath);
+        launcher.add(mainClass);
+        return launcher;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + serverPort;
+    }
+
+    /**
+     * 존재하지 않는 거래 조회는 컨트롤러, JPA, 예외 처리까지 거친 뒤 400 으로 응답한다.
+     *
+     * @return 프로세스 시작부터 첫 응답까지 걸린 시간(ms)
+     */
+    public long awaitFirstResponse() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/transaction/startup-probe"))
+                .timeout(START_TIMEOUT)
+                .GET()
+                .build();
+        long deadline = startedAt + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ". See " + log);
+            }
+            try {
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            } catch (IOException e) {
+                Thread.sleep(POLL_MILLIS);
+            }
+        }
+        throw new IllegalStateException("No response within " + START_TIMEOUT + ". See " + log);
+    }
+
+    /**
+     * 워밍업이 끝나 readiness 가 UP 이 될 때까지 기다린다.
+     *
+     * @return 프로세스 시작부터 준비 완료까지 걸린 시간(ms)
+     */
+    public long awaitReady() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health/readiness"))
+                .timeout(START_TIMEOUT)
+                .GET()
+                .build();
+        long deadline = startedAt + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        throw new IllegalStateException("Not ready within " + START_TIMEOUT + ". See " + log);
+    }
+
+    // 리눅스에서만 측정한다. 그 외에는 -1.
+    public long rssKb() {
+        return procStatus("VmRSS:");
+    }
+
+    // 프로세스의 스레드 수. 리눅스에서만 측정한다. 그 외에는 -1.
+    public long threadCount() {
+        return procStatus("Threads:");
+    }
+
+    private long procStatus(String field) {
+        Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException e) {
+            return -1L;
+        }
+        return -1L;
+    }
+
+    // SIGTERM 으로 종료해야 종료 훅과 AppCDS 덤프가 실행된다.
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.account.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 지연 시간 히스토그램과 ErrorCode 별 실패 건수를 모은다.
+ * 응답을 받지 못한 요청(타임아웃, 연결 실패)은 지연 시간이 없으므로 히스토그램에 넣지 않고 따로 센다.
+ */
+public class LoadTestReport {
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> errors = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> failures = new ConcurrentHashMap<>();
+
+    public void record(String operation, long latencyNanos, String errorCode) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3))
+                .recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        if (errorCode != null) {
+            errors.computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(errorCode, key -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    public void recordFailure(String operation, String failure) {
+        failures.computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(failure, key -> new LongAdder())
+                .increment();
+    }
+
+    // 응답을 받은 요청 수
+    public long totalCount() {
+        return latencies.values().stream()
+                .mapToLong(Histogram::getTotalCount)
+                .sum();
+    }
+
+    // 응답을 받지 못한 요청 수
+    public long failureCount() {
+        return failures.values().stream()
+                .mapToLong(LoadTestReport::sum)
+                .sum();
+    }
+
+    public double percentileMillis(String operation, double percentile) {
+        Histogram histogram = latencies.get(operation);
+        return histogram == null ? 0.0 : toMillis(histogram.getValueAtPercentile(percentile));
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        out.printf("%-10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "errors", "failures", "p50(ms)", "p99(ms)", "p999(ms)");
+
+        TreeMap<String, Histogram> operations = new TreeMap<>(latencies);
+        failures.keySet().forEach(operation -> operations.putIfAbsent(operation, new Histogram(1)));
+        operations.forEach((operation, histogram) -> {
+            out.printf("%-10s %10d %10.1f %10d %10d %10.2f %10.2f %10.2f%n",
+                    operation,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    sum(errors.get(operation)),
+                    sum(failures.get(operation)),
+                    toMillis(histogram.getValueAtPercentile(50)),
+                    toMillis(histogram.getValueAtPercentile(99)),
+                    toMillis(histogram.getValueAtPercentile(99.9)));
+        });
+
+        out.println();
+        out.println("errors by ErrorCode");
+        new TreeMap<>(errors).forEach((operation, byCode) ->
+                new TreeMap<>(byCode).forEach((errorCode, count) ->
+                        out.printf("  %-10s %-30s %10d%n", operation, errorCode, count.sum())));
+
+        if (!failures.isEmpty()) {
+            out.println();
+            out.println("requests without a response");
+            new TreeMap<>(failures).forEach((operation, byType) ->
+                    new TreeMap<>(byType).forEach((failure, count) ->
+                            out.printf("  %-10s %-30s %10d%n", operation, failure, count.sum())));
+        }
+    }
+
+    private static long sum(Map<String, LongAdder> counts) {
+        return counts == null ? 0 : counts.values().stream()
+                .mapToLong(LongAdder::sum)
+                .sum();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 임베디드 Redis 와 H2 로 전체 애플리케이션을 띄운 뒤, 설정된 비율과 계좌 쏠림으로 API 를 호출한다.
+ *
+ * <pre>
+ * ./gradlew loadTest -Dloadtest.duration=60 -Dloadtest.concurrency=64 \
+ *     -Dloadtest.zipf=1.2 -Dloadtest.mix=use=60,cancel=20,query=15,account=5 \
+ *     -Dloadtest.dataset.enabled=true -Dloadtest.dataset.transactions=10000000
+ * </pre>
+ * 가상 스레드로 띄우려면 -Dloadtest.virtualThreads=true. 두 모드의 비교는 VirtualThreadComparison 이 한다.
+ */
+public class LoadTestRunner {
+    private static final int ACCOUNTS_PER_USER = 10;
+    private static final long[] USER_IDS = {1L, 2L, 3L};
+    private static final long AMOUNT = 100L;
+    private static final int RECENT_TRANSACTIONS = 1024;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile LoadTestReport report = new LoadTestReport();
+
+    private final String baseUrl;
+    private final List<Long> accountOwners = new ArrayList<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final Map<String, BlockingQueue<String>> cancellable = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> recentTransactionIds = new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentIndex = new AtomicLong();
+
+    private ZipfDistribution accountDistribution;
+    private String[] operationTable;
+
+    public LoadTestRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        int accounts = Math.min(Integer.getInteger("loadtest.accounts", 30), USER_IDS.length * ACCOUNTS_PER_USER);
+        double zipfExponent = Double.parseDouble(System.getProperty("loadtest.zipf", "1.0"));
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", "use=60,cancel=20,query=15,account=5"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.redis.port=" + Integer.getInteger("loadtest.redisPort", 6392),
+                        "transaction.use.delay-ms=0",
+                        "virtual-threads.enabled=" + Boolean.getBoolean("loadtest.virtualThreads"),
+                        "rate-limit.enabled=" + Boolean.getBoolean("loadtest.rateLimit"),
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.account=OFF")
+                .properties(datasetProperties())
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner("http://127.0.0.1:" + port);
+            runner.prepare(accounts, zipfExponent, mix);
+            runner.run(concurrency, Duration.ofSeconds(durationSeconds));
+        } finally {
+            context.close();
+        }
+    }
+
+    // -Dloadtest.dataset.enabled=true -Dloadtest.dataset.transactions=... 로 큰 테이블 위에서 부하를 준다.
+    static String[] datasetProperties() {
+        return System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest.dataset."))
+                .map(name -> name.substring("loadtest.".length()) + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            weights.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+
+    void prepare(int accounts, double zipfExponent, Map<String, Integer> mix) throws Exception {
+        for (int i = 0; i < accounts; i++) {
+            long userId = USER_IDS[i % USER_IDS.length];
+            JsonNode created = send("setup", "POST", "/account",
+                    Map.of("userId", userId, "initialBalance", 1_000_000_000L));
+            String accountNumber = created.path("accountNumber").asText();
+            accountOwners.add(userId);
+            accountNumbers.add(accountNumber);
+            cancellable.put(accountNumber, new LinkedBlockingQueue<>(1000));
+        }
+        accountDistribution = new ZipfDistribution(accounts, zipfExponent);
+
+        List<String> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        operationTable = table.toArray(new String[0]);
+    }
+
+    /**
+     * @return 구간 동안 응답을 받은 요청의 초당 처리량
+     */
+    double run(int concurrency, Duration duration) throws InterruptedException {
+        // 준비 단계나 이전 구간(워밍업)의 기록은 빼고 집계한다.
+        report = new LoadTestReport();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    String operation = operationTable[ThreadLocalRandom.current().nextInt(operationTable.length)];
+                    try {
+                        execute(operation);
+                    } catch (Exception e) {
+                        report.recordFailure(operation, e.getClass().getSimpleName());
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        report.print(System.out, elapsedNanos);
+        return report.totalCount() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    // 마지막 run 구간의 기록
+    LoadTestReport report() {
+        return report;
+    }
+
+    private void execute(String operation) throws Exception {
+        int index = accountDistribution.sample();
+        String accountNumber = accountNumbers.get(index);
+
+        switch (operation) {
+            case "use":
+                useBalance(accountOwners.get(index), accountNumber);
+                break;
+            case "cancel":
+                String transactionId = cancellable.get(accountNumber).poll();
+                if (transactionId == null) {
+                    useBalance(accountOwners.get(index), accountNumber);
+                } else {
+                    send("cancel", "POST", "/transaction/cancel", Map.of(
+                            "transactionId", transactionId, "accountNumber", accountNumber, "amount", AMOUNT));
+                }
+                break;
+            case "query":
+                String recent = recentTransactionIds.get((int) (ThreadLocalRandom.current().nextLong(
+                        Math.max(1, Math.min(recentIndex.get(), RECENT_TRANSACTIONS)))));
+                if (recent != null) {
+                    send("query", "GET", "/transaction/" + recent, null);
+                }
+                break;
+            case "account":
+                send("account", "GET", "/account?user_id=" + accountOwners.get(index), null);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation : " + operation);
+        }
+    }
+
+    private void useBalance(Long userId, String accountNumber) throws Exception {
+        JsonNode used = send("use", "POST", "/transaction/use",
+                Map.of("userId", userId, "accountNumber", accountNumber, "amount", AMOUNT));
+        JsonNode transactionId = used.get("transactionId");
+        if (transactionId != null) {
+            cancellable.get(accountNumber).offer(transactionId.asText());
+            recentTransactionIds.set((int) (recentIndex.getAndIncrement() % RECENT_TRANSACTIONS), transactionId.asText());
+        }
+    }
+
+    private JsonNode send(String operation, String method, String path, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (body == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        }
+
+        long startedAt = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        long latency = System.nanoTime() - startedAt;
+
+        JsonNode json = objectMapper.readTree(response.body());
+        String errorCode = json.isObject() && json.has("errorCode") ? json.get("errorCode").asText() : null;
+        if (errorCode == null && response.statusCode() >= 400) {
+            errorCode = "HTTP_" + response.statusCode();
+        }
+        report.record(operation, latency, errorCode);
+        return json;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.account.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 같은 부하로 JVM 빌드와 네이티브 빌드를 차례로 띄워 기동 시간, RSS, 워밍업 이후 처리량을 비교한다.
+ *
+ * <pre>
+ * ./gradlew nativeComparison -Dnative.duration=60 -Dnative.warmup=20
+ * </pre>
+ */
+public class NativeComparison {
+    private static final int ACCOUNTS = 30;
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        String executable = System.getProperty("native.executable");
+        if (classpath == null || executable == null) {
+            throw new IllegalArgumentException("startup.classpath and native.executable are required");
+        }
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("native.warmup", 20));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("native.duration", 30));
+        int concurrency = Integer.getInteger("native.concurrency", 32);
+        Map<String, Integer> mix = LoadTestRunner.parseMix(
+                System.getProperty("native.mix", "use=60,cancel=20,query=15,account=5"));
+        Path reportDir = Paths.get(System.getProperty("native.report-dir", "build/reports/native"));
+        Files.createDirectories(reportDir);
+
+        List<String> results = new ArrayList<>();
+        results.add(measure("jvm", AppProcess.jvmLauncher(classpath), reportDir, warmup, duration, concurrency, mix));
+        results.add(measure("native", List.of(executable), reportDir, warmup, duration, concurrency, mix));
+
+        String report = "[" + String.join(",", results) + "]" + System.lineSeparator();
+        Files.writeString(reportDir.resolve("comparison.json"), report);
+        System.out.print(report);
+    }
+
+    private static String measure(String mode, List<String> launcher, Path reportDir, Duration warmup,
+                                  Duration duration, int concurrency, Map<String, Integer> mix) throws Exception {
+        try (AppProcess app = AppProcess.start(launcher, "default", reportDir.resolve(mode + ".log"),
+                "--transaction.use.delay-ms=0", "--rate-limit.enabled=false")) {
+            long startupMillis = app.awaitFirstResponse();
+            long readyMillis = app.awaitReady();
+            long idleRssKb = app.rssKb();
+
+            LoadTestRunner runner = new LoadTestRunner(app.baseUrl());
+            runner.prepare(ACCOUNTS, 1.0, mix);
+            System.out.printf("%n[%s] warm-up %s%n", mode, warmup);
+            runner.run(concurrency, warmup);
+            System.out.printf("%n[%s] measure %s%n", mode, duration);
+            double throughput = runner.run(concurrency, duration);
+            long loadedRssKb = app.rssKb();
+
+            return String.format("{\"mode\":\"%s\",\"startupMillis\":%d,\"readyMillis\":%d,\"idleRssKb\":%d,\"loadedRssKb\":%d,\"opsPerSecond\":%.1f}",
+                    mode, startupMillis, readyMillis, idleRssKb, loadedRssKb, throughput);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.account.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서블릿 구현(AccountApplication)과 리액티브 구현(reactive 모듈)을 차례로 띄워, 동시 연결 수를 늘려 가며
+ * 처리량, 꼬리 지연(p99, p999), 응답 없이 끝난 요청 수, 부하 중 서버 스레드 수를 비교한다.
+ * use 는 락을 잡은 채 transaction.use.delay-ms 만큼 기다리므로 느린 하위 시스템을 기다리는 요청을 흉내 낸다.
+ *
+ * <pre>
+ * ./gradlew reactiveComparison -Dreactive.connections=256,1024,4096 -Dreactive.use-delay-ms=100
+ * </pre>
+ */
+public class ReactiveComparison {
+    private static final int ACCOUNTS = 30;
+
+    public static void main(String[] args) throws Exception {
+        String servletClasspath = System.getProperty("startup.classpath");
+        String reactiveClasspath = System.getProperty("reactive.classpath");
+        if (servletClasspath == null || reactiveClasspath == null) {
+            throw new IllegalArgumentException("startup.classpath and reactive.classpath are required");
+        }
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("reactive.warmup", 20));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("reactive.duration", 30));
+        long useDelayMillis = Long.getLong("reactive.use-delay-ms", 100L);
+        Map<String, Integer> mix = LoadTestRunner.parseMix(
+                System.getProperty("reactive.mix", "use=50,cancel=10,query=40"));
+        Path reportDir = Paths.get(System.getProperty("reactive.report-dir", "build/reports/reactive"));
+        Files.createDirectories(reportDir);
+
+        List<String> results = new ArrayList<>();
+        for (String connections : System.getProperty("reactive.connections", "256,1024,4096").split(",")) {
+            int concurrency = Integer.parseInt(connections.trim());
+            results.add(measure("servlet", AppProcess.jvmLauncher(servletClasspath),
+                    reportDir, warmup, duration, concurrency, useDelayMillis, mix,
+                    "--rate-limit.enabled=false", "--admission.enabled=false"));
+            results.add(measure("reactive", AppProcess.jvmLauncherFor(
+                            "com.example.account.reactive.ReactiveAccountApplication", reactiveClasspath),
+                    reportDir, warmup, duration, concurrency, useDelayMillis, mix));
+        }
+
+        String report = "[" + String.join(",", results) + "]" + System.lineSeparator();
+        Files.writeString(reportDir.resolve("comparison.json"), report);
+        System.out.print(report);
+    }
+
+    private static String measure(String stack, List<String> launcher, Path reportDir, Duration warmup,
+                                  Duration duration, int concurrency, long useDelayMillis,
+                                  Map<String, Integer> mix, String... appArgs) throws Exception {
+        List<String> args = new ArrayList<>(List.of(appArgs));
+        args.add("--transaction.use.delay-ms=" + useDelayMillis);
+        try (AppProcess app = AppProcess.start(launcher, "default",
+                reportDir.resolve(stack + "-" + concurrency + ".log"), args.toArray(new String[0]))) {
+            app.awaitReady();
+
+            LoadTestRunner runner = new LoadTestRunner(app.baseUrl());
+            runner.prepare(ACCOUNTS, 1.0, mix);
+            System.out.printf("%n[%s] warm-up %s, connections %d%n", stack, warmup, concurrency);
+            runner.run(concurrency, warmup);
+            System.out.printf("%n[%s] measure %s, connections %d%n", stack, duration, concurrency);
+            ThreadSampler threads = new ThreadSampler(app);
+            threads.start();
+            double throughput = runner.run(concurrency, duration);
+            threads.interrupt();
+            threads.join();
+            LoadTestReport report = runner.report();
+
+            return String.format("{\"stack\":\"%s\",\"connections\":%d,\"opsPerSecond\":%.1f,\"failures\":%d,"
+                            + "\"useP99Millis\":%.2f,\"useP999Millis\":%.2f,"
+                            + "\"queryP99Millis\":%.2f,\"queryP999Millis\":%.2f,\"maxServerThreads\":%d}",
+                    stack, concurrency, throughput, report.failureCount(),
+                    report.percentileMillis("use", 99), report.percentileMillis("use", 99.9),
+                    report.percentileMillis("query", 99), report.percentileMillis("query", 99.9),
+                    threads.max);
+        }
+    }
+
+    // 부하 중 서버 프로세스의 최대 스레드 수
+    private static class ThreadSampler extends Thread {
+        private final AppProcess app;
+        private volatile long max = -1L;
+
+        private ThreadSampler(AppProcess app) {
+            this.app = app;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                max = Math.max(max, app.threadCount());
+                try {
+                    Thread.sleep(500L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.account.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * 애플리케이션을 별도 프로세스로 띄워 첫 요청에 응답할 때까지의 시간(time-to-first-request)을 잰다.
+ * 중앙값이 예산보다 크면 실패로 끝난다. 예산은 startup.budget-millis 로 직접 주거나,
+ * startup.budget-file 의 기준값(baseline-millis)에 허용 오차(tolerance-percent)를 더해 정한다.
+ * startup.update-baseline=true 이면 예산을 검사하지 않고 잰 중앙값을 기준값으로 저장한다.
+ * startup.train=true 이면 한 번만 띄워서 AppCDS 아카이브(startup.archive)를 만든다.
+ *
+ * <pre>
+ * ./gradlew startupBenchmark -Dstartup.runs=5 -Dstartup.budget-millis=8000
+ * </pre>
+ */
+public class StartupBenchmark {
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        if (classpath == null) {
+            throw new IllegalArgumentException("startup.classpath is required");
+        }
+        String profiles = System.getProperty("startup.profiles", "faststart");
+        Path archive = Paths.get(System.getProperty("startup.archive", "build/cds/account.jsa"));
+        Path reportDir = Paths.get(System.getProperty("startup.report-dir", "build/reports/startup"));
+        Files.createDirectories(reportDir);
+
+        if (Boolean.getBoolean("startup.train")) {
+            Files.createDirectories(archive.toAbsolutePath().getParent());
+            List<String> launcher = AppProcess.jvmLauncher(classpath, "-XX:ArchiveClassesAtExit=" + archive);
+            try (AppProcess app = AppProcess.start(launcher, profiles, reportDir.resolve("train.log"))) {
+                long millis = app.awaitFirstResponse();
+                System.out.printf("AppCDS archive written to %s (training start %d ms)%n", archive, millis);
+            }
+            return;
+        }
+
+        int runs = Integer.getInteger("startup.runs", 5);
+        String budgetFile = System.getProperty("startup.budget-file");
+        long budgetMillis = Long.getLong("startup.budget-millis",
+                budgetFile == null ? 0L : budgetFromFile(Paths.get(budgetFile)));
+        boolean cds = Files.exists(archive);
+        List<String> launcher = cds
+                ? AppProcess.jvmLauncher(classpath, "-XX:SharedArchiveFile=" + archive)
+                : AppProcess.jvmLauncher(classpath);
+
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            try (AppProcess app = AppProcess.start(launcher, profiles, reportDir.resolve("run-" + i + ".log"))) {
+                samples[i] = app.awaitFirstResponse();
+            }
+            System.out.printf("run %d : %d ms%n", i, samples[i]);
+        }
+        Arrays.sort(samples);
+        long median = samples[runs / 2];
+
+        String report = String.format("{\"runs\":%d,\"cds\":%s,\"medianMillis\":%d,\"minMillis\":%d,\"maxMillis\":%d,\"budgetMillis\":%d}%n",
+                runs, cds, median, samples[0], samples[runs - 1], budgetMillis);
+        Files.writeString(reportDir.resolve("startup.json"), report);
+        System.out.printf("time-to-first-request median %d ms (min %d, max %d, cds %s)%n",
+                median, samples[0], samples[runs - 1], cds);
+
+        if (Boolean.getBoolean("startup.update-baseline")) {
+            if (budgetFile == null) {
+                throw new IllegalArgumentException("startup.budget-file is required to update the baseline");
+            }
+            updateBaseline(Paths.get(budgetFile), median);
+            System.out.printf("Startup baseline updated to %d ms in %s%n", median, budgetFile);
+            return;
+        }
+
+        if (budgetMillis > 0 && median > budgetMillis) {
+            System.err.printf("Startup budget exceeded : %d ms > %d ms%n", median, budgetMillis);
+            System.exit(1);
+        }
+    }
+
+    private static long budgetFromFile(Path file) throws IOException {
+        Properties budget = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            budget.load(reader);
+        }
+        long baseline = Long.parseLong(budget.getProperty("baseline-millis"));
+        long tolerancePercent = Long.parseLong(budget.getProperty("tolerance-percent", "0"));
+        return baseline * (100 + tolerancePercent) / 100;
+    }
+
+    // 주석과 허용 오차는 그대로 두고 기준값 줄만 바꾼다.
+    private static void updateBaseline(Path file, long medianMillis) throws IOException {
+        String updated = Files.readAllLines(file).stream()
+                .map(line -> line.startsWith("baseline-millis=") ? "baseline-millis=" + medianMillis : line)
+                .collect(Collectors.joining(System.lineSeparator(), "", System.lineSeparator()));
+        Files.writeString(file, updated);
+    }
+}
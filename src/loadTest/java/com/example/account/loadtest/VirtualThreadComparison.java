@@ -0,0 +1,68 @@
+package com.example.account.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 같은 부하로 플랫폼 스레드 모드와 가상 스레드 모드를 차례로 띄워 동시성 한계를 비교한다.
+ * 동시성은 Tomcat 스레드 수(server.tomcat.threads.max)보다 크게 주고, 조회는 요청 스레드에서 JDBC 를 기다리므로
+ * 조회 비율을 높인다. 모드마다 응답 처리량, 응답 없이 끝난 요청 수, 엔드포인트별 p99 를 남긴다.
+ *
+ * <pre>
+ * ./gradlew virtualThreadComparison -Dvt.concurrency=1000 -Dvt.duration=60
+ * </pre>
+ */
+public class VirtualThreadComparison {
+    private static final int ACCOUNTS = 30;
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        if (classpath == null) {
+            throw new IllegalArgumentException("startup.classpath is required");
+        }
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("vt.warmup", 20));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("vt.duration", 30));
+        int concurrency = Integer.getInteger("vt.concurrency", 1000);
+        Map<String, Integer> mix = LoadTestRunner.parseMix(System.getProperty("vt.mix", "query=80,use=20"));
+        Path reportDir = Paths.get(System.getProperty("vt.report-dir", "build/reports/virtual-threads"));
+        Files.createDirectories(reportDir);
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            results.add(measure(virtualThreads, classpath, reportDir, warmup, duration, concurrency, mix));
+        }
+
+        String report = "[" + String.join(",", results) + "]" + System.lineSeparator();
+        Files.writeString(reportDir.resolve("comparison.json"), report);
+        System.out.print(report);
+    }
+
+    private static String measure(boolean virtualThreads, String classpath, Path reportDir, Duration warmup,
+                                  Duration duration, int concurrency, Map<String, Integer> mix) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        List<String> launcher = AppProcess.jvmLauncher(classpath, "-Djdk.tracePinnedThreads=short");
+        try (AppProcess app = AppProcess.start(launcher, "default", reportDir.resolve(mode + ".log"),
+                "--virtual-threads.enabled=" + virtualThreads,
+                "--transaction.use.delay-ms=0", "--rate-limit.enabled=false", "--admission.enabled=false")) {
+            app.awaitReady();
+
+            LoadTestRunner runner = new LoadTestRunner(app.baseUrl());
+            runner.prepare(ACCOUNTS, 1.0, mix);
+            System.out.printf("%n[%s] warm-up %s%n", mode, warmup);
+            runner.run(concurrency, warmup);
+            System.out.printf("%n[%s] measure %s, concurrency %d%n", mode, duration, concurrency);
+            double throughput = runner.run(concurrency, duration);
+            LoadTestReport report = runner.report();
+
+            return String.format("{\"mode\":\"%s\",\"concurrency\":%d,\"opsPerSecond\":%.1f,\"failures\":%d,"
+                            + "\"queryP99Millis\":%.2f,\"useP99Millis\":%.2f}",
+                    mode, concurrency, throughput, report.failureCount(),
+                    report.percentileMillis("query", 99), report.percentileMillis("use", 99));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.account.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 0 ~ size-1 사이의 인덱스를 Zipf 분포로 뽑는다. exponent 가 0 이면 균등 분포와 같다.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int sample() {
+        double random = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, random);
+        int sampled = index >= 0 ? index : -index - 1;
+        return Math.min(sampled, cumulative.length - 1);
+    }
+}
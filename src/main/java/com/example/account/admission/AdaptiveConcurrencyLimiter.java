@@ -0,0 +1,95 @@
+package com.example.account.admission;
+
+/**
+ * 관측한 지연 시간으로 동시 실행 한도를 조절한다(AIMD).
+ * 지연 시간이 목표 안이고 한도의 절반 이상을 쓰고 있으면 한도를 1 늘리고,
+ * 목표를 넘기거나 실패하면 backoffRatio 를 곱해 줄인다.
+ * 목표는 최근 최소 지연 시간의 tolerance 배이며 minLatencyTargetNanos 보다 작아지지 않는다.
+ * 지연 시간은 성공한 요청에서만 잰다. 빨리 끝나는 거절 응답이 기준을 끌어내리면 정상 요청이 모두 느린 것으로 보인다.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public enum Outcome {
+        // 지연 시간을 재고 한도를 조절한다.
+        SUCCESS,
+        // 처리 실패. 한도를 줄인다.
+        FAILURE,
+        // 잔액 부족, 요청 한도 초과 같은 업무상 거절. 용량과 무관하므로 한도도 기준도 건드리지 않는다.
+        REJECTED
+    }
+
+    // 이 건수마다 최소 지연 시간을 새로 잰다. 부하 특성이 바뀌어도 기준이 따라간다.
+    private static final int MIN_LATENCY_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long minLatencyTargetNanos;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long minLatencyTargetNanos, double tolerance, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.minLatencyTargetNanos = minLatencyTargetNanos;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, Outcome outcome) {
+        int used = inFlight;
+        inFlight--;
+        if (outcome == Outcome.REJECTED) {
+            return;
+        }
+        if (outcome == Outcome.SUCCESS) {
+            sampleLatency(latencyNanos);
+        }
+
+        if (outcome == Outcome.FAILURE || latencyNanos > latencyTargetNanos()) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (used * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized long latencyTargetNanos() {
+        long baseline = Math.min(baselineNanos, windowMinNanos);
+        if (baseline == Long.MAX_VALUE) {
+            return minLatencyTargetNanos;
+        }
+        return Math.max(minLatencyTargetNanos, (long) (baseline * tolerance));
+    }
+
+    private void sampleLatency(long latencyNanos) {
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        if (++windowSamples >= MIN_LATENCY_WINDOW) {
+            baselineNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.account.admission;
+
+import com.example.account.admission.AdaptiveConcurrencyLimiter.Outcome;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.GlobalExceptionHandler;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * GET 은 읽기, 나머지는 쓰기 벌크헤드로 입장시킨다. 한도를 넘으면 기다리지 않고 SERVICE_OVERLOADED 로 바로 거절한다.
+ * 비동기 요청은 처음 디스패치에서 입장하고, 비동기 처리가 끝난 뒤의 afterCompletion 에서 반납한다.
+ * AccountException 은 GlobalExceptionHandler 가 처리해 afterCompletion 에 예외가 오지 않으므로,
+ * 핸들러가 남긴 요청 속성으로 에러 응답을 구분한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        String endpoint = ((HandlerMethod) handler).getMethod().getName();
+        Bulkhead bulkhead = HttpMethod.GET.matches(request.getMethod()) ? readBulkhead : writeBulkhead;
+        if (!bulkhead.tryAcquire(endpoint)) {
+            Counter.builder("account.admission.rejected")
+                    .tag("bulkhead", bulkhead.getName())
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            throw AccountException.of(ErrorCode.SERVICE_OVERLOADED);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(bulkhead, endpoint, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        permit.bulkhead.release(permit.endpoint, System.nanoTime() - permit.startedAt, outcome(request, ex));
+    }
+
+    static Outcome outcome(HttpServletRequest request, Exception ex) {
+        if (ex != null) {
+            return Outcome.FAILURE;
+        }
+        ErrorCode errorCode = (ErrorCode) request.getAttribute(GlobalExceptionHandler.ERROR_CODE_ATTRIBUTE);
+        if (errorCode == null) {
+            return Outcome.SUCCESS;
+        }
+        return errorCode == ErrorCode.INTERNAL_SERVER_ERROR ? Outcome.FAILURE : Outcome.REJECTED;
+    }
+
+    @RequiredArgsConstructor
+    private static class Permit {
+        private final Bulkhead bulkhead;
+        private final String endpoint;
+        private final long startedAt;
+    }
+}
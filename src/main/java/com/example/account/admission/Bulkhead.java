@@ -0,0 +1,75 @@
+package com.example.account.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기/쓰기 엔드포인트 묶음. 묶음 전체의 동시 실행 수를 maxConcurrency 로 막고,
+ * 그 안에서 엔드포인트마다 AdaptiveConcurrencyLimiter 를 둔다.
+ */
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrency;
+    private final int initialLimit;
+    private final int minLimit;
+    private final long minLatencyTargetNanos;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public Bulkhead(String name, int maxConcurrency, int initialLimit, int minLimit,
+                    long minLatencyTargetNanos, double tolerance, double backoffRatio, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.minLatencyTargetNanos = minLatencyTargetNanos;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("account.admission.inflight", inFlight, AtomicInteger::get)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean tryAcquire(String endpoint) {
+        if (inFlight.incrementAndGet() > maxConcurrency) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        if (!limiter(endpoint).tryAcquire()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(String endpoint, long latencyNanos, AdaptiveConcurrencyLimiter.Outcome outcome) {
+        limiter(endpoint).release(latencyNanos, outcome);
+        inFlight.decrementAndGet();
+    }
+
+    // 엔드포인트 이름만 태그로 쓴다. 핸들러 메서드 수로 카디널리티가 제한된다.
+    private AdaptiveConcurrencyLimiter limiter(String endpoint) {
+        return limiters.computeIfAbsent(endpoint, key -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    initialLimit, minLimit, maxConcurrency, minLatencyTargetNanos, tolerance, backoffRatio);
+            Gauge.builder("account.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("bulkhead", name)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.account.cache;
+
+import com.example.account.domain.AccountUser;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AccountUser 2차 캐시 무효화와 적중률. JPA 로 사용자를 고치면 Hibernate 가 캐시를 같이 고치므로,
+ * JDBC 나 다른 인스턴스처럼 Hibernate 를 거치지 않고 사용자를 바꿨을 때 부른다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountUserCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Long userId) {
+        entityManagerFactory.getCache().evict(AccountUser.class, userId);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(AccountUser.class);
+    }
+
+    public Map<String, Object> stats() {
+        CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(AccountUser.CACHE_REGION);
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("puts", statistics.getPutCount());
+        stats.put("entries", statistics.getElementCountInMemory());
+        return stats;
+    }
+}
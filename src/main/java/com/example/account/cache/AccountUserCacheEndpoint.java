@@ -0,0 +1,33 @@
+package com.example.account.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/accountusercache 로 적중률 조회, DELETE 로 전체 무효화, DELETE /{userId} 로 한 명 무효화.
+@Component
+@Endpoint(id = "accountusercache")
+@RequiredArgsConstructor
+public class AccountUserCacheEndpoint {
+    private final AccountUserCache accountUserCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return accountUserCache.stats();
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        accountUserCache.evictAll();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector Long userId) {
+        accountUserCache.evict(userId);
+    }
+}
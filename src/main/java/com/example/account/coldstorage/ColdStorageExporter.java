@@ -0,0 +1,199 @@
+package com.example.account.coldstorage;
+
+import com.example.account.domain.TransactionArchive;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.service.LockProvider;
+import com.example.account.service.LockProviderException;
+import com.example.account.service.ShardRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+/**
+ * 닫힌 달의 보관 거래를 콜드 파일로 내보낸 뒤 보관 테이블에서 지운다.
+ * 파일을 먼저 확정하고 지우므로, 지우기 전에 멈췄다면 다음 실행이 이미 파일에 있는 id 는 다시 쓰지 않고 지우기만 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cold-storage.enabled", havingValue = "true")
+public class ColdStorageExporter {
+    static final String LOCK_KEY = "ACLK:cold-storage-exporter";
+    // 파일 안에서 계좌별 행 범위가 연속이 되도록 계좌번호, 거래 시각 순으로 읽는다.
+    private static final Sort EXPORT_ORDER = Sort.by("account.accountNumber", "transactedAt", "id");
+
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final ColdStorageService coldStorageService;
+    private final LockProvider lockProvider;
+    private final Counter exportedRows;
+
+    @Value("${cold-storage.page-size:1000}")
+    private int pageSize;
+
+    // 파일 전체를 메모리에 매핑하므로 한 파일이 2GB 를 넘지 않게 나눈다.
+    @Value("${cold-storage.max-rows-per-file:5000000}")
+    private int maxRowsPerFile;
+
+    @Value("${cold-storage.max-months-per-run:3}")
+    private int maxMonthsPerRun;
+
+    // 보관 배치(transaction.archive.retention-months)가 끝낸 달만 내보내도록 더 길게 잡는다.
+    @Value("${cold-storage.after-months:24}")
+    private int afterMonths;
+
+    @Value("${cold-storage.lock-lease:PT2H}")
+    private Duration lockLease;
+
+    // 내보낸 행은 보관 테이블에서 지우므로, 파일이 락을 잡은 인스턴스의 로컬 디스크에만 남으면 거래를 잃는다.
+    @Value("${cold-storage.shared-dir:false}")
+    private boolean sharedDir;
+
+    public ColdStorageExporter(TransactionArchiveRepository transactionArchiveRepository,
+                               ColdStorageService coldStorageService,
+                               LockProvider lockProvider,
+                               MeterRegistry meterRegistry) {
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.coldStorageService = coldStorageService;
+        this.lockProvider = lockProvider;
+        this.exportedRows = Counter.builder("transaction.coldstorage.rows")
+                .description("콜드 파일로 내보낸 거래 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void checkSharedDir() {
+        if (!sharedDir) {
+            throw new IllegalStateException(
+                    "cold-storage.dir must be a shared durable volume; set cold-storage.shared-dir=true once it is");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cold-storage.interval:PT6H}",
+            initialDelayString = "${cold-storage.initial-delay:PT10M}")
+    public void run() {
+        try {
+            if (!lockProvider.tryLock(LOCK_KEY, 0, lockLease.toMillis())) {
+                return;
+            }
+        } catch (LockProviderException e) {
+            log.warn("cold storage exporter lock unavailable, skipping run", e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            LocalDateTime cutoff = cutoff(LocalDate.now());
+            ShardRouting.forEachShard(() -> exportBefore(cutoff));
+        } finally {
+            lockProvider.unlock(LOCK_KEY);
+        }
+    }
+
+    LocalDateTime cutoff(LocalDate today) {
+        return today.minusMonths(afterMonths).withDayOfMonth(1).atStartOfDay();
+    }
+
+    int exportBefore(LocalDateTime cutoff) {
+        int exported = 0;
+        for (int i = 0; i < maxMonthsPerRun; i++) {
+            Optional<TransactionArchive> oldest =
+                    transactionArchiveRepository.findFirstByTransactedAtBeforeOrderByTransactedAtAsc(cutoff);
+            if (oldest.isEmpty()) {
+                break;
+            }
+            exported += exportMonth(YearMonth.from(oldest.get().getTransactedAt()));
+        }
+        return exported;
+    }
+
+    int exportMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        long[] alreadyExported = exportedIds(month);
+
+        List<Long> ids = new ArrayList<>();
+        int written = 0;
+        ColdTransactionFileWriter writer = null;
+        try {
+            // 지우기는 파일을 모두 쓴 뒤에 하므로 페이지 오프셋이 밀리지 않는다.
+            Slice<TransactionArchive> slice;
+            int page = 0;
+            do {
+                slice = transactionArchiveRepository.findByTransactedAtGreaterThanEqualAndTransactedAtLessThan(
+                        from, to, PageRequest.of(page++, pageSize, EXPORT_ORDER));
+                for (TransactionArchive transaction : slice) {
+                    ids.add(transaction.getId());
+                    if (Arrays.binarySearch(alreadyExported, transaction.getId()) >= 0) {
+                        continue;
+                    }
+                    if (writer == null) {
+                        writer = coldStorageService.newWriter(month);
+                    }
+                    writer.append(transaction);
+                    written++;
+                    if (writer.rowCount() == maxRowsPerFile) {
+                        writer.close();
+                        writer = null;
+                    }
+                }
+            } while (slice.hasNext());
+
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            abort(writer);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            abort(writer);
+            throw e;
+        }
+
+        for (int i = 0; i < ids.size(); i += pageSize) {
+            transactionArchiveRepository.deleteAllByIdInBatch(ids.subList(i, Math.min(ids.size(), i + pageSize)));
+        }
+        exportedRows.increment(written);
+        log.info("exported {} archived transactions of {} to cold storage, removed {} rows", written, month, ids.size());
+        return written;
+    }
+
+    private static void abort(ColdTransactionFileWriter writer) {
+        if (writer != null) {
+            writer.abort();
+        }
+    }
+
+    private long[] exportedIds(YearMonth month) {
+        List<Path> files = coldStorageService.files(month);
+        if (files.isEmpty()) {
+            return new long[0];
+        }
+        return files.stream()
+                .flatMapToLong(path -> LongStream.of(coldStorageService.open(path).ids()))
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.account.coldstorage;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.service.ShardRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 월별 콜드 파일(transactions-yyyy-MM-NNN.actx) 디렉터리. 감사 조회와 거래 내역서 생성을 위한 스캔을 제공한다.
+ * 어느 인스턴스든 내보낸 파일을 읽을 수 있도록 dir 은 모든 인스턴스가 같이 마운트하는 볼륨이어야 한다.
+ * 샤딩을 쓰면 샤드마다 하위 디렉터리(shard-N)를 두고, 쓰기는 현재 샤드, 스캔은 모든 샤드를 본다.
+ */
+@Service
+public class ColdStorageService {
+    private static final Pattern FILE_NAME = Pattern.compile("transactions-(\\d{4})-(\\d{2})-(\\d{3})\\.actx");
+
+    private final ConcurrentMap<Path, ColdTransactionFile> openFiles = new ConcurrentHashMap<>();
+
+    @Value("${cold-storage.dir:./cold-storage}")
+    private String dir;
+
+    @Value("${cold-storage.row-group-size:65536}")
+    private int rowGroupSize;
+
+    /**
+     * 계좌번호(null 이면 전체)의 거래 시각 [from, to) 거래를 달 순서대로 넘긴다. from, to 는 null 이면 제한하지 않는다.
+     */
+    public void scan(String accountNumber, LocalDateTime from, LocalDateTime to, Consumer<TransactionDto> consumer) {
+        YearMonth fromMonth = from == null ? null : YearMonth.from(from);
+        YearMonth toMonth = to == null ? null : YearMonth.from(to);
+
+        for (Path path : files()) {
+            YearMonth month = monthOf(path);
+            // 파일을 열기 전에 이름의 달로 먼저 거른다.
+            if ((fromMonth != null && month.isBefore(fromMonth)) || (toMonth != null && month.isAfter(toMonth))) {
+                continue;
+            }
+            open(path).scan(accountNumber, from, to, consumer);
+        }
+    }
+
+    public List<TransactionDto> findByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        List<TransactionDto> transactions = new ArrayList<>();
+        scan(accountNumber, from, to, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * 거래 id 만으로는 파일을 좁힐 수 없어 계좌번호의 행 범위 안에서 찾는다.
+     */
+    public Optional<TransactionDto> findByTransactionId(String accountNumber, String transactionId) {
+        List<TransactionDto> found = new ArrayList<>(1);
+        scan(accountNumber, null, null, transaction -> {
+            if (transaction.getTransactionId().equals(transactionId)) {
+                found.add(transaction);
+            }
+        });
+        return found.stream().findFirst();
+    }
+
+    public List<Path> files() {
+        List<Path> files = new ArrayList<>();
+        for (int shard = 0; shard < ShardRouting.shardCount(); shard++) {
+            files.addAll(listFiles(directory(shard), null));
+        }
+        files.sort(Comparator.comparing(Path::getFileName));
+        return files;
+    }
+
+    // 현재 샤드의 파일
+    public List<Path> files(YearMonth month) {
+        return listFiles(currentDirectory(), month);
+    }
+
+    public ColdTransactionFile open(Path path) {
+        return openFiles.computeIfAbsent(path, p -> {
+            try {
+                return ColdTransactionFile.open(p);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // 같은 달에 여러 번 내보내면 일련번호를 늘려 새 파일을 만든다.
+    public ColdTransactionFileWriter newWriter(YearMonth month) throws IOException {
+        Path directory = currentDirectory();
+        Files.createDirectories(directory);
+        int sequence = files(month).stream()
+                .mapToInt(path -> Integer.parseInt(matcher(path).group(3)) + 1)
+                .max()
+                .orElse(0);
+        return new ColdTransactionFileWriter(
+                directory.resolve(String.format("transactions-%s-%03d.actx", month, sequence)), rowGroupSize);
+    }
+
+    private Path currentDirectory() {
+        Integer shard = ShardRouting.currentShard();
+        return directory(shard == null ? 0 : shard);
+    }
+
+    private Path directory(int shard) {
+        return ShardRouting.isEnabled() ? Paths.get(dir, "shard-" + shard) : Paths.get(dir);
+    }
+
+    private List<Path> listFiles(Path directory, YearMonth month) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                    .filter(path -> month == null || monthOf(path).equals(month))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static YearMonth monthOf(Path path) {
+        Matcher matcher = matcher(path);
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private static Matcher matcher(Path path) {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("not a cold transaction file: " + path);
+        }
+        return matcher;
+    }
+}
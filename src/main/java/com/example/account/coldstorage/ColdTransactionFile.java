@@ -0,0 +1,275 @@
+package com.example.account.coldstorage;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 보관 거래를 컬럼별로 압축해 담은 읽기 전용 파일. 파일 전체를 메모리에 매핑하고,
+ * 행 그룹마다 거래 시각 최소/최대값과 계좌번호별 행 범위 인덱스로 읽을 블록만 푼다.
+ *
+ * <pre>
+ * [행 그룹 0: 컬럼 블록 x 7][행 그룹 1] ... [계좌 인덱스 블록][footer][footer 위치, 길이, MAGIC]
+ * </pre>
+ */
+public class ColdTransactionFile {
+    static final int MAGIC = 0x41435458; // "ACTX"
+    static final short VERSION = 1;
+    static final int TRAILER_SIZE = 16;
+
+    static final int COL_ID = 0;
+    static final int COL_TYPE = 1;
+    static final int COL_RESULT = 2;
+    static final int COL_AMOUNT = 3;
+    static final int COL_BALANCE = 4;
+    static final int COL_TRANSACTION_ID = 5;
+    static final int COL_TRANSACTED_AT = 6;
+    static final int COLUMN_COUNT = 7;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final long minMicros;
+    private final long maxMicros;
+    private final TransactionType[] transactionTypes;
+    private final TransactionResultType[] resultTypes;
+    private final RowGroup[] groups;
+    private final String[] accountNumbers;
+    private final int[] accountStarts;
+    private final int[] accountCounts;
+
+    private ColdTransactionFile(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 매핑은 채널을 닫아도 유지된다.
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        ByteBuffer trailer = slice(buffer.capacity() - TRAILER_SIZE, TRAILER_SIZE);
+        long footerOffset = trailer.getLong();
+        int footerLength = trailer.getInt();
+        if (trailer.getInt() != MAGIC) {
+            throw new IOException("not a cold transaction file: " + path);
+        }
+
+        byte[] footer = new byte[footerLength];
+        slice(footerOffset, footerLength).get(footer);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer));
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported cold transaction file version " + version + ": " + path);
+        }
+        rowCount = in.readInt();
+        minMicros = in.readLong();
+        maxMicros = in.readLong();
+
+        transactionTypes = new TransactionType[in.readByte()];
+        for (int i = 0; i < transactionTypes.length; i++) {
+            transactionTypes[i] = TransactionType.valueOf(in.readUTF());
+        }
+        resultTypes = new TransactionResultType[in.readByte()];
+        for (int i = 0; i < resultTypes.length; i++) {
+            resultTypes[i] = TransactionResultType.valueOf(in.readUTF());
+        }
+
+        groups = new RowGroup[in.readInt()];
+        for (int g = 0; g < groups.length; g++) {
+            RowGroup group = new RowGroup(in.readInt(), in.readInt(), in.readLong(), in.readLong());
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                group.blocks[c] = BlockRef.read(in);
+            }
+            groups[g] = group;
+        }
+
+        int accountCount = in.readInt();
+        DataInputStream index = BlockRef.read(in).open(this);
+        accountNumbers = new String[accountCount];
+        accountStarts = new int[accountCount];
+        accountCounts = new int[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = index.readUTF();
+            accountStarts[i] = index.readInt();
+            accountCounts[i] = index.readInt();
+        }
+    }
+
+    public static ColdTransactionFile open(Path path) throws IOException {
+        return new ColdTransactionFile(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public LocalDateTime minTransactedAt() {
+        return ColumnCodec.fromMicros(minMicros);
+    }
+
+    public LocalDateTime maxTransactedAt() {
+        return ColumnCodec.fromMicros(maxMicros);
+    }
+
+    public boolean containsAccount(String accountNumber) {
+        return Arrays.binarySearch(accountNumbers, accountNumber) >= 0;
+    }
+
+    /**
+     * 계좌번호(null 이면 전체)와 거래 시각 [from, to) 로 거르며 계좌번호, 거래 시각 순으로 넘긴다.
+     */
+    public void scan(String accountNumber, LocalDateTime from, LocalDateTime to, Consumer<TransactionDto> consumer) {
+        long fromMicros = from == null ? Long.MIN_VALUE : ColumnCodec.toMicros(from);
+        long toMicros = to == null ? Long.MAX_VALUE : ColumnCodec.toMicros(to);
+        if (maxMicros < fromMicros || minMicros >= toMicros) {
+            return;
+        }
+
+        int rowStart = 0;
+        int rowEnd = rowCount;
+        if (accountNumber != null) {
+            int position = Arrays.binarySearch(accountNumbers, accountNumber);
+            if (position < 0) {
+                return;
+            }
+            rowStart = accountStarts[position];
+            rowEnd = rowStart + accountCounts[position];
+        }
+
+        for (RowGroup group : groups) {
+            if (group.end() <= rowStart || group.start >= rowEnd
+                    || group.maxMicros < fromMicros || group.minMicros >= toMicros) {
+                continue;
+            }
+            try {
+                scanGroup(group, Math.max(rowStart, group.start), Math.min(rowEnd, group.end()),
+                        fromMicros, toMicros, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // 내보낸 거래를 보관 테이블에서 지울 때, 이미 파일에 있는 id 를 가려내는 데 쓴다.
+    public long[] ids() {
+        long[] ids = new long[rowCount];
+        int row = 0;
+        try {
+            for (RowGroup group : groups) {
+                DataInputStream in = group.blocks[COL_ID].open(this);
+                long id = 0;
+                for (int i = 0; i < group.rows; i++) {
+                    id += ColumnCodec.readVarLong(in);
+                    ids[row++] = id;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ids;
+    }
+
+    private void scanGroup(RowGroup group, int from, int to, long fromMicros, long toMicros,
+                           Consumer<TransactionDto> consumer) throws IOException {
+        DataInputStream types = group.blocks[COL_TYPE].open(this);
+        DataInputStream results = group.blocks[COL_RESULT].open(this);
+        DataInputStream amounts = group.blocks[COL_AMOUNT].open(this);
+        DataInputStream balances = group.blocks[COL_BALANCE].open(this);
+        DataInputStream transactionIds = group.blocks[COL_TRANSACTION_ID].open(this);
+        DataInputStream transactedAts = group.blocks[COL_TRANSACTED_AT].open(this);
+
+        int account = accountOf(from);
+        long micros = 0;
+        for (int row = group.start; row < to; row++) {
+            byte type = types.readByte();
+            byte result = results.readByte();
+            long amount = ColumnCodec.readVarLong(amounts);
+            long balance = ColumnCodec.readVarLong(balances);
+            String transactionId = transactionIds.readUTF();
+            micros += ColumnCodec.readVarLong(transactedAts);
+
+            if (row < from || micros < fromMicros || micros >= toMicros) {
+                continue;
+            }
+            while (row >= accountStarts[account] + accountCounts[account]) {
+                account++;
+            }
+            consumer.accept(TransactionDto.builder()
+                    .accountNumber(accountNumbers[account])
+                    .transactionType(transactionTypes[type])
+                    .transactionResultType(resultTypes[result])
+                    .amount(amount)
+                    .balanceSnapshot(balance)
+                    .transactionId(transactionId)
+                    .transactedAt(ColumnCodec.fromMicros(micros))
+                    .build());
+        }
+    }
+
+    private int accountOf(int row) {
+        int position = Arrays.binarySearch(accountStarts, row);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private ByteBuffer slice(long offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) offset);
+        slice.limit((int) offset + length);
+        return slice.slice();
+    }
+
+    private static class RowGroup {
+        private final int start;
+        private final int rows;
+        private final long minMicros;
+        private final long maxMicros;
+        private final BlockRef[] blocks = new BlockRef[COLUMN_COUNT];
+
+        private RowGroup(int start, int rows, long minMicros, long maxMicros) {
+            this.start = start;
+            this.rows = rows;
+            this.minMicros = minMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        private int end() {
+            return start + rows;
+        }
+    }
+
+    private static class BlockRef {
+        private final long offset;
+        private final int length;
+        private final int rawLength;
+
+        private BlockRef(long offset, int length, int rawLength) {
+            this.offset = offset;
+            this.length = length;
+            this.rawLength = rawLength;
+        }
+
+        private static BlockRef read(DataInputStream in) throws IOException {
+            return new BlockRef(in.readLong(), in.readInt(), in.readInt());
+        }
+
+        private DataInputStream open(ColdTransactionFile file) {
+            byte[] raw = ColumnCodec.inflate(file.slice(offset, length), rawLength);
+            return new DataInputStream(new ByteArrayInputStream(raw));
+        }
+    }
+}
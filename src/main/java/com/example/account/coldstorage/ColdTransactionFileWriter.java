@@ -0,0 +1,239 @@
+package com.example.account.coldstorage;
+
+import com.example.account.domain.TransactionArchive;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.account.coldstorage.ColdTransactionFile.*;
+
+/**
+ * 보관 거래를 계좌번호, 거래 시각 순으로 받아 콜드 파일 하나를 쓴다.
+ * 임시 파일에 쓰고 close 에서 fsync 후 이름을 바꾸므로, 중간에 실패하면 파일이 남지 않는다.
+ */
+public class ColdTransactionFileWriter implements Closeable {
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final int rowGroupSize;
+
+    private final List<long[]> groupMeta = new ArrayList<>();
+    private final List<long[][]> groupColumns = new ArrayList<>();
+
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final List<int[]> accountRanges = new ArrayList<>();
+
+    private ByteArrayOutputStream[] buffers;
+    private DataOutputStream[] columns;
+    private int groupStart;
+    private int groupRows;
+    private long groupMinMicros;
+    private long groupMaxMicros;
+    private long lastId;
+    private long lastMicros;
+
+    private int rowCount;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros = Long.MIN_VALUE;
+    private String lastAccountNumber;
+    private boolean closed;
+
+    public ColdTransactionFileWriter(Path target, int rowGroupSize) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.rowGroupSize = rowGroupSize;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        startGroup();
+    }
+
+    public void append(TransactionArchive transaction) throws IOException {
+        String accountNumber = transaction.getAccount().getAccountNumber();
+        long micros = ColumnCodec.toMicros(transaction.getTransactedAt());
+
+        if (lastAccountNumber == null || !lastAccountNumber.equals(accountNumber)) {
+            if (lastAccountNumber != null && lastAccountNumber.compareTo(accountNumber) > 0) {
+                throw new IllegalArgumentException("rows must be sorted by account number");
+            }
+            accountNumbers.add(accountNumber);
+            accountRanges.add(new int[]{rowCount, 0});
+            lastAccountNumber = accountNumber;
+        }
+        accountRanges.get(accountRanges.size() - 1)[1]++;
+
+        ColumnCodec.writeVarLong(columns[COL_ID], transaction.getId() - lastId);
+        columns[COL_TYPE].writeByte(transaction.getTransactionType().ordinal());
+        columns[COL_RESULT].writeByte(transaction.getTransactionResultType().ordinal());
+        ColumnCodec.writeVarLong(columns[COL_AMOUNT], transaction.getAmount());
+        ColumnCodec.writeVarLong(columns[COL_BALANCE], transaction.getBalanceSnapshot());
+        columns[COL_TRANSACTION_ID].writeUTF(transaction.getTransactionId());
+        ColumnCodec.writeVarLong(columns[COL_TRANSACTED_AT], micros - lastMicros);
+        lastId = transaction.getId();
+        lastMicros = micros;
+
+        groupMinMicros = Math.min(groupMinMicros, micros);
+        groupMaxMicros = Math.max(groupMaxMicros, micros);
+        minMicros = Math.min(minMicros, micros);
+        maxMicros = Math.max(maxMicros, micros);
+        rowCount++;
+        if (++groupRows == rowGroupSize) {
+            flushGroup();
+            startGroup();
+        }
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    // 한 건도 쓰지 않았으면 파일을 만들지 않는다.
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rowCount == 0) {
+                channel.close();
+                Files.deleteIfExists(temp);
+                return;
+            }
+            if (groupRows > 0) {
+                flushGroup();
+            }
+            long[] index = writeBlock(encodeIndex());
+            writeFooter(index);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    public void abort() {
+        closed = true;
+        try {
+            channel.close();
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // 남은 임시 파일은 다음 내보내기에서 덮어쓴다.
+        }
+    }
+
+    private void startGroup() {
+        buffers = new ByteArrayOutputStream[COLUMN_COUNT];
+        columns = new DataOutputStream[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            buffers[i] = new ByteArrayOutputStream();
+            columns[i] = new DataOutputStream(buffers[i]);
+        }
+        groupStart = rowCount;
+        groupRows = 0;
+        groupMinMicros = Long.MAX_VALUE;
+        groupMaxMicros = Long.MIN_VALUE;
+        lastId = 0;
+        lastMicros = 0;
+    }
+
+    private void flushGroup() throws IOException {
+        long[][] blocks = new long[COLUMN_COUNT][];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i].flush();
+            blocks[i] = writeBlock(buffers[i].toByteArray());
+        }
+        groupMeta.add(new long[]{groupStart, groupRows, groupMinMicros, groupMaxMicros});
+        groupColumns.add(blocks);
+    }
+
+    // {offset, 압축 길이, 원래 길이}
+    private long[] writeBlock(byte[] raw) throws IOException {
+        byte[] compressed = ColumnCodec.deflate(raw);
+        long offset = channel.position();
+        writeFully(compressed);
+        return new long[]{offset, compressed.length, raw.length};
+    }
+
+    private byte[] encodeIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < accountNumbers.size(); i++) {
+            out.writeUTF(accountNumbers.get(i));
+            out.writeInt(accountRanges.get(i)[0]);
+            out.writeInt(accountRanges.get(i)[1]);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeFooter(long[] index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(VERSION);
+        out.writeInt(rowCount);
+        out.writeLong(minMicros);
+        out.writeLong(maxMicros);
+
+        // 열거형 순서가 바뀌어도 예전 파일을 읽을 수 있도록 이름을 함께 남긴다.
+        out.writeByte(TransactionType.values().length);
+        for (TransactionType type : TransactionType.values()) {
+            out.writeUTF(type.name());
+        }
+        out.writeByte(TransactionResultType.values().length);
+        for (TransactionResultType type : TransactionResultType.values()) {
+            out.writeUTF(type.name());
+        }
+
+        out.writeInt(groupMeta.size());
+        for (int g = 0; g < groupMeta.size(); g++) {
+            long[] meta = groupMeta.get(g);
+            out.writeInt((int) meta[0]);
+            out.writeInt((int) meta[1]);
+            out.writeLong(meta[2]);
+            out.writeLong(meta[3]);
+            for (long[] block : groupColumns.get(g)) {
+                writeBlockRef(out, block);
+            }
+        }
+        out.writeInt(accountNumbers.size());
+        writeBlockRef(out, index);
+        out.flush();
+
+        long footerOffset = channel.position();
+        byte[] footer = bytes.toByteArray();
+        writeFully(footer);
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        trailer.putLong(footerOffset).putInt(footer.length).putInt(MAGIC).flip();
+        while (trailer.hasRemaining()) {
+            channel.write(trailer);
+        }
+    }
+
+    private static void writeBlockRef(DataOutputStream out, long[] block) throws IOException {
+        out.writeLong(block[0]);
+        out.writeInt((int) block[1]);
+        out.writeInt((int) block[2]);
+    }
+
+    private void writeFully(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.account.config;
+
+import com.example.account.coldstorage.ColdStorageExporter;
+import com.example.account.reconciliation.BalanceReconciler;
+import com.example.account.service.OutboxRelay;
+import com.example.account.service.TransactionArchiver;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LazyInitConfig {
+    // spring.main.lazy-initialization 을 켜도 기동 시 만들어야 하는 빈.
+    // 임베디드 Redis 는 Redisson 클라이언트보다 먼저 떠 있어야 한다.
+    // @Scheduled 빈은 만들어져야 스케줄이 등록된다.
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                LocalRedisConfig.class, TransactionArchiver.class, ColdStorageExporter.class, OutboxRelay.class,
+                BalanceReconciler.class);
+    }
+}
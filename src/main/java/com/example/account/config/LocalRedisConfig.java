@@ -1,30 +1,54 @@
 package com.example.account.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
+@ConditionalOnProperty(name = "lock.provider", havingValue = "redisson", matchIfMissing = true)
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    private RedisServer redisServer;
+    // 로컬 주소로 지정된 락 노드도 함께 띄운다.
+    @Value("${lock.redis.nodes:}")
+    private List<String> lockNodes;
+
+    private final List<RedisServer> redisServers = new ArrayList<>();
 
     @PostConstruct
     public void startRedis() {
-        //redisServer = new RedisServer(redisPort);
-        redisServer = RedisServer.builder().port(redisPort).setting("maxheap 128M").build();
-        redisServer.start();
+        Set<Integer> ports = new LinkedHashSet<>();
+        ports.add(redisPort);
+        for (String address : lockNodes) {
+            if (address.isBlank()) {
+                continue;
+            }
+            URI uri = URI.create(address.trim());
+            if ("127.0.0.1".equals(uri.getHost()) || "localhost".equals(uri.getHost())) {
+                ports.add(uri.getPort());
+            }
+        }
+
+        for (int port : ports) {
+            //redisServer = new RedisServer(redisPort);
+            RedisServer redisServer = RedisServer.builder().port(port).setting("maxheap 128M").build();
+            redisServer.start();
+            redisServers.add(redisServer);
+        }
     }
 
     @PreDestroy
     public void stopRedis() {
-        if (redisServer != null) {
-            redisServer.stop();
-        }
+        redisServers.forEach(RedisServer::stop);
     }
 }
@@ -0,0 +1,44 @@
+package com.example.account.config;
+
+import com.example.account.service.InMemoryLockProvider;
+import com.example.account.service.JdbcLockProvider;
+import com.example.account.service.LockCircuitBreaker;
+import com.example.account.service.LockProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Redisson 락 저장소는 RedisRepositoryConfig 에서 등록한다.
+@Configuration
+public class LockConfig {
+    @Value("${lock.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${lock.circuit.open-millis:10000}")
+    private long circuitOpenMillis;
+
+    @Bean
+    public LockCircuitBreaker lockCircuitBreaker(MeterRegistry meterRegistry) {
+        LockCircuitBreaker lockCircuitBreaker = new LockCircuitBreaker(circuitFailureThreshold, circuitOpenMillis);
+        Gauge.builder("account.lock.circuit.open", lockCircuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+        return lockCircuitBreaker;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "lock.provider", havingValue = "in-memory")
+    public LockProvider inMemoryLockProvider() {
+        return new InMemoryLockProvider();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "lock.provider", havingValue = "jdbc")
+    public LockProvider jdbcLockProvider(JdbcTemplate jdbcTemplate,
+                                         @Value("${lock.jdbc.poller-threads:4}") int pollerThreads) {
+        return new JdbcLockProvider(jdbcTemplate, pollerThreads);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.account.config;
+
+import com.example.account.controller.AccountController;
+import com.example.account.controller.TransactionController;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.BaseEntity;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.domain.ReconciliationAccountState;
+import com.example.account.domain.ReconciliationCheckpoint;
+import com.example.account.domain.ReconciliationMismatch;
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionArchive;
+import com.example.account.dto.*;
+import com.example.account.jfr.*;
+import com.example.account.service.AccountService;
+import com.example.account.service.TransactionService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.redisson.Redisson;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.*;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 네이티브 이미지(./gradlew nativeCompile)에서 리플렉션, 프록시, 리소스로 접근하는 타입 목록.
+ * JVM 실행에는 영향이 없다.
+ */
+@Configuration
+// Jackson 이 Lombok 생성자와 접근자로 직렬화하는 요청/응답 DTO
+@TypeHint(types = {
+        UseBalance.Request.class, UseBalance.Response.class,
+        CancelBalance.Request.class, CancelBalance.Response.class,
+        CreateAccount.Request.class, CreateAccount.Response.class,
+        DeleteAccount.Request.class, DeleteAccount.Response.class,
+        AccountInfo.class, QueryTransactionResponse.class, ErrorResponse.class,
+        AccountDto.class, TransactionDto.class
+}, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_METHODS, TypeAccess.DECLARED_FIELDS})
+// Hibernate 가 필드로 접근하는 엔티티
+@TypeHint(types = {Account.class, AccountUser.class, Transaction.class, TransactionArchive.class, OutboxEvent.class,
+        ReconciliationMismatch.class, ReconciliationCheckpoint.class, ReconciliationAccountState.class,
+        BaseEntity.class},
+        access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_METHODS, TypeAccess.DECLARED_FIELDS})
+// JFR 은 이벤트 필드를 리플렉션으로 읽는다.
+@TypeHint(types = {
+        AccountEvent.class, LockAcquireEvent.class, LockReleaseEvent.class, ValidationEvent.class,
+        EntityLoadEvent.class, CommitEvent.class, FailureRecordEvent.class
+}, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS})
+// LockAopAspect, SqlProfilerAspect, @Timed, @Transactional 이 CGLIB 클래스 프록시를 만드는 빈.
+// 네이티브에서는 런타임 클래스 생성이 불가능하므로 빌드 시 미리 만든다.
+@AotProxyHint(targetClass = TransactionController.class, proxyFeatures = ProxyBits.IS_STATIC)
+@AotProxyHint(targetClass = AccountController.class, proxyFeatures = ProxyBits.IS_STATIC)
+@AotProxyHint(targetClass = TransactionService.class, proxyFeatures = ProxyBits.IS_STATIC)
+@AotProxyHint(targetClass = AccountService.class, proxyFeatures = ProxyBits.IS_STATIC)
+// datasource-proxy 는 JDBC 객체를 JDK 동적 프록시로 감싼다.
+@JdkProxyHint(types = {ProxyJdbcObject.class, Connection.class})
+@JdkProxyHint(types = {ProxyJdbcObject.class, Statement.class})
+@JdkProxyHint(types = {ProxyJdbcObject.class, PreparedStatement.class})
+@JdkProxyHint(types = {ProxyJdbcObject.class, CallableStatement.class})
+@JdkProxyHint(types = {ProxyJdbcObject.class, ResultSet.class})
+// Redisson 과 Netty. 채널은 리플렉션으로 생성되고 기본 코덱은 ServiceLoader 로 JBoss Marshalling 을 찾는다.
+@NativeHint(trigger = Redisson.class,
+        types = @TypeHint(typeNames = {
+                "io.netty.channel.socket.nio.NioSocketChannel",
+                "io.netty.channel.socket.nio.NioDatagramChannel",
+                "org.redisson.codec.MarshallingCodec",
+                "org.redisson.client.codec.LongCodec",
+                "org.redisson.client.codec.StringCodec",
+                "org.jboss.marshalling.river.RiverProviderDescriptor"
+        }, access = {TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.PUBLIC_METHODS}),
+        resources = @ResourceHint(patterns = "META-INF/services/org.jboss.marshalling.ProviderDescriptor"),
+        options = "--initialize-at-run-time=io.netty.channel.epoll,io.netty.channel.kqueue,io.netty.handler.ssl,io.netty.resolver.dns")
+// 로컬 실행용 임베디드 Redis 는 jar 안의 redis-server 바이너리를 꺼내 실행한다.
+@NativeHint(trigger = LocalRedisConfig.class, resources = @ResourceHint(patterns = "redis-server-.*"))
+public class NativeHintsConfig {
+}
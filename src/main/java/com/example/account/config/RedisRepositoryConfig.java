@@ -1,13 +1,27 @@
 package com.example.account.config;
 
+import com.example.account.service.LockNodeRing;
+import com.example.account.service.LockProvider;
+import com.example.account.service.RedissonLockProvider;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// lock.provider 가 redisson(기본값)일 때만 Redis 에 연결한다.
 @Configuration
+@ConditionalOnProperty(name = "lock.provider", havingValue = "redisson", matchIfMissing = true)
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
     private String redisHost;
@@ -15,10 +29,75 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    @Bean
+    // 계좌 락을 나눠 담을 Redis 노드 주소(쉼표 구분). 비어 있으면 spring.redis 노드 하나만 사용한다.
+    @Value("${lock.redis.nodes:}")
+    private List<String> lockNodes;
+
+    // 노드 목록을 바꾸는 배포 동안만 이전 목록을 적는다. 이전 목록의 인스턴스가 모두 내려간 뒤 다음 배포에서 비운다.
+    @Value("${lock.redis.previous-nodes:}")
+    private List<String> previousLockNodes;
+
+    @Value("${lock.redis.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${lock.redis.connection-pool-size:32}")
+    private int connectionPoolSize;
+
+    private final List<RedissonClient> lockNodeClients = new ArrayList<>();
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
     public RedissonClient redissonClient() {
+        return createClient(redisAddress());
+    }
+
+    @Bean
+    public LockNodeRing lockNodeRing(RedissonClient redissonClient) {
+        Map<String, RedissonClient> clients = new HashMap<>();
+        clients.put(redisAddress(), redissonClient);
+        Map<String, RedissonClient> nodes = nodes(lockNodes, clients);
+        if (nodes.isEmpty()) {
+            nodes.put(redisAddress(), redissonClient);
+        }
+        return new LockNodeRing(virtualNodes, nodes, nodes(previousLockNodes, clients));
+    }
+
+    // 같은 주소는 두 목록에서 같은 클라이언트를 쓴다.
+    private Map<String, RedissonClient> nodes(List<String> addresses, Map<String, RedissonClient> clients) {
+        Map<String, RedissonClient> nodes = new LinkedHashMap<>();
+        addresses.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .forEach(address -> nodes.put(address, clients.computeIfAbsent(address, this::createLockNodeClient)));
+        return nodes;
+    }
+
+    private RedissonClient createLockNodeClient(String address) {
+        RedissonClient lockNodeClient = createClient(address);
+        lockNodeClients.add(lockNodeClient);
+        return lockNodeClient;
+    }
+
+    @Bean
+    public LockProvider lockProvider(LockNodeRing lockNodeRing) {
+        return new RedissonLockProvider(lockNodeRing);
+    }
+
+    @PreDestroy
+    public void shutdownLockNodeClients() {
+        lockNodeClients.forEach(RedissonClient::shutdown);
+    }
+
+    private String redisAddress() {
+        return "redis://" + redisHost + ":" + redisPort;
+    }
+
+    private RedissonClient createClient(String address) {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.useSingleServer()
+                .setAddress(address)
+                .setConnectionPoolSize(connectionPoolSize)
+                .setConnectionMinimumIdleSize(Math.min(connectionPoolSize, 8));
 
         return Redisson.create(config);
     }
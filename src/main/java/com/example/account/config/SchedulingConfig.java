@@ -0,0 +1,13 @@
+package com.example.account.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 스케줄러 스레드 수는 spring.task.scheduling.pool.size 로 정한다. 작업마다 한 스레드를 두어
+ * 오래 걸리는 배치(보관, 콜드 스토리지, 대사)가 짧은 주기의 OutboxRelay 를 막지 않게 한다.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,31 @@
+package com.example.account.config;
+
+import com.example.account.service.ShardRouting;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 현재 스레드에 정해진 샤드의 DataSource 로 보낸다. 정해지지 않았으면 0번 샤드.
+ * 샤드를 정하기 전에 커넥션을 얻지 않도록 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouting.currentShard();
+    }
+}
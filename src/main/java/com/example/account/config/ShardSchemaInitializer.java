@@ -0,0 +1,50 @@
+package com.example.account.config;
+
+import com.example.account.service.ShardRouting;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 로컬 H2 샤드용. Hibernate 가 0번 샤드에만 만든 스키마와 data.sql 의 사용자를 나머지 샤드에 복사한다.
+ * 워밍업보다 먼저 돌아야 하므로 가장 앞 순서로 실행한다. 실제 DB 는 마이그레이션 도구로 샤드마다 스키마를 만든다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shard.copy-schema-from-first", havingValue = "true")
+public class ShardSchemaInitializer implements ApplicationRunner {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> ddl = ShardRouting.onShard(0, () -> jdbcTemplate.queryForList("SCRIPT NODATA", String.class));
+        List<Map<String, Object>> users = ShardRouting.onShard(0,
+                () -> jdbcTemplate.queryForList("select id, name, created_at, updated_at from account_user"));
+
+        for (int shard = 1; shard < ShardRouting.shardCount(); shard++) {
+            ShardRouting.onShard(shard, () -> {
+                ddl.forEach(jdbcTemplate::execute);
+                jdbcTemplate.batchUpdate(
+                        "insert into account_user(id, name, created_at, updated_at) values (?, ?, ?, ?)",
+                        users.stream()
+                                .map(user -> new Object[]{
+                                        user.get("ID"), user.get("NAME"), user.get("CREATED_AT"), user.get("UPDATED_AT")})
+                                .collect(Collectors.toList()));
+                return null;
+            });
+        }
+        log.info("copied schema and {} users to {} shards", users.size(), ShardRouting.shardCount() - 1);
+    }
+}
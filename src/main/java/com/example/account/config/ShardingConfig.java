@@ -0,0 +1,113 @@
+package com.example.account.config;
+
+import com.example.account.profiler.SqlProfiler;
+import com.example.account.service.ShardRouting;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * shard.urls 에 적은 DB 마다 커넥션 풀을 만들고 계좌번호로 샤드를 고른다. 첫 번째가 0번 샤드다.
+ * 사용자(account_user)는 모든 샤드에 같은 내용으로 있어야 한다. 복제 DB 라우팅(datasource.replica)과 같이 쓸 수 없다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shard.urls")
+public class ShardingConfig {
+    @Value("${shard.urls}")
+    private List<String> urls;
+
+    @Value("${shard.buckets:64}")
+    private int buckets;
+
+    // 버킷 순서대로 샤드 번호. 비어 있으면 버킷 % 샤드 수.
+    @Value("${shard.bucket-map:}")
+    private List<Integer> bucketMap;
+
+    @Value("${shard.pool-size:10}")
+    private int poolSize;
+
+    @Value("${shard.fan-out-threads:16}")
+    private int fanOutThreads;
+
+    @Value("${sql.profiler.enabled:true}")
+    private boolean sqlProfilerEnabled;
+
+    @Value("${datasource.replica.url:}")
+    private String replicaUrl;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ThreadPoolTaskExecutor shardFanOutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fanOutThreads);
+        executor.setMaxPoolSize(fanOutThreads);
+        executor.setThreadNamePrefix("shard-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 ThreadPoolTaskExecutor shardFanOutExecutor,
+                                 ObjectProvider<SqlProfiler> sqlProfiler) {
+        if (!replicaUrl.isBlank()) {
+            throw new IllegalStateException("shard.urls and datasource.replica.url cannot be used together");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(properties.determineUsername());
+            pool.setPassword(properties.determinePassword());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setPoolName("shard-" + i);
+            pools.add(pool);
+            // 샤드 풀은 빈이 아니어서 SqlProfilerConfig 가 감싸지 못하므로 여기서 감싼다.
+            shards.add(sqlProfilerEnabled
+                    ? ProxyDataSourceBuilder.create(pool).name(pool.getPoolName()).listener(sqlProfiler.getObject()).build()
+                    : pool);
+        }
+
+        ShardRouting.configure(bucketToShard(shards.size()), shards.size(),
+                shardFanOutExecutor.getThreadPoolExecutor());
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    @PreDestroy
+    public void close() {
+        ShardRouting.reset();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private int[] bucketToShard(int shardCount) {
+        if (!bucketMap.isEmpty() && bucketMap.size() != buckets) {
+            throw new IllegalStateException("shard.bucket-map must list " + buckets + " shards");
+        }
+        int[] bucketToShard = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int shard = bucketMap.isEmpty() ? bucket % shardCount : bucketMap.get(bucket);
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalStateException("bucket " + bucket + " is mapped to unknown shard " + shard);
+            }
+            bucketToShard[bucket] = shard;
+        }
+        return bucketToShard;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.account.config;
+
+import com.example.account.profiler.SqlProfiler;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfilerConfig {
+    // 모든 DataSource 를 datasource-proxy 로 감싸 SqlProfiler 가 실행된 SQL 을 받도록 한다.
+    // 다른 DataSource 로 넘기기만 하는 라우팅/지연 프록시는 감싸지 않는다. 안쪽 풀에서 이미 한 번 잡힌다.
+    @Bean
+    public static BeanPostProcessor sqlProfilerDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(sqlProfiler.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class TransactionExecutorConfig {
+    @Value("${transaction.executor.core-size:16}")
+    private int corePoolSize;
+
+    @Value("${transaction.executor.max-size:64}")
+    private int maxPoolSize;
+
+    @Value("${transaction.executor.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    // 락을 얻은 뒤 거래 로직을 실행하는 전용 스레드 풀. 서블릿 스레드는 락 대기 동안 반납된다.
+    @Bean
+    public ThreadPoolTaskExecutor transactionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("txn-");
+        // 가상 스레드여도 크기 제한은 둔다. JDBC 커넥션 풀보다 많이 돌려봐야 커넥션을 기다릴 뿐이다.
+        if (virtualThreads) {
+            executor.setThreadFactory(VirtualThreads.factory("txn-"));
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.account.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Tomcat 요청 처리를 가상 스레드에서 한다. server.tomcat.threads.max 대신 요청마다 가상 스레드를 만들므로
+ * 락이나 JDBC 를 기다리는 요청이 다른 요청의 스레드를 빼앗지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private final ExecutorService requestExecutor = VirtualThreads.perTaskExecutor("http-vt-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<AbstractProtocol<?>> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    // Tomcat 은 밖에서 넣은 executor 를 닫지 않는다.
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.account.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 가상 스레드 팩토리와 실행기.
+ * <p>
+ * 고정(pinning) 점검: 애플리케이션의 synchronized 구간(RateLimitService, SqlProfiler)은 메모리 연산만 하고,
+ * WarmupRunner 의 구간은 기동 때만 돈다. Redisson 은 Netty future 를 기다리므로 고정되지 않는다.
+ * H2 드라이버는 세션에 synchronized 를 걸어 JDBC 호출 동안 캐리어 스레드를 잡는다.
+ * 그래서 JDBC 를 부르는 거래 실행 풀은 가상 스레드로 바꿔도 크기 제한을 유지한다.
+ * loadTest 는 -Djdk.tracePinnedThreads=short 로 띄워 고정이 생기면 스택을 남긴다.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static ThreadFactory factory(String prefix) {
+        return Thread.ofVirtual().name(prefix, 0L).factory();
+    }
+
+    // 요청마다 새 가상 스레드를 만든다. 풀링하지 않는다.
+    public static ExecutorService perTaskExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(factory(prefix));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.account.config;
+
+import com.example.account.admission.AdmissionInterceptor;
+import com.example.account.admission.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${admission.enabled:true}")
+    private boolean admissionEnabled;
+
+    @Value("${admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    // 최근 최소 지연 시간의 몇 배까지를 정상으로 볼지
+    @Value("${admission.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${admission.write.max-concurrency:120}")
+    private int writeMaxConcurrency;
+
+    @Value("${admission.write.initial-limit:20}")
+    private int writeInitialLimit;
+
+    @Value("${admission.write.min-limit:4}")
+    private int writeMinLimit;
+
+    @Value("${admission.write.min-latency-target:500ms}")
+    private Duration writeLatencyTarget;
+
+    @Value("${admission.read.max-concurrency:60}")
+    private int readMaxConcurrency;
+
+    @Value("${admission.read.initial-limit:20}")
+    private int readInitialLimit;
+
+    @Value("${admission.read.min-limit:4}")
+    private int readMinLimit;
+
+    @Value("${admission.read.min-latency-target:100ms}")
+    private Duration readLatencyTarget;
+
+    public WebMvcConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!admissionEnabled) {
+            return;
+        }
+
+        // @WebMvcTest 슬라이스에는 MeterRegistry 빈이 없어 그때만 테스트 안에서 끝나는 레지스트리를 쓴다.
+        MeterRegistry meterRegistry = this.meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Bulkhead readBulkhead = new Bulkhead("read", readMaxConcurrency, readInitialLimit, readMinLimit,
+                readLatencyTarget.toNanos(), latencyTolerance, backoffRatio, meterRegistry);
+        Bulkhead writeBulkhead = new Bulkhead("write", writeMaxConcurrency, writeInitialLimit, writeMinLimit,
+                writeLatencyTarget.toNanos(), latencyTolerance, backoffRatio, meterRegistry);
+        registry.addInterceptor(new AdmissionInterceptor(readBulkhead, writeBulkhead, meterRegistry))
+                .addPathPatterns("/account", "/account/**", "/transaction/**");
+    }
+}
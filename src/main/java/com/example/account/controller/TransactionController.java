@@ -1,53 +1,95 @@
 package com.example.account.controller;
 
 import com.example.account.aop.AccountLock;
+import com.example.account.aop.RateLimited;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.service.TransactionService;
+import com.example.account.warmup.WarmupRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final ThreadPoolTaskExecutor transactionExecutor;
 
+    // 락 동작 확인용 지연 시간. 0이면 대기 없이 바로 처리한다. 워밍업 계좌에는 적용하지 않는다.
+    @Value("${transaction.use.delay-ms:0}")
+    private long useBalanceDelayMs;
+
+    // 지연 동안에는 락만 쥐고 스레드는 돌려준다. 지연이 끝나면 transactionExecutor 에서 거래를 처리한다.
+    @RateLimited
     @AccountLock
     @PostMapping("/transaction/use")
-    public UseBalance.Response useBalance(@Valid @RequestBody UseBalance.Request request) throws InterruptedException {
+    public CompletableFuture<UseBalance.Response> useBalance(@Valid @RequestBody UseBalance.Request request) {
+        if (useBalanceDelayMs <= 0 || WarmupRunner.isWarmupAccount(request.getAccountNumber())) {
+            return CompletableFuture.completedFuture(useBalanceNow(request));
+        }
+        CompletableFuture<Void> delay = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(useBalanceDelayMs, TimeUnit.MILLISECONDS).execute(() -> delay.complete(null));
+        return delay.thenApplyAsync(ignored -> useBalanceNow(request), transactionExecutor);
+    }
+
+    private UseBalance.Response useBalanceNow(UseBalance.Request request) {
         try {
-            Thread.sleep(3000L);
             return UseBalance.Response.from(
                     transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount()));
         } catch(AccountException e) {
-            log.error("Failed to UseBalance");
+            log.debug("Failed to UseBalance: {}", e.getErrorCode());
             transactionService.saveFailedUseTransaction(request.getAccountNumber(), request.getAmount());
             throw e;
         }
     }
 
+    @RateLimited
     @AccountLock
     @PostMapping("/transaction/cancel")
-    public CancelBalance.Response cancelBalance(@Valid @RequestBody CancelBalance.Request request) {
+    public CompletableFuture<CancelBalance.Response> cancelBalance(@Valid @RequestBody CancelBalance.Request request) {
         try {
-            return CancelBalance.Response.from(
-                    transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
+            return CompletableFuture.completedFuture(CancelBalance.Response.from(
+                    transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount())));
         } catch(AccountException e) {
-            log.error("Failed to CancelBalance");
+            log.debug("Failed to CancelBalance: {}", e.getErrorCode());
             transactionService.saveFailedCancelTransaction(request.getAccountNumber(), request.getAmount());
             throw e;
         }
     }
 
+    // 콜드 파일로 내보낸 거래는 계좌번호를 함께 줘야 찾는다.
     @GetMapping("/transaction/{transactionId}")
-    public QueryTransactionResponse queryTransaction(@PathVariable String transactionId) {
+    public QueryTransactionResponse queryTransaction(
+            @PathVariable String transactionId,
+            @RequestParam(name = "account_number", required = false) String accountNumber) {
         return QueryTransactionResponse.from(
-                transactionService.queryTransaction(transactionId));
+                transactionService.queryTransaction(transactionId, accountNumber));
+    }
+
+    @GetMapping("/transaction/cold")
+    public List<QueryTransactionResponse> queryColdTransactions(
+            @RequestParam("account_number") String accountNumber,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return transactionService.queryColdTransactions(accountNumber, from, to)
+                .stream()
+                .map(QueryTransactionResponse::from)
+                .collect(Collectors.toList());
     }
 }
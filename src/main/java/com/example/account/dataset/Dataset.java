@@ -0,0 +1,35 @@
+package com.example.account.dataset;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 만들어진 데이터의 id 범위. 사용자, 계좌, 거래 id 는 각각 연속이다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class Dataset {
+    private final DatasetSpec spec;
+    private final long firstUserId;
+    private final long firstAccountId;
+    private final long firstAccountNumber;
+    private final long firstTransactionId;
+
+    public long userId(int index) {
+        return firstUserId + index;
+    }
+
+    public long accountId(int index) {
+        return firstAccountId + index;
+    }
+
+    public String accountNumber(int index) {
+        return Long.toString(firstAccountNumber + index);
+    }
+
+    public long transactionId(long index) {
+        return firstTransactionId + index;
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.account.dataset;
+
+import com.example.account.service.ShardRouting;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 사용자, 계좌, 거래를 JDBC 배치로 직접 넣는다. 엔티티와 서비스를 거치지 않으므로 수억 건도 넣을 수 있다.
+ * <p>
+ * 계좌별 거래 수는 Zipf 분포를 따르고, 많이 쓰는 계좌는 계좌 번호 전체에 흩어져 있다.
+ * 거래는 계좌마다 id 와 시각 순으로 이어지며 잔액 스냅샷과 계좌 잔액이 서로 맞는다.
+ * 계좌마다 seed 에서 만든 난수를 쓰므로 스레드 수나 배치 크기와 관계없이 같은 데이터가 나온다.
+ * <p>
+ * 빈 테이블에 넣는 것을 전제로 하고, 중간에 실패하면 이어서 넣지 않는다.
+ */
+@Slf4j
+public class DatasetGenerator {
+    private static final String INSERT_USER =
+            "insert into account_user(id, name, created_at, updated_at) values (?, ?, ?, ?)";
+    private static final String INSERT_ACCOUNT =
+            "insert into account(id, account_user_id, account_number, account_status, balance, registered_at, " +
+                    "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_BALANCE = "update account set balance = ? where id = ?";
+    private static final String INSERT_TRANSACTION =
+            "insert into transaction(id, transaction_type, transaction_result_type, account_id, amount, " +
+                    "balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Dataset generate(DatasetSpec spec) {
+        spec.validate();
+        long firstId = nextId();
+        long firstAccountNumber = nextAccountNumber();
+        // 서비스가 계좌번호를 int 로 읽는다.
+        if (firstAccountNumber + spec.getAccounts() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("account numbers overflow: " + spec);
+        }
+        Dataset dataset = new Dataset(spec, firstId, firstId + spec.getUsers(), firstAccountNumber,
+                firstId + spec.getUsers() + spec.getAccounts());
+
+        long startedAt = System.nanoTime();
+        insertUsers(dataset);
+        writeAccounts(dataset, new Allocation(spec));
+        restartSequence(dataset.transactionId(spec.getTransactions()));
+        // 서비스가 이미 계좌번호 시퀀스를 만들었다면 생성한 계좌 다음부터 나눠 주게 한다.
+        ShardRouting.onShard(0, () -> jdbcTemplate.update("alter sequence if exists account_number_seq restart with "
+                + (firstAccountNumber + spec.getAccounts())));
+        log.info("dataset generated in {} ms: {}",
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), dataset);
+        return dataset;
+    }
+
+    // 모든 엔티티가 hibernate_sequence 하나를 같이 쓴다.
+    private long nextId() {
+        return ShardRouting.fanOut(() -> List.of(jdbcTemplate.queryForObject(
+                        "select greatest(next value for hibernate_sequence, " +
+                                "(select coalesce(max(id), 0) + 1 from account_user), " +
+                                "(select coalesce(max(id), 0) + 1 from account), " +
+                                "(select coalesce(max(id), 0) + 1 from transaction))", Long.class)))
+                .stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(1L);
+    }
+
+    private long nextAccountNumber() {
+        return ShardRouting.fanOut(() -> List.of(jdbcTemplate.queryForObject(
+                        "select coalesce(max(cast(account_number as bigint)) + 1, " + FIRST_ACCOUNT_NUMBER + ") " +
+                                "from account", Long.class)))
+                .stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(FIRST_ACCOUNT_NUMBER);
+    }
+
+    // 샤딩 중이면 계좌가 어느 샤드에 있든 소유자를 찾을 수 있게 모든 샤드에 넣는다.
+    private void insertUsers(Dataset dataset) {
+        DatasetSpec spec = dataset.getSpec();
+        Timestamp createdAt = Timestamp.valueOf(spec.getEnd().minusMonths(spec.getMonths()));
+        ShardRouting.forEachShard(() -> {
+            List<Object[]> batch = new ArrayList<>(spec.getBatchSize());
+            for (int i = 0; i < spec.getUsers(); i++) {
+                batch.add(new Object[]{dataset.userId(i), "user-" + i, createdAt, createdAt});
+                if (batch.size() == spec.getBatchSize()) {
+                    jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+            }
+        });
+    }
+
+    private void writeAccounts(Dataset dataset, Allocation allocation) {
+        DatasetSpec spec = dataset.getSpec();
+        ExecutorService executor = Executors.newFixedThreadPool(spec.getThreads());
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int chunk = 0; chunk < allocation.chunks(); chunk++) {
+                int index = chunk;
+                chunks.add(executor.submit(() -> writeChunk(dataset, allocation, index)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("dataset generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeChunk(Dataset dataset, Allocation allocation, int chunk) {
+        DatasetSpec spec = dataset.getSpec();
+        int from = chunk * spec.getAccountsPerChunk();
+        int to = Math.min(from + spec.getAccountsPerChunk(), spec.getAccounts());
+
+        Map<Integer, Writer> writers = new HashMap<>();
+        try {
+            double cumulative = allocation.cumulativeBefore(chunk);
+            long offset = allocation.boundary(cumulative);
+            for (int i = from; i < to; i++) {
+                cumulative += allocation.weight(i);
+                long end = i == spec.getAccounts() - 1 ? spec.getTransactions() : allocation.boundary(cumulative);
+                String accountNumber = dataset.accountNumber(i);
+                Writer writer = writers.computeIfAbsent(ShardRouting.shardOf(accountNumber),
+                        shard -> new Writer(shard, spec.getBatchSize()));
+                writeAccount(writer, dataset, i, offset, end - offset);
+                offset = end;
+            }
+            for (Writer writer : writers.values()) {
+                writer.flush();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("failed to write accounts " + from + "~" + to, e);
+        } finally {
+            writers.values().forEach(Writer::close);
+        }
+    }
+
+    private void writeAccount(Writer writer, Dataset dataset, int index, long firstTransaction, long count)
+            throws SQLException {
+        DatasetSpec spec = dataset.getSpec();
+        SplittableRandom random = new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L + index);
+
+        // 기간 앞쪽 90% 안에서 계좌를 연다.
+        LocalDateTime start = spec.getEnd().minusMonths(spec.getMonths());
+        long windowSeconds = Duration.between(start, spec.getEnd()).getSeconds();
+        LocalDateTime registeredAt = start.plusSeconds((long) (random.nextDouble() * windowSeconds * 0.9));
+        long activeSeconds = Duration.between(registeredAt, spec.getEnd()).getSeconds();
+
+        long accountId = dataset.accountId(index);
+        long balance = spec.getInitialBalance() / 2 + random.nextLong(spec.getInitialBalance() + 1);
+        long maxAmount = Math.max(1L, spec.getInitialBalance() / 20);
+        writer.account(accountId, dataset.userId(index % spec.getUsers()), dataset.accountNumber(index),
+                balance, registeredAt);
+
+        long lastUse = 0L;
+        for (long k = 0; k < count; k++) {
+            // k 번째 칸 안의 임의 시각이라 거래 id 순서와 시각 순서가 같다.
+            LocalDateTime transactedAt = registeredAt.plusSeconds(
+                    (long) (activeSeconds * (k + random.nextDouble()) / count));
+            int roll = random.nextInt(100);
+            TransactionType type = TransactionType.USE;
+            TransactionResultType result = TransactionResultType.S;
+            long amount;
+            if (roll < 10 && lastUse > 0) {
+                type = TransactionType.CANCEL;
+                amount = lastUse;
+                balance += amount;
+                lastUse = 0L;
+            } else {
+                amount = 1 + random.nextLong(maxAmount);
+                if (roll >= 95 || amount > balance) {
+                    result = TransactionResultType.F;
+                } else {
+                    balance -= amount;
+                    lastUse = amount;
+                }
+            }
+            writer.transaction(dataset.transactionId(firstTransaction + k), type, result, accountId,
+                    amount, balance, transactionId(random), transactedAt);
+        }
+        writer.balance(accountId, balance);
+    }
+
+    private static String transactionId(SplittableRandom random) {
+        char[] chars = new char[32];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 16; i++) {
+            chars[15 - i] = HEX[(int) (high >>> (i * 4)) & 0xF];
+            chars[31 - i] = HEX[(int) (low >>> (i * 4)) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private void restartSequence(long next) {
+        ShardRouting.forEachShard(() ->
+                jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + next));
+    }
+
+    /**
+     * 계좌별 거래 수. 계좌 i 의 몫은 1 / rank(i)^skew 이고, rank 는 계좌 순서를 seed 로 섞은 순위다.
+     * 누적 몫으로 경계를 정하므로 합이 정확히 transactions 가 된다. 청크 시작의 누적값만 들고 있다.
+     */
+    static class Allocation {
+        private final DatasetSpec spec;
+        private final long stride;
+        private final double[] cumulativeBefore;
+        private final double total;
+
+        Allocation(DatasetSpec spec) {
+            this.spec = spec;
+            this.stride = stride(spec.getSeed(), spec.getAccounts());
+
+            int chunks = (spec.getAccounts() + spec.getAccountsPerChunk() - 1) / spec.getAccountsPerChunk();
+            cumulativeBefore = new double[chunks];
+            double cumulative = 0;
+            for (int i = 0; i < spec.getAccounts(); i++) {
+                if (i % spec.getAccountsPerChunk() == 0) {
+                    cumulativeBefore[i / spec.getAccountsPerChunk()] = cumulative;
+                }
+                cumulative += weight(i);
+            }
+            total = cumulative;
+        }
+
+        int chunks() {
+            return cumulativeBefore.length;
+        }
+
+        double cumulativeBefore(int chunk) {
+            return cumulativeBefore[chunk];
+        }
+
+        double weight(int index) {
+            long rank = (index * stride) % spec.getAccounts() + 1;
+            return 1.0 / Math.pow(rank, spec.getSkew());
+        }
+
+        long boundary(double cumulative) {
+            return (long) Math.floor(spec.getTransactions() * cumulative / total);
+        }
+
+        // accounts 와 서로소인 수로 곱하면 순위가 겹치지 않는다.
+        private static long stride(long seed, int accounts) {
+            if (accounts <= 1) {
+                return 1L;
+            }
+            long stride = 1 + new SplittableRandom(seed).nextLong(accounts - 1);
+            while (gcd(stride, accounts) != 1) {
+                stride++;
+            }
+            return stride;
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    /**
+     * 샤드 하나에 대한 커넥션과 배치. 계좌 → 거래 → 잔액 순으로 실행해야 외래 키와 갱신 대상이 먼저 있다.
+     */
+    private class Writer implements AutoCloseable {
+        private final int batchSize;
+        private Connection connection;
+        private PreparedStatement accounts;
+        private PreparedStatement transactions;
+        private PreparedStatement balances;
+        private int pending;
+
+        Writer(int shard, int batchSize) {
+            this.batchSize = batchSize;
+            // 라우팅 DataSource 는 첫 문장을 준비할 때 샤드를 고른다.
+            ShardRouting.onShard(shard, () -> {
+                try {
+                    connection = dataSource.getConnection();
+                    connection.setAutoCommit(false);
+                    accounts = connection.prepareStatement(INSERT_ACCOUNT);
+                    transactions = connection.prepareStatement(INSERT_TRANSACTION);
+                    balances = connection.prepareStatement(UPDATE_BALANCE);
+                } catch (SQLException e) {
+                    close();
+                    throw new IllegalStateException("failed to open shard " + shard, e);
+                }
+                return null;
+            });
+        }
+
+        void account(long id, long userId, String accountNumber, long balance, LocalDateTime registeredAt)
+                throws SQLException {
+            Timestamp timestamp = Timestamp.valueOf(registeredAt);
+            accounts.setLong(1, id);
+            accounts.setLong(2, userId);
+            accounts.setString(3, accountNumber);
+            accounts.setString(4, AccountStatus.IN_USE.name());
+            accounts.setLong(5, balance);
+            accounts.setTimestamp(6, timestamp);
+            accounts.setTimestamp(7, timestamp);
+            accounts.setTimestamp(8, timestamp);
+            accounts.addBatch();
+            added();
+        }
+
+        void transaction(long id, TransactionType type, TransactionResultType result, long accountId,
+                         long amount, long balanceSnapshot, String transactionId, LocalDateTime transactedAt)
+                throws SQLException {
+            Timestamp timestamp = Timestamp.valueOf(transactedAt);
+            transactions.setLong(1, id);
+            transactions.setString(2, type.name());
+            transactions.setString(3, result.name());
+            transactions.setLong(4, accountId);
+            transactions.setLong(5, amount);
+            transactions.setLong(6, balanceSnapshot);
+            transactions.setString(7, transactionId);
+            transactions.setTimestamp(8, timestamp);
+            transactions.setTimestamp(9, timestamp);
+            transactions.setTimestamp(10, timestamp);
+            transactions.addBatch();
+            added();
+        }
+
+        void balance(long accountId, long balance) throws SQLException {
+            balances.setLong(1, balance);
+            balances.setLong(2, accountId);
+            balances.addBatch();
+            added();
+        }
+
+        private void added() throws SQLException {
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            accounts.executeBatch();
+            transactions.executeBatch();
+            balances.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                log.warn("failed to close dataset connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.account.dataset;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 기동할 때 합성 데이터를 넣는다. 벤치마크와 부하 테스트가 빈 테이블 대신 큰 테이블 위에서 돌게 한다.
+ * 샤드 스키마 복제 다음, 워밍업보다 먼저 돈다.
+ *
+ * <pre>
+ * --dataset.enabled=true --dataset.users=1000000 --dataset.accounts=10000000 \
+ *     --dataset.transactions=500000000 --dataset.end=2024-01-01T00:00
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "dataset.enabled", havingValue = "true")
+public class DatasetLoader implements ApplicationRunner {
+    private final DataSource dataSource;
+
+    @Value("${dataset.seed:42}")
+    private long seed;
+
+    @Value("${dataset.users:1000}")
+    private int users;
+
+    @Value("${dataset.accounts:10000}")
+    private int accounts;
+
+    @Value("${dataset.transactions:500000}")
+    private long transactions;
+
+    @Value("${dataset.skew:0.8}")
+    private double skew;
+
+    @Value("${dataset.months:24}")
+    private int months;
+
+    // 비우면 오늘 0시. 같은 데이터를 다시 만들려면 지정한다.
+    @Value("${dataset.end:}")
+    private String end;
+
+    @Value("${dataset.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${dataset.threads:4}")
+    private int threads;
+
+    @Getter
+    private Dataset dataset;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        dataset = new DatasetGenerator(dataSource).generate(DatasetSpec.builder()
+                .seed(seed)
+                .users(users)
+                .accounts(accounts)
+                .transactions(transactions)
+                .skew(skew)
+                .months(months)
+                .end(end.isEmpty() ? LocalDate.now().atStartOfDay() : LocalDateTime.parse(end))
+                .batchSize(batchSize)
+                .threads(threads)
+                .build());
+    }
+}
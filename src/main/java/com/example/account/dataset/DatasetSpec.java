@@ -0,0 +1,57 @@
+package com.example.account.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 합성 데이터의 규모와 분포. 같은 spec 이면 같은 데이터가 만들어진다.
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class DatasetSpec {
+    @Builder.Default
+    private final long seed = 42L;
+    @Builder.Default
+    private final int users = 1_000;
+    // 사용자당 계좌는 최대 10개라 users * 10 을 넘을 수 없다.
+    @Builder.Default
+    private final int accounts = 10_000;
+    @Builder.Default
+    private final long transactions = 500_000L;
+    // 계좌별 거래 수의 Zipf 지수. 0 이면 고르게, 1 이상이면 소수 계좌에 몰린다.
+    @Builder.Default
+    private final double skew = 0.8;
+    // 거래 시각을 end 이전 몇 달에 걸쳐 펼칠지
+    @Builder.Default
+    private final int months = 24;
+    // 재현하려면 고정해야 한다.
+    private final LocalDateTime end;
+    @Builder.Default
+    private final long initialBalance = 1_000_000L;
+    @Builder.Default
+    private final int batchSize = 1_000;
+    @Builder.Default
+    private final int threads = 4;
+    // 한 작업이 맡는 계좌 수. 바꾸면 같은 seed 라도 쓰는 순서만 달라지고 데이터는 같다.
+    @Builder.Default
+    private final int accountsPerChunk = 10_000;
+
+    void validate() {
+        if (users <= 0 || accounts < 0 || transactions < 0) {
+            throw new IllegalArgumentException("dataset volumes must not be negative: " + this);
+        }
+        if ((long) users * 10 < accounts) {
+            throw new IllegalArgumentException("at most 10 accounts per user: " + this);
+        }
+        if (accounts == 0 && transactions > 0) {
+            throw new IllegalArgumentException("transactions need accounts: " + this);
+        }
+        if (end == null) {
+            throw new IllegalArgumentException("end is required: " + this);
+        }
+    }
+}
@@ -35,7 +35,7 @@ public class Account extends BaseEntity {
 
     public void useBalance(Long amount) {
         if(amount > balance) {
-            throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
+            throw AccountException.of(ErrorCode.BALANCE_NOT_EMPTY);
         }
 
         balance -= amount;
@@ -43,7 +43,7 @@ public class Account extends BaseEntity {
 
     public void cancelBalance(Long amount) {
         if(amount < 0) {
-            throw new AccountException(ErrorCode.INVALID_REQUEST);
+            throw AccountException.of(ErrorCode.INVALID_REQUEST);
         }
 
         balance += amount;
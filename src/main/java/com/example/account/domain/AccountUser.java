@@ -1,8 +1,11 @@
 package com.example.account.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
@@ -15,7 +18,12 @@ import javax.persistence.Id;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+// 거의 바뀌지 않는데 모든 계좌/거래 요청이 읽는다. 계좌를 읽을 때 소유자도 id 로 이 캐시에서 찾는다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AccountUser.CACHE_REGION)
 public class AccountUser extends BaseEntity {
+    public static final String CACHE_REGION = "accountUser";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -0,0 +1,61 @@
+package com.example.account.domain;
+
+import com.example.account.type.OutboxEventType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 다른 시스템에 알릴 이벤트. 거래/계좌 변경과 같은 트랜잭션에서 쓰고, OutboxRelay 가 id 순서로 Redis Stream 에 옮긴 뒤 지운다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class OutboxEvent {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    private String accountNumber;
+
+    private String transactionId;
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+
+    private LocalDateTime occurredAt;
+
+    public static OutboxEvent transactionRecorded(Transaction transaction) {
+        return OutboxEvent.builder()
+                .eventType(OutboxEventType.TRANSACTION_RECORDED)
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .transactionId(transaction.getTransactionId())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .occurredAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    public static OutboxEvent accountUnregistered(Account account) {
+        return OutboxEvent.builder()
+                .eventType(OutboxEventType.ACCOUNT_UNREGISTERED)
+                .accountNumber(account.getAccountNumber())
+                .balanceSnapshot(account.getBalance())
+                .occurredAt(account.getUnregisteredAt())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 계좌별로 마지막으로 대사한 거래와 그 잔액 스냅샷. 증분 실행이 이어서 검증할 시작점이다.
+ * BalanceReconciler 가 JDBC 배치로 읽고 쓴다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class ReconciliationAccountState {
+    @Id
+    private Long accountId;
+
+    private Long lastTransactionId;
+    private Long lastSnapshot;
+}
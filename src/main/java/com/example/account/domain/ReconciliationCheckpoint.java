@@ -0,0 +1,25 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 샤드별로 대사가 끝난 마지막 거래 id. 다음 실행은 이 id 이후의 거래만 본다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+public class ReconciliationCheckpoint {
+    @Id
+    private Integer shard;
+
+    private Long lastTransactionId;
+    private String runId;
+    private LocalDateTime completedAt;
+}
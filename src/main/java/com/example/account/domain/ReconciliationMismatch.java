@@ -0,0 +1,32 @@
+package com.example.account.domain;
+
+import com.example.account.type.ReconciliationMismatchType;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_reconciliation_mismatch_run_id", columnList = "runId"))
+public class ReconciliationMismatch {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String runId;
+
+    @Enumerated(EnumType.STRING)
+    private ReconciliationMismatchType mismatchType;
+
+    private String accountNumber;
+    // BALANCE 불일치는 비어 있다.
+    private String transactionId;
+    private Long expected;
+    private Long actual;
+    private LocalDateTime detectedAt;
+}
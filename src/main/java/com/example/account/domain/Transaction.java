@@ -15,6 +15,11 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+// 보관 배치가 transactedAt 월 단위로 오래된 거래를 찾는다.
+@Table(indexes = {
+        @Index(name = "idx_transaction_transaction_id", columnList = "transactionId"),
+        @Index(name = "idx_transaction_transacted_at", columnList = "transactedAt")
+})
 public class Transaction extends BaseEntity {
     @Id
     @GeneratedValue
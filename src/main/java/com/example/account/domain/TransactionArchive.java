@@ -0,0 +1,61 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 취소 가능 기간(1년)이 지나 Transaction 테이블에서 옮겨진 거래. id 는 원래 거래의 id 를 그대로 쓴다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_archive_transaction_id", columnList = "transactionId"),
+        @Index(name = "idx_transaction_archive_transacted_at", columnList = "transactedAt")
+})
+public class TransactionArchive implements Persistable<Long> {
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+
+    @ManyToOne
+    private Account account;
+
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+    private LocalDateTime archivedAt;
+
+    public static TransactionArchive from(Transaction transaction, LocalDateTime archivedAt) {
+        return TransactionArchive.builder()
+                .id(transaction.getId())
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .account(transaction.getAccount())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(transaction.getTransactionId())
+                .transactedAt(transaction.getTransactedAt())
+                .archivedAt(archivedAt)
+                .build();
+    }
+
+    // 항상 새로 옮겨 담으므로 저장 전 존재 여부를 조회(merge)하지 않는다.
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -3,9 +3,6 @@ package com.example.account.dto;
 import com.example.account.type.ErrorCode;
 import lombok.*;
 
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
-
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,6 +1,7 @@
 package com.example.account.dto;
 
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionArchive;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.*;
@@ -32,4 +33,16 @@ public class TransactionDto {
                 .transactedAt(transaction.getTransactedAt())
                 .build();
     }
+
+    public static TransactionDto fromArchive(TransactionArchive archive) {
+        return TransactionDto.builder()
+                .accountNumber(archive.getAccount().getAccountNumber())
+                .transactionType(archive.getTransactionType())
+                .transactionResultType(archive.getTransactionResultType())
+                .amount(archive.getAmount())
+                .balanceSnapshot(archive.getBalanceSnapshot())
+                .transactionId(archive.getTransactionId())
+                .transactedAt(archive.getTransactedAt())
+                .build();
+    }
 }
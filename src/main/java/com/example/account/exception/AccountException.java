@@ -1,22 +1,39 @@
 package com.example.account.exception;
 
 import com.example.account.type.ErrorCode;
-import lombok.*;
+import lombok.Getter;
 
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
+import java.util.EnumMap;
+import java.util.Map;
 
+/**
+ * 비즈니스 규칙 위반을 나타내는 예외. 원인 추적이 필요 없는 예상된 거절이므로 스택 트레이스를 만들지 않는다.
+ */
 @Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class AccountException extends RuntimeException {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private static final Map<ErrorCode, AccountException> PREALLOCATED = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            PREALLOCATED.put(errorCode, new AccountException(errorCode));
+        }
+    }
+
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 
     public AccountException(ErrorCode errorCode) {
+        this(errorCode, errorCode.getDescription());
+    }
+
+    public AccountException(ErrorCode errorCode, String errorMessage) {
+        super(errorMessage, null, false, false);
         this.errorCode = errorCode;
-        this.errorMessage = errorCode.getDescription();
+        this.errorMessage = errorMessage;
+    }
+
+    // 에러 코드별로 미리 만들어 둔 불변 인스턴스. 거절 경로에서 객체를 새로 만들지 않는다.
+    public static AccountException of(ErrorCode errorCode) {
+        return PREALLOCATED.get(errorCode);
     }
 }
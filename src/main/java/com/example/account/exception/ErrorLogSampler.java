@@ -0,0 +1,40 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 예상된 거절(락 경합, 잔액 부족)은 에러 코드마다 주기당 한 번만 남기고, 그 사이 건수를 함께 출력한다.
+ */
+@Slf4j
+public class ErrorLogSampler {
+    private final long intervalNanos;
+    private final Map<ErrorCode, AtomicLong> nextLogAt = new EnumMap<>(ErrorCode.class);
+    private final Map<ErrorCode, AtomicLong> suppressed = new EnumMap<>(ErrorCode.class);
+
+    public ErrorLogSampler(long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+        long now = System.nanoTime();
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            nextLogAt.put(errorCode, new AtomicLong(now));
+            suppressed.put(errorCode, new AtomicLong());
+        }
+    }
+
+    public void log(ErrorCode errorCode) {
+        AtomicLong next = nextLogAt.get(errorCode);
+        long now = System.nanoTime();
+        long scheduled = next.get();
+        if (now - scheduled < 0 || !next.compareAndSet(scheduled, now + intervalNanos)) {
+            suppressed.get(errorCode).incrementAndGet();
+            return;
+        }
+
+        log.warn("{} is occurred ({} suppressed)", errorCode, suppressed.get(errorCode).getAndSet(0));
+    }
+}
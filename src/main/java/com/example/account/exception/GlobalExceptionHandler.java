@@ -2,41 +2,123 @@ package com.example.account.exception;
 
 import com.example.account.dto.ErrorResponse;
 import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    // 에러 응답을 보낸 요청에 남기는 ErrorCode. 응답이 HTTP 200 이라 인터셉터는 이것으로 실패를 구분한다.
+    public static final String ERROR_CODE_ATTRIBUTE = GlobalExceptionHandler.class.getName() + ".errorCode";
+
+    // 경합 상황에서 대량으로 발생하는 예상된 거절. 로그를 샘플링한다.
+    private static final Set<ErrorCode> EXPECTED_REJECTIONS =
+            EnumSet.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ErrorCode.AMOUNT_EXCEED_BALANCE,
+                    ErrorCode.RATE_LIMIT_EXCEEDED, ErrorCode.SERVICE_OVERLOADED);
+
+    private final ObjectMapper objectMapper;
+    private final Map<ErrorCode, byte[]> serializedResponses = new EnumMap<>(ErrorCode.class);
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+    private final ErrorLogSampler errorLogSampler = new ErrorLogSampler(1, TimeUnit.SECONDS);
+
+    // @WebMvcTest 슬라이스에는 MeterRegistry 빈이 없어 그때만 테스트 안에서 끝나는 레지스트리를 쓴다.
+    public GlobalExceptionHandler(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry)
+            throws JsonProcessingException {
+        this.objectMapper = objectMapper;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            serializedResponses.put(errorCode, objectMapper.writeValueAsBytes(
+                    new ErrorResponse(errorCode, errorCode.getDescription())));
+            errorCounters.put(errorCode, registry.counter("account.errors", "errorCode", errorCode.name()));
+        }
+    }
+
     @ExceptionHandler(AccountException.class)
-    public ErrorResponse handleAccountException(AccountException ex) {
-        log.error("{} is occurred", ex.getErrorCode());
+    public ResponseEntity<byte[]> handleAccountException(AccountException ex) throws JsonProcessingException {
+        if (EXPECTED_REJECTIONS.contains(ex.getErrorCode())) {
+            errorLogSampler.log(ex.getErrorCode());
+        } else {
+            log.error("{} is occurred", ex.getErrorCode());
+        }
 
-        return new ErrorResponse(ex.getErrorCode(), ex.getErrorMessage());
+        return errorResponse(ex.getErrorCode(), ex.getErrorMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
         log.error("MethodArgumentNotValidException is occurred", ex);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
+        return errorResponse(ErrorCode.INVALID_REQUEST);
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+    public ResponseEntity<byte[]> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
         log.error("DataIntegrityViolationException is occurred", ex);
 
-        return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
+        return errorResponse(ErrorCode.INVALID_REQUEST);
     }
 
+    // transactionExecutor 의 큐가 가득 찬 경우. 서버 오류가 아닌 과부하 거절로 응답해야 입장 제어가 한도를 잘못 줄이지 않는다.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<byte[]> handleRejectedExecutionException(RejectedExecutionException ex) {
+        errorLogSampler.log(ErrorCode.SERVICE_OVERLOADED);
+
+        return errorResponse(ErrorCode.SERVICE_OVERLOADED);
+    }
 
     @ExceptionHandler(Exception.class)
-    public ErrorResponse handleException(Exception ex) {
+    public ResponseEntity<byte[]> handleException(Exception ex) {
         log.error("Exception is occurred", ex);
 
-        return new ErrorResponse(ErrorCode.INTERNAL_SERVER_ERROR, ErrorCode.INTERNAL_SERVER_ERROR.getDescription());
+        return errorResponse(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    private ResponseEntity<byte[]> errorResponse(ErrorCode errorCode) {
+        errorCounters.get(errorCode).increment();
+        markError(errorCode);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serializedResponses.get(errorCode));
+    }
+
+    // 기본 설명과 다른 메시지를 가진 예외만 새로 직렬화한다.
+    private ResponseEntity<byte[]> errorResponse(ErrorCode errorCode, String errorMessage) throws JsonProcessingException {
+        if (errorCode.getDescription().equals(errorMessage)) {
+            return errorResponse(errorCode);
+        }
+
+        errorCounters.get(errorCode).increment();
+        markError(errorCode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(new ErrorResponse(errorCode, errorMessage)));
+    }
+
+    private static void markError(ErrorCode errorCode) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ERROR_CODE_ATTRIBUTE, errorCode, RequestAttributes.SCOPE_REQUEST);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * 거래 처리 단계별 JFR 이벤트의 공통 필드. 계좌번호는 원문 대신 해시만 남긴다.
+ */
+@Category("Account")
+@StackTrace(false)
+public abstract class AccountEvent extends Event {
+    @Label("Account Number Hash")
+    int accountNumberHash;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    public void commit(String accountNumber, String endpoint) {
+        end();
+        if (shouldCommit()) {
+            this.accountNumberHash = hash(accountNumber);
+            this.endpoint = endpoint;
+            commit();
+        }
+    }
+
+    private static int hash(String accountNumber) {
+        if (accountNumber == null) {
+            return 0;
+        }
+        int h = accountNumber.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
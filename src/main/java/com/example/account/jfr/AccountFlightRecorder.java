@@ -0,0 +1,70 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * JDK 기본(default) 설정으로 상시 기록을 유지하고, 요청 시 최근 구간을 파일로 덤프한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jfr.continuous.enabled", havingValue = "true")
+public class AccountFlightRecorder {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${jfr.continuous.max-age:30m}")
+    private Duration maxAge;
+
+    @Value("${jfr.continuous.max-size-mb:256}")
+    private long maxSizeMb;
+
+    @Value("${jfr.continuous.dump-dir:./jfr}")
+    private String dumpDir;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("account-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        List.of(LockAcquireEvent.class, LockReleaseEvent.class, ValidationEvent.class,
+                        EntityLoadEvent.class, CommitEvent.class, FailureRecordEvent.class)
+                .forEach(recording::enable);
+        recording.start();
+        log.info("JFR continuous recording started. maxAge : {}, maxSizeMb : {}", maxAge, maxSizeMb);
+    }
+
+    public Path dump() throws IOException {
+        Path directory = Paths.get(dumpDir);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("account-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        recording.dump(file);
+        return file.toAbsolutePath();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
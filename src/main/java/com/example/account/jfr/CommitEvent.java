@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.Commit")
+@Label("Account Commit")
+@Description("트랜잭션 flush 및 commit")
+public class CommitEvent extends AccountEvent {
+}
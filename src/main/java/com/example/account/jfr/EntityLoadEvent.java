@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.EntityLoad")
+@Label("Account Entity Load")
+@Description("사용자/계좌/거래 엔티티 조회")
+public class EntityLoadEvent extends AccountEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.FailureRecord")
+@Label("Account Failure Record")
+@Description("실패 거래 기록 저장")
+public class FailureRecordEvent extends AccountEvent {
+}
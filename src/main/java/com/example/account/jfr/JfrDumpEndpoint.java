@@ -0,0 +1,24 @@
+package com.example.account.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+// POST /actuator/jfr 로 상시 기록을 덤프한다.
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "jfr.continuous.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JfrDumpEndpoint {
+    private final AccountFlightRecorder accountFlightRecorder;
+
+    @WriteOperation
+    public Map<String, String> dump() throws IOException {
+        return Map.of("file", accountFlightRecorder.dump().toString());
+    }
+}
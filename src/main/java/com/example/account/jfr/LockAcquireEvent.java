@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.LockAcquire")
+@Label("Account Lock Acquire")
+@Description("계좌 락 획득 대기")
+public class LockAcquireEvent extends AccountEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.LockRelease")
+@Label("Account Lock Release")
+@Description("계좌 락 해제")
+public class LockReleaseEvent extends AccountEvent {
+}
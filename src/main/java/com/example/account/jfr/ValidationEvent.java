@@ -0,0 +1,11 @@
+package com.example.account.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.account.Validation")
+@Label("Account Validation")
+@Description("거래 검증 규칙 실행")
+public class ValidationEvent extends AccountEvent {
+}
@@ -0,0 +1,16 @@
+package com.example.account.profiler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class SlowQuery {
+    private final String scope;
+    private final String query;
+    private final String parameters;
+    private final long elapsedMillis;
+    private final LocalDateTime executedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.account.profiler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/sqlprofile 로 조회, DELETE 로 초기화.
+@Component
+@Endpoint(id = "sqlprofile")
+@RequiredArgsConstructor
+public class SqlProfileEndpoint {
+    private final SqlProfiler sqlProfiler;
+
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("scopes", sqlProfiler.getStats());
+        profile.put("slowQueries", sqlProfiler.getSlowQueries());
+        return profile;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlProfiler.reset();
+    }
+}
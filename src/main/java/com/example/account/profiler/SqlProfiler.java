@@ -0,0 +1,168 @@
+package com.example.account.profiler;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * datasource-proxy 리스너. 실행된 SQL 을 현재 스레드의 프로파일 범위(엔드포인트, 서비스 메서드)에 귀속시키고,
+ * 가장 바깥 범위가 끝날 때 N+1 패턴과 동일 쿼리 반복을 검사한다.
+ */
+@Slf4j
+@Component
+public class SqlProfiler implements QueryExecutionListener {
+    // 한 범위 안에서 추적하는 서로 다른 SQL 의 최대 개수. 넘으면 더 이상 반복 검사를 하지 않는다.
+    private static final int MAX_TRACKED_QUERIES_PER_SCOPE = 256;
+
+    private final ThreadLocal<Deque<Scope>> scopes = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, SqlStats> statsByScope = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    @Value("${sql.profiler.slow-query-millis:100}")
+    private long slowQueryMillis;
+
+    @Value("${sql.profiler.slow-query-capacity:200}")
+    private int slowQueryCapacity;
+
+    @Value("${sql.profiler.n-plus-one-threshold:3}")
+    private int nPlusOneThreshold;
+
+    public void enter(String name) {
+        scopes.get().push(new Scope(name));
+        stats(name).recordInvocation();
+    }
+
+    public void exit() {
+        Deque<Scope> stack = scopes.get();
+        Scope scope = stack.pop();
+        if (stack.isEmpty()) {
+            scopes.remove();
+            inspect(scope);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deque<Scope> stack = scopes.get();
+        if (stack.isEmpty()) {
+            scopes.remove();
+            return;
+        }
+
+        long rowCount = rowCount(execInfo.getResult());
+        for (Scope scope : stack) {
+            stats(scope.name).recordStatement(rowCount, execInfo.getElapsedTime());
+        }
+
+        Scope outermost = stack.peekLast();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String parameters = parameters(queryInfo);
+            outermost.track(queryInfo.getQuery(), parameters);
+
+            if (execInfo.getElapsedTime() >= slowQueryMillis) {
+                addSlowQuery(new SlowQuery(stack.peek().name, queryInfo.getQuery(), parameters,
+                        execInfo.getElapsedTime(), LocalDateTime.now()));
+            }
+        }
+    }
+
+    public Map<String, Map<String, Object>> getStats() {
+        return new TreeMap<>(statsByScope).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toMap(),
+                        (left, right) -> left, LinkedHashMap::new));
+    }
+
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public void reset() {
+        statsByScope.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    private void inspect(Scope scope) {
+        SqlStats stats = stats(scope.name);
+        scope.executionsByQuery.forEach((query, executions) -> {
+            if (executions >= nPlusOneThreshold) {
+                stats.recordNPlusOne();
+                log.warn("Possible N+1 in {} : {} executions of {}", scope.name, executions, query);
+            }
+        });
+        scope.executionsByStatement.forEach((statement, executions) -> {
+            if (executions > 1) {
+                stats.recordRepeatedQuery();
+                log.warn("Repeated identical query in {} : {} executions of {}", scope.name, executions, statement);
+            }
+        });
+    }
+
+    private SqlStats stats(String name) {
+        return statsByScope.computeIfAbsent(name, key -> new SqlStats());
+    }
+
+    private void addSlowQuery(SlowQuery slowQuery) {
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= slowQueryCapacity) {
+                slowQueries.pollFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        if (result instanceof int[]) {
+            return Arrays.stream((int[]) result).sum();
+        }
+        return 0;
+    }
+
+    private static String parameters(QueryInfo queryInfo) {
+        return queryInfo.getParametersList().stream()
+                .map(operations -> operations.stream()
+                        .map(ParameterSetOperation::getArgs)
+                        .map(args -> args.length > 1 ? String.valueOf(args[1]) : "")
+                        .collect(Collectors.joining(",", "(", ")")))
+                .collect(Collectors.joining(","));
+    }
+
+    private static class Scope {
+        private final String name;
+        private final Map<String, Integer> executionsByQuery = new HashMap<>();
+        private final Map<String, Integer> executionsByStatement = new HashMap<>();
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        private void track(String query, String parameters) {
+            if (executionsByQuery.size() < MAX_TRACKED_QUERIES_PER_SCOPE || executionsByQuery.containsKey(query)) {
+                executionsByQuery.merge(query, 1, Integer::sum);
+            }
+            String statement = query + " " + parameters;
+            if (executionsByStatement.size() < MAX_TRACKED_QUERIES_PER_SCOPE || executionsByStatement.containsKey(statement)) {
+                executionsByStatement.merge(statement, 1, Integer::sum);
+            }
+        }
+    }
+}
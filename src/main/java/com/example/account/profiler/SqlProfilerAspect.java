@@ -0,0 +1,34 @@
+package com.example.account.profiler;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 컨트롤러와 서비스 메서드를 SQL 프로파일 범위로 등록한다.
+ * LockAopAspect 보다 안쪽에서 실행되어야 비동기 엔드포인트도 실제 로직이 도는 스레드에서 범위가 열린다.
+ */
+@Aspect
+@Component
+@Order(SqlProfilerAspect.ORDER)
+@RequiredArgsConstructor
+public class SqlProfilerAspect {
+    public static final int ORDER = 200;
+
+    private final SqlProfiler sqlProfiler;
+
+    @Around("within(com.example.account.controller..*)"
+            + " || within(com.example.account.service.TransactionService)"
+            + " || within(com.example.account.service.AccountService)")
+    public Object profile(ProceedingJoinPoint pjp) throws Throwable {
+        sqlProfiler.enter(pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName());
+        try {
+            return pjp.proceed();
+        } finally {
+            sqlProfiler.exit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.account.profiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트 또는 서비스 메서드 하나에 누적된 SQL 통계.
+ */
+public class SqlStats {
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder elapsedMillis = new LongAdder();
+    private final LongAdder nPlusOneSuspects = new LongAdder();
+    private final LongAdder repeatedQueries = new LongAdder();
+    private final LongAdder invocations = new LongAdder();
+
+    void recordStatement(long rowCount, long elapsed) {
+        statements.increment();
+        rows.add(rowCount);
+        elapsedMillis.add(elapsed);
+    }
+
+    void recordInvocation() {
+        invocations.increment();
+    }
+
+    void recordNPlusOne() {
+        nPlusOneSuspects.increment();
+    }
+
+    void recordRepeatedQuery() {
+        repeatedQueries.increment();
+    }
+
+    public Map<String, Object> toMap() {
+        long invocationCount = invocations.sum();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("invocations", invocationCount);
+        map.put("statements", statements.sum());
+        map.put("statementsPerInvocation", invocationCount == 0 ? 0 : (double) statements.sum() / invocationCount);
+        map.put("rows", rows.sum());
+        map.put("elapsedMillis", elapsedMillis.sum());
+        map.put("nPlusOneSuspects", nPlusOneSuspects.sum());
+        map.put("repeatedQueries", repeatedQueries.sum());
+        return map;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.account.reconciliation;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.Getter;
+
+/**
+ * 한 계좌의 거래를 id 순으로 받아 잔액 스냅샷이 이어지는지 검증한다.
+ * 직전 스냅샷 하나만 들고 있으므로 거래 수와 관계없이 메모리가 일정하다.
+ */
+class AccountChain {
+    @Getter
+    private final long accountId;
+    @Getter
+    private final String accountNumber;
+    // 지난 실행에서 이어받은 상태. 없으면 첫 거래의 스냅샷이 기준이 된다.
+    @Getter
+    private Long lastSnapshot;
+    @Getter
+    private long lastTransactionId;
+    private boolean advanced;
+
+    AccountChain(long accountId, String accountNumber, Long lastSnapshot, long lastTransactionId) {
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.lastSnapshot = lastSnapshot;
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    /**
+     * @return 스냅샷이 어긋나면 [기대값, 실제값], 아니면 null
+     */
+    long[] accept(long id, TransactionType type, TransactionResultType result,
+                  long amount, long balanceSnapshot) {
+        // 중간에 멈춘 실행이 이미 검증한 거래
+        if (id <= lastTransactionId) {
+            return null;
+        }
+
+        long[] mismatch = null;
+        if (lastSnapshot != null) {
+            long expected = expectedSnapshot(lastSnapshot, type, result, amount);
+            if (expected != balanceSnapshot) {
+                mismatch = new long[]{expected, balanceSnapshot};
+            }
+        }
+        // 어긋나도 실제 스냅샷을 기준으로 이어가야 한 건의 오류가 뒤 거래 전체로 번지지 않는다.
+        lastSnapshot = balanceSnapshot;
+        lastTransactionId = id;
+        advanced = true;
+        return mismatch;
+    }
+
+    boolean isAdvanced() {
+        return advanced;
+    }
+
+    boolean balanceMatches(long balance) {
+        return lastSnapshot == null || lastSnapshot == balance;
+    }
+
+    private static long expectedSnapshot(long previous, TransactionType type,
+                                         TransactionResultType result, long amount) {
+        // 실패 거래는 그 시점의 잔액을 그대로 남긴다.
+        if (result == TransactionResultType.F) {
+            return previous;
+        }
+        return type == TransactionType.USE ? previous - amount : previous + amount;
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.account.reconciliation;
+
+import com.example.account.domain.ReconciliationCheckpoint;
+import com.example.account.domain.ReconciliationMismatch;
+import com.example.account.repository.ReconciliationCheckpointRepository;
+import com.example.account.repository.ReconciliationMismatchRepository;
+import com.example.account.service.LockProvider;
+import com.example.account.service.LockProviderException;
+import com.example.account.service.ShardRouting;
+import com.example.account.type.ReconciliationMismatchType;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전체 거래 이력을 계좌별로 다시 계산해 잔액 스냅샷 사슬과 현재 잔액을 검증한다.
+ * 계좌 id 범위를 fork-join 으로 나눠 범위마다 (account_id, id) 순으로 스트리밍하므로
+ * 메모리는 범위 크기에만 비례한다. 불일치는 reconciliation_mismatch 에 남긴다.
+ * <p>
+ * 샤드마다 마지막으로 검증한 거래 id 를 체크포인트로 남겨 다음 실행은 그 이후 거래만 본다.
+ * 체크포인트는 settle 보다 오래된 거래까지만 옮겨, 먼저 id 를 받고 늦게 커밋된 거래를 건너뛰지 않는다.
+ * 계좌별 마지막 스냅샷은 reconciliation_account_state 에 이어 두므로 사슬은 실행 사이에도 끊기지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reconciliation.enabled", havingValue = "true")
+public class BalanceReconciler {
+    static final String LOCK_KEY = "ACLK:balance-reconciler";
+
+    private static final String TRANSACTIONS_SQL =
+            "select id, account_id, transaction_type, transaction_result_type, amount, balance_snapshot, transaction_id " +
+                    "from transaction where account_id between ? and ? and id > ? and id <= ? " +
+                    "order by account_id, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final LockProvider lockProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter scannedTransactions;
+    private final Counter mismatchCounter;
+
+    // 동시에 스트리밍하는 범위 수. 커넥션 풀을 이만큼 점유한다.
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+
+    // 한 작업이 맡는 계좌 id 범위. 범위 안 계좌의 잔액과 상태를 한 번에 읽는다.
+    @Value("${reconciliation.leaf-accounts:10000}")
+    private long leafAccounts;
+
+    @Value("${reconciliation.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${reconciliation.mismatch-flush-size:1000}")
+    private int mismatchFlushSize;
+
+    @Value("${reconciliation.lock-lease:PT6H}")
+    private Duration lockLease;
+
+    // 거래 id 는 커밋 전에 시퀀스에서 받는다. 이보다 최근 거래는 더 작은 id 를 가진 거래가 아직 커밋 전일 수 있어 다음 실행에서 본다.
+    @Value("${reconciliation.settle:PT5M}")
+    private Duration settle;
+
+    public BalanceReconciler(DataSource dataSource,
+                             ReconciliationMismatchRepository mismatchRepository,
+                             ReconciliationCheckpointRepository checkpointRepository,
+                             LockProvider lockProvider,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.mismatchRepository = mismatchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.lockProvider = lockProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scannedTransactions = Counter.builder("reconciliation.transactions")
+                .description("대사한 거래 수")
+                .register(meterRegistry);
+        this.mismatchCounter = Counter.builder("reconciliation.mismatches")
+                .description("대사에서 찾은 불일치 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 0 3 * * *}")
+    public void run() {
+        try {
+            if (!lockProvider.tryLock(LOCK_KEY, 0, lockLease.toMillis())) {
+                return;
+            }
+        } catch (LockProviderException e) {
+            log.warn("reconciler lock unavailable, skipping run", e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            ShardRouting.forEachShard(() -> log.info("reconciliation finished: {}", reconcile()));
+        } finally {
+            lockProvider.unlock(LOCK_KEY);
+        }
+    }
+
+    /**
+     * 체크포인트 이후 지금까지 커밋된 거래를 대사하고 체크포인트를 옮긴다.
+     * 샤딩 중이면 현재 샤드만 본다.
+     */
+    public ReconciliationResult reconcile() {
+        Integer currentShard = ShardRouting.currentShard();
+        int shard = currentShard == null ? 0 : currentShard;
+        String runId = LocalDateTime.now() + "-" + shard;
+
+        long from = checkpointRepository.findById(shard)
+                .map(ReconciliationCheckpoint::getLastTransactionId)
+                .orElse(0L);
+        Long to = jdbcTemplate.queryForObject(
+                "select max(id) from transaction where id > ? and transacted_at < ?", Long.class,
+                from, Timestamp.valueOf(LocalDateTime.now().minus(settle)));
+        if (to == null || to <= from) {
+            return new ReconciliationResult(runId, shard, from, from, 0, 0, 0);
+        }
+
+        Run run = new Run(runId, currentShard, from, to);
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "select min(account_id) min_id, max(account_id) max_id from transaction where id > ? and id <= ?",
+                from, to);
+        Number minAccountId = (Number) range.get("min_id");
+        Number maxAccountId = (Number) range.get("max_id");
+        if (minAccountId != null) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(run, minAccountId.longValue(), maxAccountId.longValue()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // 모든 범위가 끝난 뒤에만 옮긴다. 중간에 실패하면 같은 구간을 다시 보되 계좌 상태가 중복 검증을 막는다.
+        checkpointRepository.save(ReconciliationCheckpoint.builder()
+                .shard(shard)
+                .lastTransactionId(to)
+                .runId(runId)
+                .completedAt(LocalDateTime.now())
+                .build());
+        return new ReconciliationResult(runId, shard, from, to,
+                run.transactions.get(), run.accounts.get(), run.mismatches.get());
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private final Run run;
+        private final long fromAccountId;
+        private final long toAccountId;
+
+        RangeTask(Run run, long fromAccountId, long toAccountId) {
+            this.run = run;
+            this.fromAccountId = fromAccountId;
+            this.toAccountId = toAccountId;
+        }
+
+        @Override
+        protected void compute() {
+            if (toAccountId - fromAccountId < leafAccounts) {
+                // fork-join 워커 스레드에는 샤드 지정이 넘어오지 않는다.
+                if (run.shard == null) {
+                    reconcileRange(run, fromAccountId, toAccountId);
+                } else {
+                    ShardRouting.onShard(run.shard, () -> {
+                        reconcileRange(run, fromAccountId, toAccountId);
+                        return null;
+                    });
+                }
+                return;
+            }
+            long mid = fromAccountId + (toAccountId - fromAccountId) / 2;
+            invokeAll(new RangeTask(run, fromAccountId, mid), new RangeTask(run, mid + 1, toAccountId));
+        }
+    }
+
+    void reconcileRange(Run run, long fromAccountId, long toAccountId) {
+        Map<Long, long[]> states = new HashMap<>();
+        jdbcTemplate.query(
+                "select account_id, last_transaction_id, last_snapshot from reconciliation_account_state " +
+                        "where account_id between ? and ?",
+                rs -> {
+                    states.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3)});
+                },
+                fromAccountId, toAccountId);
+
+        // 잔액을 먼저 읽고 그 뒤에 구간 이후 거래가 있는지 본다. 순서가 반대면 그 사이 커밋된 거래를 놓친다.
+        Map<Long, Object[]> accounts = new HashMap<>();
+        jdbcTemplate.query(
+                "select id, account_number, balance from account where id between ? and ?",
+                rs -> {
+                    accounts.put(rs.getLong(1), new Object[]{rs.getString(2), rs.getLong(3)});
+                },
+                fromAccountId, toAccountId);
+        Set<Long> changedSince = new HashSet<>(jdbcTemplate.queryForList(
+                "select distinct account_id from transaction where account_id between ? and ? and id > ?",
+                Long.class, fromAccountId, toAccountId, run.to));
+
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        List<AccountChain> chains = new ArrayList<>();
+        AccountChain[] current = new AccountChain[1];
+        long[] scanned = new long[1];
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(TRANSACTIONS_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, fromAccountId);
+            statement.setLong(2, toAccountId);
+            statement.setLong(3, run.from);
+            statement.setLong(4, run.to);
+            return statement;
+        }, rs -> {
+            long accountId = rs.getLong(2);
+            if (current[0] == null || current[0].getAccountId() != accountId) {
+                finish(run, current[0], accounts, changedSince, mismatches, chains);
+                long[] state = states.get(accountId);
+                Object[] account = accounts.get(accountId);
+                current[0] = new AccountChain(accountId,
+                        account == null ? null : (String) account[0],
+                        state == null ? null : state[1],
+                        state == null ? 0L : state[0]);
+            }
+
+            long[] mismatch = current[0].accept(rs.getLong(1),
+                    TransactionType.valueOf(rs.getString(3)),
+                    TransactionResultType.valueOf(rs.getString(4)),
+                    rs.getLong(5), rs.getLong(6));
+            scanned[0]++;
+            if (mismatch != null) {
+                mismatches.add(mismatch(run, ReconciliationMismatchType.SNAPSHOT_CHAIN,
+                        current[0].getAccountNumber(), rs.getString(7), mismatch[0], mismatch[1]));
+                // 사슬이 통째로 어긋난 범위에서도 메모리가 커지지 않게 중간에 내보낸다.
+                if (mismatches.size() >= mismatchFlushSize) {
+                    saveMismatches(mismatches);
+                }
+            }
+        });
+        finish(run, current[0], accounts, changedSince, mismatches, chains);
+
+        // 남은 불일치와 계좌 상태를 같이 커밋한다. 계좌 상태가 앞서 나가야 다시 돌 때 같은 거래를 또 검증하지 않는다.
+        transactionTemplate.executeWithoutResult(status -> {
+            saveMismatches(mismatches);
+            saveStates(chains);
+        });
+        run.transactions.addAndGet(scanned[0]);
+        scannedTransactions.increment(scanned[0]);
+    }
+
+    private void finish(Run run, AccountChain chain, Map<Long, Object[]> accounts, Set<Long> changedSince,
+                        List<ReconciliationMismatch> mismatches, List<AccountChain> chains) {
+        if (chain == null || !chain.isAdvanced()) {
+            return;
+        }
+        chains.add(chain);
+        run.accounts.incrementAndGet();
+
+        Object[] account = accounts.get(chain.getAccountId());
+        // 구간 이후 거래가 있으면 읽은 잔액이 마지막 스냅샷보다 앞서 있을 수 있다. 다음 실행에서 본다.
+        if (account == null || changedSince.contains(chain.getAccountId())) {
+            return;
+        }
+        long balance = (Long) account[1];
+        if (!chain.balanceMatches(balance)) {
+            mismatches.add(mismatch(run, ReconciliationMismatchType.BALANCE,
+                    chain.getAccountNumber(), null, chain.getLastSnapshot(), balance));
+        }
+    }
+
+    private ReconciliationMismatch mismatch(Run run, ReconciliationMismatchType type, String accountNumber,
+                                            String transactionId, long expected, long actual) {
+        run.mismatches.incrementAndGet();
+        mismatchCounter.increment();
+        return ReconciliationMismatch.builder()
+                .runId(run.runId)
+                .mismatchType(type)
+                .accountNumber(accountNumber)
+                .transactionId(transactionId)
+                .expected(expected)
+                .actual(actual)
+                .detectedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void saveMismatches(List<ReconciliationMismatch> mismatches) {
+        if (mismatches.isEmpty()) {
+            return;
+        }
+        mismatchRepository.saveAll(mismatches);
+        mismatches.clear();
+    }
+
+    private void saveStates(List<AccountChain> chains) {
+        if (chains.isEmpty()) {
+            return;
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(
+                "update reconciliation_account_state set last_transaction_id = ?, last_snapshot = ? " +
+                        "where account_id = ?",
+                chains, chains.size(), (ps, chain) -> {
+                    ps.setLong(1, chain.getLastTransactionId());
+                    ps.setLong(2, chain.getLastSnapshot());
+                    ps.setLong(3, chain.getAccountId());
+                });
+
+        List<AccountChain> inserts = new ArrayList<>();
+        for (int i = 0; i < chains.size(); i++) {
+            if (updated[0][i] == 0) {
+                inserts.add(chains.get(i));
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into reconciliation_account_state (account_id, last_transaction_id, last_snapshot) " +
+                        "values (?, ?, ?)",
+                inserts, inserts.size(), (ps, chain) -> {
+                    ps.setLong(1, chain.getAccountId());
+                    ps.setLong(2, chain.getLastTransactionId());
+                    ps.setLong(3, chain.getLastSnapshot());
+                });
+    }
+
+    static class Run {
+        final String runId;
+        // 샤딩하지 않으면 null
+        final Integer shard;
+        final long from;
+        final long to;
+        final AtomicLong transactions = new AtomicLong();
+        final AtomicLong accounts = new AtomicLong();
+        final AtomicLong mismatches = new AtomicLong();
+
+        Run(String runId, Integer shard, long from, long to) {
+            this.runId = runId;
+            this.shard = shard;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.account.reconciliation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReconciliationResult {
+    private final String runId;
+    private final int shard;
+    // (fromTransactionId, toTransactionId] 구간을 검증했다.
+    private final long fromTransactionId;
+    private final long toTransactionId;
+    private final long transactions;
+    private final long accounts;
+    private final long mismatches;
+}
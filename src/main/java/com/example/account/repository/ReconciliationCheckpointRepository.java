@@ -0,0 +1,9 @@
+package com.example.account.repository;
+
+import com.example.account.domain.ReconciliationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpoint, Integer> {
+}
@@ -0,0 +1,23 @@
+package com.example.account.repository;
+
+import com.example.account.domain.TransactionArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchive, Long> {
+    Optional<TransactionArchive> findByTransactionId(String transactionId);
+
+    Optional<TransactionArchive> findFirstByTransactedAtBeforeOrderByTransactedAtAsc(LocalDateTime transactedAt);
+
+    // 콜드 파일 내보내기용. 계좌를 함께 읽어 건마다 계좌 조회가 나가지 않도록 한다.
+    @EntityGraph(attributePaths = "account")
+    Slice<TransactionArchive> findByTransactedAtGreaterThanEqualAndTransactedAtLessThan(
+            LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
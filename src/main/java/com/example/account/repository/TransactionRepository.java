@@ -1,12 +1,23 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Transaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    Optional<Transaction> findFirstByTransactedAtBeforeOrderByTransactedAtAsc(LocalDateTime transactedAt);
+
+    // 보관 배치용. 계좌를 함께 읽어 건마다 계좌 조회가 나가지 않도록 한다.
+    @EntityGraph(attributePaths = "account")
+    List<Transaction> findByTransactedAtGreaterThanEqualAndTransactedAtLessThanOrderByIdAsc(
+            LocalDateTime from, LocalDateTime to, Pageable pageable);
 }
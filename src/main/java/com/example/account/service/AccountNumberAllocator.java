@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 계좌번호를 0번 샤드의 시퀀스 하나에서 받는다. 샤드마다 가장 큰 번호 + 1 을 쓰면 동시에 만든 계좌가
+ * 같은 번호를 받고, 번호가 다른 샤드로 가면 유니크 제약으로도 막히지 않는다.
+ * 시퀀스는 처음 쓸 때 모든 샤드에서 가장 최근 계좌번호 다음부터 시작하도록 만든다.
+ */
+@Component
+public class AccountNumberAllocator {
+    static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    // 시퀀스 생성은 여러 번 해도 같으므로 락 없이 플래그만 둔다.
+    private volatile boolean sequenceCreated;
+
+    public AccountNumberAllocator(DataSource dataSource,
+                                  AccountRepository accountRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 호출한 트랜잭션은 아직 계좌번호의 샤드를 정하지 않았으므로 그 커넥션을 쓰지 않는다.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String next() {
+        if (!sequenceCreated) {
+            createSequence();
+        }
+        return String.valueOf(onFirstShard(() ->
+                jdbcTemplate.queryForObject("select next value for account_number_seq", Long.class)));
+    }
+
+    private void createSequence() {
+        long start = ShardRouting.fanOut(() -> accountRepository.findFirstByOrderByIdDesc()
+                        .map(List::of)
+                        .orElse(List.<Account>of()))
+                .stream()
+                .mapToLong(account -> Long.parseLong(account.getAccountNumber()) + 1)
+                .max()
+                .orElse(FIRST_ACCOUNT_NUMBER);
+        onFirstShard(() -> {
+            jdbcTemplate.execute("create sequence if not exists account_number_seq start with " + start);
+            return null;
+        });
+        sequenceCreated = true;
+    }
+
+    private <T> T onFirstShard(Supplier<T> supplier) {
+        return ShardRouting.onShard(0, () -> transactionTemplate.execute(status -> supplier.get()));
+    }
+}
@@ -2,16 +2,19 @@ package com.example.account.service;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.dto.AccountDto;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.warmup.WarmupRunner;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,16 +24,19 @@ import java.util.stream.Collectors;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
+        // 샤드는 계좌번호로 정해지므로 번호를 먼저 만든 뒤 첫 쿼리를 보낸다.
+        String accountNumber = accountNumberAllocator.next();
+        ShardRouting.useNew(accountNumber);
+
         AccountUser accountUser = getAccountUser(userId);
 
         validateCreateAccount(accountUser);
-
-        String accountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
+        ReplicaRouting.markWritten(ReplicaRouting.userKey(userId));
 
         return AccountDto.fromEntity(
                 accountRepository.save(
@@ -47,21 +53,26 @@ public class AccountService {
 
     private AccountUser getAccountUser(Long userId) {
         AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.USER_NOT_FOUND));
         return accountUser;
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
-        if (accountRepository.countByAccountUser(accountUser) == 10) {
-            throw new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_10);
+        int accountCount = ShardRouting.fanOut(() -> List.of(accountRepository.countByAccountUser(accountUser)))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (accountCount == 10) {
+            throw AccountException.of(ErrorCode.MAX_ACCOUNT_PER_USER_10);
         }
     }
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
+        ShardRouting.use(accountNumber);
         AccountUser accountUser = getAccountUser(userId);
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         validateDeleteAccount(account, accountUser);
 
@@ -69,21 +80,25 @@ public class AccountService {
         account.setUnregisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        if (!WarmupRunner.isWarmupUser(accountUser.getId())) {
+            outboxEventRepository.save(OutboxEvent.accountUnregistered(account));
+        }
+        ReplicaRouting.markWritten(ReplicaRouting.userKey(userId));
 
         return AccountDto.fromEntity(account);
     }
 
     private void validateDeleteAccount(Account account, AccountUser accountUser) {
         if (accountUser.getId() != account.getAccountUser().getId()) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCH);
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UNMATCH);
         }
 
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
 
         if (account.getBalance() != 0) {
-            throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
+            throw AccountException.of(ErrorCode.BALANCE_NOT_EMPTY);
         }
     }
 
@@ -95,10 +110,14 @@ public class AccountService {
         return accountRepository.findById(id).get();
     }
 
+    // 복제 DB 에서 읽는다. 이 인스턴스에서 방금 바뀐 사용자의 계좌는 primary 에서 읽는다.
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountByUserId(Long userId) {
+        ReplicaRouting.usePrimaryIfRecentlyWritten(ReplicaRouting.userKey(userId));
         AccountUser accountUser = getAccountUser(userId);
 
-        List<Account> accountList = accountRepository.findByAccountUser(accountUser);
+        // 사용자의 계좌는 여러 샤드에 흩어져 있다.
+        List<Account> accountList = ShardRouting.fanOut(() -> accountRepository.findByAccountUser(accountUser));
 
         return accountList.stream().map(account -> AccountDto.fromEntity(account)).collect(Collectors.toList());
     }
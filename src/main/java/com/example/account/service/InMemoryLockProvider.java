@@ -0,0 +1,168 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * JVM 안에서만 유효한 계좌 락. 인스턴스가 하나인 배포와 테스트에서 Redis 없이 사용한다.
+ * 대기자는 스레드를 점유하지 않고 큐에 쌓였다가 해제나 lease 만료 시 순서대로 락을 넘겨받는다.
+ */
+@Slf4j
+public class InMemoryLockProvider implements LockProvider {
+    private final Map<String, KeyLock> locks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "in-memory-lock-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public boolean tryLock(String key, long waitMillis, long leaseMillis) throws InterruptedException {
+        CompletableFuture<Boolean> future = tryLockAsync(key, Thread.currentThread().getId(), waitMillis, leaseMillis);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // 대기를 취소해 나중에 락이 넘어오지 않도록 한다.
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new LockProviderException("In-memory lock failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void unlock(String key) {
+        release(key, Thread.currentThread().getId());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(String key, long ownerId, long waitMillis, long leaseMillis) {
+        while (true) {
+            KeyLock keyLock = locks.computeIfAbsent(key, k -> new KeyLock());
+            synchronized (keyLock) {
+                if (keyLock.removed) {
+                    continue;
+                }
+
+                long now = System.currentTimeMillis();
+                if (keyLock.isFree(now)) {
+                    keyLock.acquire(ownerId, now + leaseMillis);
+                    return CompletableFuture.completedFuture(true);
+                }
+                if (waitMillis <= 0) {
+                    return CompletableFuture.completedFuture(false);
+                }
+
+                Waiter waiter = new Waiter(ownerId, leaseMillis);
+                keyLock.waiters.addLast(waiter);
+                timer.schedule(() -> expireWaiter(key, keyLock, waiter), waitMillis, TimeUnit.MILLISECONDS);
+                timer.schedule(() -> handOff(key, keyLock), keyLock.expiresAt - now, TimeUnit.MILLISECONDS);
+                return waiter.future;
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> unlockAsync(String key, long ownerId) {
+        release(key, ownerId);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void release(String key, long ownerId) {
+        KeyLock keyLock = locks.get(key);
+        if (keyLock == null) {
+            log.debug("lock {} was not held by {}, skipping", key, ownerId);
+            return;
+        }
+
+        synchronized (keyLock) {
+            if (keyLock.ownerId == null || keyLock.ownerId != ownerId) {
+                // lease 가 지나 다른 소유자에게 넘어간 락. 지금 소유자의 락은 건드리지 않는다.
+                log.debug("lock {} was not held by {}, skipping", key, ownerId);
+                return;
+            }
+            keyLock.release();
+        }
+        handOff(key, keyLock);
+    }
+
+    // 락이 비었으면 가장 오래 기다린 대기자에게 넘긴다. 대기자가 없으면 맵에서 지운다.
+    private void handOff(String key, KeyLock keyLock) {
+        Waiter next = null;
+        synchronized (keyLock) {
+            long now = System.currentTimeMillis();
+            if (!keyLock.isFree(now)) {
+                return;
+            }
+            while (!keyLock.waiters.isEmpty()) {
+                Waiter waiter = keyLock.waiters.pollFirst();
+                if (!waiter.future.isDone()) {
+                    keyLock.acquire(waiter.ownerId, now + waiter.leaseMillis);
+                    next = waiter;
+                    break;
+                }
+            }
+            if (next == null) {
+                keyLock.release();
+                keyLock.removed = true;
+                locks.remove(key, keyLock);
+            } else {
+                timer.schedule(() -> handOff(key, keyLock), next.leaseMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (next != null && !next.future.complete(true)) {
+            // 대기자가 이미 취소된 경우. 넘겨준 락을 회수하고 다음 대기자에게 넘긴다.
+            synchronized (keyLock) {
+                if (keyLock.ownerId != null && keyLock.ownerId == next.ownerId) {
+                    keyLock.release();
+                }
+            }
+            handOff(key, keyLock);
+        }
+    }
+
+    private void expireWaiter(String key, KeyLock keyLock, Waiter waiter) {
+        synchronized (keyLock) {
+            if (!keyLock.waiters.remove(waiter)) {
+                return;
+            }
+        }
+        waiter.future.complete(false);
+    }
+
+    private static class KeyLock {
+        private Long ownerId;
+        private long expiresAt;
+        private boolean removed;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+        private boolean isFree(long now) {
+            return ownerId == null || expiresAt <= now;
+        }
+
+        private void acquire(long ownerId, long expiresAt) {
+            this.ownerId = ownerId;
+            this.expiresAt = expiresAt;
+        }
+
+        private void release() {
+            this.ownerId = null;
+            this.expiresAt = 0L;
+        }
+    }
+
+    private static class Waiter {
+        private final long ownerId;
+        private final long leaseMillis;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private Waiter(long ownerId, long leaseMillis) {
+            this.ownerId = ownerId;
+            this.leaseMillis = leaseMillis;
+        }
+    }
+}
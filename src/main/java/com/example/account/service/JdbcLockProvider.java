@@ -0,0 +1,144 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * 계좌 락을 DB 테이블의 행으로 표현한다. 별도 락 서버 없이 여러 인스턴스가 같은 DB 를 공유할 때 사용한다.
+ * 키마다 행 하나를 두고 owner, expires_at 을 조건부 update 로 바꿔 락을 잡는다. lease 가 지난 행은 다른 소유자가 가져간다.
+ * <p>
+ * DB advisory lock(pg_advisory_lock, GET_LOCK)은 쓰지 않는다. 세션에 묶여 있어 잡은 커넥션으로만 풀 수 있는데,
+ * 비동기 경로는 락을 잡는 스레드와 푸는 스레드가 다르고 그 사이 커넥션을 쥐고 있을 수 없다.
+ * lease 로 풀리는 동작도 없고, 로컬과 테스트에서 쓰는 H2 에는 해당 함수가 없다.
+ */
+@Slf4j
+public class JdbcLockProvider implements LockProvider {
+    // 경합 중 재시도 간격. 처음에는 짧게, 실패할수록 최대값까지 늘리고 지터를 준다.
+    static final long MIN_BACKOFF_MILLIS = 5L;
+    static final long MAX_BACKOFF_MILLIS = 200L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService poller;
+    // 같은 스레드 id 가 다른 인스턴스에도 있으므로 인스턴스 id 를 붙여 소유자를 구분한다.
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public JdbcLockProvider(JdbcTemplate jdbcTemplate, int pollerThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.poller = Executors.newScheduledThreadPool(pollerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-lock-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        jdbcTemplate.execute("create table if not exists account_lock ("
+                + "lock_key varchar(64) primary key, "
+                + "owner varchar(64) not null, "
+                + "expires_at bigint not null)");
+    }
+
+    @Override
+    public boolean tryLock(String key, long waitMillis, long leaseMillis) throws InterruptedException {
+        String owner = owner(Thread.currentThread().getId());
+        long deadline = System.currentTimeMillis() + waitMillis;
+        for (int attempt = 0; ; attempt++) {
+            if (acquire(key, owner, leaseMillis)) {
+                return true;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            Thread.sleep(Math.min(remaining, backoff(attempt)));
+        }
+    }
+
+    @Override
+    public void unlock(String key) {
+        release(key, owner(Thread.currentThread().getId()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(String key, long ownerId, long waitMillis, long leaseMillis) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        long deadline = System.currentTimeMillis() + waitMillis;
+        poller.execute(() -> attempt(future, key, owner(ownerId), leaseMillis, deadline, 0));
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> unlockAsync(String key, long ownerId) {
+        return CompletableFuture.runAsync(() -> release(key, owner(ownerId)), poller);
+    }
+
+    private void attempt(CompletableFuture<Boolean> future, String key, String owner, long leaseMillis,
+                         long deadline, int attempt) {
+        try {
+            if (acquire(key, owner, leaseMillis)) {
+                future.complete(true);
+                return;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                future.complete(false);
+            } else {
+                poller.schedule(() -> attempt(future, key, owner, leaseMillis, deadline, attempt + 1),
+                        Math.min(remaining, backoff(attempt)), TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    static long backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, MIN_BACKOFF_MILLIS << Math.min(attempt, 6));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    // 행은 풀어도 지우지 않으므로 경합 중에는 update 가 0 건을 돌려줄 뿐 예외가 나지 않는다.
+    // 처음 잠그는 키만 행을 넣고, 그 insert 가 동시에 겹친 경우에만 중복 키 예외를 본다.
+    private boolean acquire(String key, String owner, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        try {
+            if (jdbcTemplate.update(
+                    "update account_lock set owner = ?, expires_at = ? where lock_key = ? and expires_at < ?",
+                    owner, now + leaseMillis, key, now) == 1) {
+                return true;
+            }
+            if (jdbcTemplate.queryForObject(
+                    "select count(*) from account_lock where lock_key = ?", Integer.class, key) > 0) {
+                return false;
+            }
+            try {
+                jdbcTemplate.update("insert into account_lock (lock_key, owner, expires_at) values (?, ?, ?)",
+                        key, owner, now + leaseMillis);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        } catch (DataAccessException e) {
+            throw new LockProviderException("JDBC lock failed", e);
+        }
+    }
+
+    private void release(String key, String owner) {
+        int released;
+        try {
+            released = jdbcTemplate.update(
+                    "update account_lock set owner = '', expires_at = 0 where lock_key = ? and owner = ?", key, owner);
+        } catch (DataAccessException e) {
+            throw new LockProviderException("JDBC unlock failed", e);
+        }
+        if (released == 0) {
+            // lease 가 지나 다른 소유자가 가져갔거나 이미 풀린 락. 거래는 끝났으므로 실패로 만들지 않는다.
+            log.debug("lock {} was not held by {}, skipping", key, owner);
+        }
+    }
+
+    private String owner(long ownerId) {
+        return instanceId + ":" + ownerId;
+    }
+}
@@ -1,29 +1,155 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.jfr.LockAcquireEvent;
+import com.example.account.jfr.LockReleaseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
 @Aspect
 @Component
 @Slf4j
+@Order(LockAopAspect.ORDER)
 @RequiredArgsConstructor
 public class LockAopAspect {
+    public static final int ORDER = 100;
+
+    private static final String LOCK_WAIT_METRIC = "account.lock.wait";
+    private static final String LOCK_HOLD_METRIC = "account.lock.hold";
+
     private final LockService lockService;
+    private final ThreadPoolTaskExecutor transactionExecutor;
+    private final MeterRegistry meterRegistry;
 
     // 여기서 request는 AccountLock Annotation이 걸린 Method의 Argument이름.
     @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
     public Object aroundMethod(ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        String endpoint = signature.getName();
+        if (CompletionStage.class.isAssignableFrom(signature.getReturnType())) {
+            return aroundAsyncMethod(pjp, request, endpoint, signature.getMethod().getAnnotation(AccountLock.class));
+        }
+
         String accountNumber = request.getAccountNumber();
-        lockService.lock(accountNumber);
+        Timer.Sample waitSample = Timer.start(meterRegistry);
+        LockAcquireEvent acquireEvent = new LockAcquireEvent();
+        acquireEvent.begin();
+        boolean distributed;
+        try {
+            distributed = lockService.lock(accountNumber);
+        } catch (RuntimeException e) {
+            waitSample.stop(lockTimer(LOCK_WAIT_METRIC, endpoint, "failed"));
+            acquireEvent.commit(accountNumber, endpoint);
+            throw e;
+        }
+        waitSample.stop(lockTimer(LOCK_WAIT_METRIC, endpoint, distributed ? "acquired" : "fallback"));
+        acquireEvent.commit(accountNumber, endpoint);
+
+        // Redis 장애 중에는 분산 락 없이 진행한다. TransactionService 가 계좌 행 락으로 직렬화한다.
+        if (!distributed) {
+            fallbackCounter(endpoint).increment();
+            return pjp.proceed();
+        }
+
+        Timer.Sample holdSample = Timer.start(meterRegistry);
         try {
             return pjp.proceed();
         } finally {
+            LockReleaseEvent releaseEvent = new LockReleaseEvent();
+            releaseEvent.begin();
             lockService.unlock(accountNumber);
+            releaseEvent.commit(accountNumber, endpoint);
+            holdSample.stop(lockTimer(LOCK_HOLD_METRIC, endpoint, "released"));
+        }
+    }
+
+    // 락 대기 중에는 어떤 스레드도 점유하지 않고, 락을 얻으면 transactionExecutor 에서 본 로직을 실행한다.
+    private CompletableFuture<Object> aroundAsyncMethod(
+            ProceedingJoinPoint pjp, AccountLockIdInterface request, String endpoint, AccountLock accountLock) {
+        String accountNumber = request.getAccountNumber();
+        Timer.Sample waitSample = Timer.start(meterRegistry);
+        LockAcquireEvent acquireEvent = new LockAcquireEvent();
+        acquireEvent.begin();
+
+        return lockService.lockAsync(accountNumber, accountLock.tryLockTime())
+                .whenComplete((ownerId, throwable) -> {
+                    waitSample.stop(lockTimer(LOCK_WAIT_METRIC, endpoint, throwable != null ? "failed"
+                            : LockService.isDegraded(ownerId) ? "fallback" : "acquired"));
+                    acquireEvent.commit(accountNumber, endpoint);
+                })
+                .thenCompose(ownerId -> proceedLocked(pjp, accountNumber, endpoint, ownerId));
+    }
+
+    private CompletableFuture<Object> proceedLocked(
+            ProceedingJoinPoint pjp, String accountNumber, String endpoint, long ownerId) {
+        boolean degraded = LockService.isDegraded(ownerId);
+        if (degraded) {
+            fallbackCounter(endpoint).increment();
+        }
+
+        Timer.Sample holdSample = Timer.start(meterRegistry);
+        CompletableFuture<Object> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> proceedAsync(pjp), transactionExecutor)
+                    .thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        if (degraded) {
+            return result;
+        }
+
+        return result.whenComplete((value, throwable) -> {
+            LockReleaseEvent releaseEvent = new LockReleaseEvent();
+            releaseEvent.begin();
+            lockService.unlockAsync(accountNumber, ownerId)
+                    .whenComplete((unlocked, unlockFailure) -> {
+                        releaseEvent.commit(accountNumber, endpoint);
+                        holdSample.stop(lockTimer(LOCK_HOLD_METRIC, endpoint, unlockFailure == null ? "released" : "unlock_failed"));
+                        if (unlockFailure != null) {
+                            log.error("Failed to unlock accountNumber : {}", accountNumber, unlockFailure);
+                        }
+                    });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> proceedAsync(ProceedingJoinPoint pjp) {
+        try {
+            return ((CompletionStage<Object>) pjp.proceed()).toCompletableFuture();
+        } catch (Throwable throwable) {
+            return CompletableFuture.failedFuture(throwable);
         }
     }
+
+    // 계좌번호는 태그로 쓰지 않는다. endpoint 와 result 만으로 카디널리티를 제한.
+    private Timer lockTimer(String name, String endpoint, String result) {
+        return Timer.builder(name)
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter fallbackCounter(String endpoint) {
+        return Counter.builder("account.lock.fallback")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
 }
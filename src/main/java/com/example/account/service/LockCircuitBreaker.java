@@ -0,0 +1,68 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Redis 락 호출을 감싸는 서킷 브레이커.
+ * 연속 실패가 failureThreshold 에 이르면 openMillis 동안 Redis 를 호출하지 않고,
+ * 그 뒤 한 건만 시험 삼아 통과시켜 성공하면 닫는다.
+ * 시험 요청이 성공/실패를 남기지 못하고 끝나면(인터럽트 등) abandonTrial 로 되돌려 다음 요청이 다시 시험한다.
+ */
+@Slf4j
+public class LockCircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public LockCircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Lock circuit closed");
+        }
+    }
+
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            consecutiveFailures.set(0);
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                log.warn("Lock circuit opened. Falling back to row locks for {} ms", openMillis);
+            }
+        }
+    }
+
+    // 시험 요청이 결과 없이 끝났을 때 호출한다. openedAt 은 그대로 두어 다음 요청이 바로 시험할 수 있다.
+    public void abandonTrial() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    public boolean isOpen() {
+        return state.get() != State.CLOSED;
+    }
+}
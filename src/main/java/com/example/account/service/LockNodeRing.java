@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import org.redisson.api.RedissonClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 계좌 락 키를 여러 Redis 노드에 일관된 해싱으로 나눈다.
+ *
+ * 링은 설정된 노드 목록 전체로 한 번에 만들므로 같은 설정의 인스턴스는 같은 노드를 고른다.
+ * 노드 목록을 바꾸는 배포 동안에는 이전 목록을 previousNodes 로 함께 주면 두 배치의 소유 노드를 모두 잠근다.
+ * 이전 목록만 아는 인스턴스와 새 목록만 아는 인스턴스가 섞여 있어도 이전 소유 노드에서 서로 막힌다.
+ */
+public class LockNodeRing {
+    private final NavigableMap<Long, LockNode> ring;
+    private final NavigableMap<Long, LockNode> previousRing;
+
+    public LockNodeRing(int virtualNodes, Map<String, RedissonClient> nodes) {
+        this(virtualNodes, nodes, Map.of());
+    }
+
+    public LockNodeRing(int virtualNodes, Map<String, RedissonClient> nodes, Map<String, RedissonClient> previousNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("No lock node is registered");
+        }
+        this.ring = build(virtualNodes, nodes);
+        this.previousRing = previousNodes.isEmpty() ? null : build(virtualNodes, previousNodes);
+    }
+
+    private static NavigableMap<Long, LockNode> build(int virtualNodes, Map<String, RedissonClient> nodes) {
+        NavigableMap<Long, LockNode> ring = new TreeMap<>();
+        nodes.forEach((name, redissonClient) -> {
+            LockNode node = new LockNode(name, redissonClient);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(name + "#" + i), node);
+            }
+        });
+        return ring;
+    }
+
+    /**
+     * 키를 잠가야 하는 노드 목록. 평상시에는 하나, 노드 목록을 바꾸는 배포 중에는 최대 둘.
+     * 인스턴스가 떠 있는 동안 바뀌지 않으므로 잠글 때와 풀 때 같은 노드를 본다.
+     */
+    public List<RedissonClient> clientsFor(String key) {
+        long keyHash = hash(key);
+        LockNode owner = ownerOf(ring, keyHash);
+        if (previousRing != null) {
+            LockNode previousOwner = ownerOf(previousRing, keyHash);
+            if (previousOwner.redissonClient != owner.redissonClient) {
+                return List.of(owner.redissonClient, previousOwner.redissonClient);
+            }
+        }
+        return List.of(owner.redissonClient);
+    }
+
+    public String nodeNameFor(String key) {
+        return ownerOf(ring, hash(key)).name;
+    }
+
+    public Collection<RedissonClient> getClients() {
+        Set<RedissonClient> clients = new LinkedHashSet<>();
+        ring.values().forEach(node -> clients.add(node.redissonClient));
+        if (previousRing != null) {
+            previousRing.values().forEach(node -> clients.add(node.redissonClient));
+        }
+        return clients;
+    }
+
+    private static LockNode ownerOf(NavigableMap<Long, LockNode> ring, long keyHash) {
+        Map.Entry<Long, LockNode> entry = ring.ceilingEntry(keyHash);
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    // FNV-1a 64bit 후 비트 섞기. 연속된 계좌번호도 고르게 퍼진다.
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+
+    private static class LockNode {
+        private final String name;
+        private final RedissonClient redissonClient;
+
+        private LockNode(String name, RedissonClient redissonClient) {
+            this.name = name;
+            this.redissonClient = redissonClient;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.account.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 계좌 락 저장소. 동기 메서드는 호출 스레드가, 비동기 메서드는 ownerId 가 락을 소유한다.
+ * 저장소 자체의 장애는 LockProviderException 으로 알린다.
+ * 해제는 커밋 뒤나 스케줄 작업의 finally 에서 부르므로, lease 만료 등으로 이미 잃은 락을 풀면 예외 없이 돌아온다.
+ */
+public interface LockProvider {
+    boolean tryLock(String key, long waitMillis, long leaseMillis) throws InterruptedException;
+
+    void unlock(String key);
+
+    CompletableFuture<Boolean> tryLockAsync(String key, long ownerId, long waitMillis, long leaseMillis);
+
+    CompletableFuture<Void> unlockAsync(String key, long ownerId);
+}
@@ -0,0 +1,8 @@
+package com.example.account.service;
+
+// 락 저장소(Redis, DB)에 접근하지 못한 경우. 서킷 브레이커가 실패로 집계한다.
+public class LockProviderException extends RuntimeException {
+    public LockProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
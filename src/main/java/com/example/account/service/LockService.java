@@ -4,38 +4,131 @@ import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-    private final RedissonClient redissonClient;
+    private static final long LOCK_WAIT_SECONDS = 1L;
+    public static final long LOCK_LEASE_SECONDS = 15L;
+
+    // 락 저장소 장애로 락을 잡지 못해 행 락으로 대체해야 하는 경우의 소유자 id.
+    public static final long DEGRADED_OWNER_ID = 0L;
+
+    // 비동기 락은 스레드가 아닌 요청 단위로 소유된다. 실제 스레드 id(양수)와 겹치지 않도록 음수를 사용.
+    private static final AtomicLong LOCK_OWNER_SEQUENCE = new AtomicLong();
+
+    private final LockProvider lockProvider;
+    private final LockCircuitBreaker lockCircuitBreaker;
+
+    /**
+     * @return 락을 잡았으면 true, 락 저장소 장애로 행 락 대체가 필요하면 false
+     */
+    public boolean lock(String accountNumber) {
+        if (!lockCircuitBreaker.allowRequest()) {
+            log.debug("Lock circuit is open. accountNumber : {}", accountNumber);
+            return false;
+        }
 
-    public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+        boolean isLock;
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
-            if(!isLock) {
-                log.error("======Lock acquisition failed=====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
-            }
-        } catch(AccountException accountException) {
-            throw accountException;
-        } catch (Exception e) {
-            log.error("Redis lock failed");
+            isLock = lockProvider.tryLock(getLockKey(accountNumber),
+                    TimeUnit.SECONDS.toMillis(LOCK_WAIT_SECONDS), TimeUnit.SECONDS.toMillis(LOCK_LEASE_SECONDS));
+        } catch (InterruptedException e) {
+            // 락 저장소 상태와 무관하게 끝났으므로 시험 요청이었다면 결과 없이 돌려놓는다.
+            lockCircuitBreaker.abandonTrial();
+            Thread.currentThread().interrupt();
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (LockProviderException e) {
+            lockCircuitBreaker.recordFailure();
+            log.error("Lock provider failed", e);
+            return false;
+        } catch (RuntimeException e) {
+            lockCircuitBreaker.recordFailure();
+            throw e;
         }
+
+        lockCircuitBreaker.recordSuccess();
+        if(!isLock) {
+            log.debug("Lock acquisition failed. accountNumber : {}", accountNumber);
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        return true;
     }
 
     public void unlock(String accountNumber) {
         log.debug("unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        try {
+            lockProvider.unlock(getLockKey(accountNumber));
+        } catch (LockProviderException e) {
+            // 락은 lease 만료로 풀린다.
+            lockCircuitBreaker.recordFailure();
+            log.error("Lock provider unlock failed", e);
+        }
+    }
+
+    /**
+     * 호출 스레드를 막지 않고 락을 요청한다.
+     * 완료된 값은 unlockAsync 에 넘겨야 하는 소유자 id 이며, 대기 시간 안에 얻지 못하면
+     * ACCOUNT_TRANSACTION_LOCK 으로 실패한다. 락 저장소 장애 시에는 DEGRADED_OWNER_ID 로 완료된다.
+     * LockAopAspect 가 비동기 서블릿 경로에서 쓴다. 리액티브 구현(reactive 모듈)은 Redisson reactive 락을 직접 쓴다.
+     */
+    public CompletableFuture<Long> lockAsync(String accountNumber, long waitMillis) {
+        if (!lockCircuitBreaker.allowRequest()) {
+            log.debug("Lock circuit is open. accountNumber : {}", accountNumber);
+            return CompletableFuture.completedFuture(DEGRADED_OWNER_ID);
+        }
+
+        long ownerId = -LOCK_OWNER_SEQUENCE.incrementAndGet();
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+        CompletableFuture<Boolean> tryLock;
+        try {
+            tryLock = lockProvider.tryLockAsync(getLockKey(accountNumber), ownerId, waitMillis,
+                    TimeUnit.SECONDS.toMillis(LOCK_LEASE_SECONDS));
+        } catch (RuntimeException e) {
+            tryLock = CompletableFuture.failedFuture(e);
+        }
+
+        return tryLock
+                .handle((isLock, throwable) -> {
+                    if (throwable != null) {
+                        lockCircuitBreaker.recordFailure();
+                        log.error("Lock provider failed", throwable);
+                        return DEGRADED_OWNER_ID;
+                    }
+
+                    lockCircuitBreaker.recordSuccess();
+                    if (!isLock) {
+                        log.debug("Lock acquisition failed. accountNumber : {}", accountNumber);
+                        throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    return ownerId;
+                });
+    }
+
+    public CompletableFuture<Void> unlockAsync(String accountNumber, long ownerId) {
+        log.debug("async unlock for accountNumber : {}", accountNumber);
+        return lockProvider
+                .unlockAsync(getLockKey(accountNumber), ownerId)
+                .whenComplete((unlocked, throwable) -> {
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    if (cause instanceof LockProviderException) {
+                        lockCircuitBreaker.recordFailure();
+                    }
+                });
+    }
+
+    public static boolean isDegraded(long ownerId) {
+        return ownerId == DEGRADED_OWNER_ID;
     }
 
     private static String getLockKey(String accountNumber) {
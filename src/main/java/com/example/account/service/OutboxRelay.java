@@ -0,0 +1,196 @@
+package com.example.account.service;
+
+import com.example.account.domain.OutboxEvent;
+import com.example.account.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 아웃박스 이벤트를 id 순서로 읽어 계좌번호 해시로 나눈 Redis Stream(account-events:N)에 배치로 넣고 지운다.
+ * 넣은 뒤 지우므로 적어도 한 번 전달되며, 소비자는 eventId 로 중복을 거른다.
+ * 한 계좌의 거래는 계좌 락으로 직렬화되어 id 순서가 곧 커밋 순서이고, 같은 스트림에 들어가므로 계좌별 순서가 유지된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+    // 여러 인스턴스 중 한 곳에서만 옮겨야 순서가 유지된다.
+    static final String LOCK_KEY = "ACLK:outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<RedissonClient> redissonClientProvider;
+    private final LockProvider lockProvider;
+    private final Counter relayedEvents;
+    private final Counter relayFailures;
+    private final Set<String> preparedStreams = ConcurrentHashMap.newKeySet();
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.lock-lease:PT1M}")
+    private Duration lockLease;
+
+    @Value("${outbox.stream.prefix:account-events}")
+    private String streamPrefix;
+
+    @Value("${outbox.stream.partitions:16}")
+    private int partitions;
+
+    // 스트림마다 대략 이 길이를 넘으면 오래된 항목부터 잘라낸다.
+    @Value("${outbox.stream.max-len:1000000}")
+    private int maxLen;
+
+    // 스트림을 처음 쓸 때 만드는 소비자 그룹. 처음부터 읽도록 만든다.
+    @Value("${outbox.stream.groups:}")
+    private List<String> groups;
+
+    private volatile boolean warnedNoRedis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<RedissonClient> redissonClientProvider,
+                       LockProvider lockProvider,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.redissonClientProvider = redissonClientProvider;
+        this.lockProvider = lockProvider;
+        this.relayedEvents = Counter.builder("outbox.relay.events")
+                .description("Redis Stream 으로 옮긴 아웃박스 이벤트 수")
+                .register(meterRegistry);
+        this.relayFailures = Counter.builder("outbox.relay.failures")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT0.2S}")
+    public void run() {
+        RedissonClient redissonClient = redissonClientProvider.getIfAvailable();
+        if (redissonClient == null) {
+            if (!warnedNoRedis) {
+                warnedNoRedis = true;
+                log.warn("outbox relay needs Redis (lock.provider=redisson), events stay in the outbox table");
+            }
+            return;
+        }
+
+        try {
+            if (!lockProvider.tryLock(LOCK_KEY, 0, lockLease.toMillis())) {
+                return;
+            }
+        } catch (LockProviderException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            ShardRouting.forEachShard(() -> relay(redissonClient));
+        } catch (RedisException e) {
+            // 지우지 않은 이벤트는 다음 실행에서 다시 보낸다.
+            relayFailures.increment();
+            log.warn("outbox relay failed, will retry", e);
+        } finally {
+            lockProvider.unlock(LOCK_KEY);
+        }
+    }
+
+    int relay(RedissonClient redissonClient) {
+        int relayed = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                break;
+            }
+
+            publish(redissonClient, events);
+            outboxEventRepository.deleteAllByIdInBatch(events.stream()
+                    .map(OutboxEvent::getId)
+                    .collect(Collectors.toList()));
+            relayedEvents.increment(events.size());
+            relayed += events.size();
+
+            if (events.size() < batchSize) {
+                break;
+            }
+        }
+        return relayed;
+    }
+
+    // 한 번의 파이프라인으로 보낸다. 같은 연결에서 순서대로 실행되므로 스트림 안의 순서는 id 순서다.
+    private void publish(RedissonClient redissonClient, List<OutboxEvent> events) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        for (OutboxEvent event : events) {
+            String stream = streamName(event.getAccountNumber());
+            prepareStream(redissonClient, stream);
+            batch.<String, String>getStream(stream, StringCodec.INSTANCE)
+                    .addAsync(StreamAddArgs.entries(fields(event)).trimNonStrict().maxLen(maxLen).noLimit());
+        }
+        batch.execute();
+    }
+
+    String streamName(String accountNumber) {
+        return streamPrefix + ":" + Math.floorMod(accountNumber.hashCode(), partitions);
+    }
+
+    private void prepareStream(RedissonClient redissonClient, String stream) {
+        if (preparedStreams.contains(stream)) {
+            return;
+        }
+        for (String group : groups) {
+            try {
+                redissonClient.getStream(stream, StringCodec.INSTANCE).createGroup(group.trim(), StreamMessageId.ALL);
+            } catch (RedisException e) {
+                if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                    throw e;
+                }
+            }
+        }
+        preparedStreams.add(stream);
+    }
+
+    private static Map<String, String> fields(OutboxEvent event) {
+        Integer shard = ShardRouting.currentShard();
+        Map<String, String> fields = new LinkedHashMap<>();
+        // id 는 샤드마다 따로 증가하므로 샤드 번호를 붙인다.
+        fields.put("eventId", (shard == null ? 0 : shard) + "-" + event.getId());
+        fields.put("eventType", event.getEventType().name());
+        fields.put("accountNumber", event.getAccountNumber());
+        putIfPresent(fields, "transactionId", event.getTransactionId());
+        putIfPresent(fields, "transactionType", event.getTransactionType());
+        putIfPresent(fields, "transactionResultType", event.getTransactionResultType());
+        putIfPresent(fields, "amount", event.getAmount());
+        putIfPresent(fields, "balanceSnapshot", event.getBalanceSnapshot());
+        putIfPresent(fields, "occurredAt", event.getOccurredAt());
+        return fields;
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name, value.toString());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.AccountUserIdInterface;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.warmup.WarmupRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자와 계좌별 요청 수를 제한한다. 락을 잡거나 실패 거래를 남기기 전에 거절하도록 LockAopAspect 보다 먼저 실행된다.
+ */
+@Aspect
+@Component
+@Slf4j
+@Order(RateLimitAspect.ORDER)
+@RequiredArgsConstructor
+public class RateLimitAspect {
+    public static final int ORDER = 50;
+
+    private final RateLimitService rateLimitService;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.user.permits-per-second:20}")
+    private long userPermitsPerSecond;
+
+    @Value("${rate-limit.account.permits-per-second:10}")
+    private long accountPermitsPerSecond;
+
+    @Around("@annotation(com.example.account.aop.RateLimited) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLockIdInterface request) throws Throwable {
+        // 워밍업 계좌는 제한 없이 최대한 빠르게 반복한다.
+        if (enabled && !WarmupRunner.isWarmupAccount(request.getAccountNumber())) {
+            if (request instanceof AccountUserIdInterface) {
+                Long userId = ((AccountUserIdInterface) request).getUserId();
+                check("user", "RLU:" + userId, userPermitsPerSecond);
+            }
+            check("account", "RLA:" + request.getAccountNumber(), accountPermitsPerSecond);
+        }
+        return pjp.proceed();
+    }
+
+    private void check(String scope, String key, long permitsPerSecond) {
+        if (!rateLimitService.tryAcquire(scope, key, permitsPerSecond)) {
+            log.debug("Rate limit exceeded. key : {}", key);
+            throw AccountException.of(ErrorCode.RATE_LIMIT_EXCEEDED);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 키별 초당 허용량을 넘는 요청을 거절한다.
+ * Redis 가 있으면 Redisson RRateLimiter 로 모든 인스턴스의 합계를 원자적으로 제한하고,
+ * 여유가 있을 때는 여러 건을 한 번에 예약해 다음 요청부터는 Redis 왕복 없이 로컬에서 허용한다.
+ * Redis 가 없는 배포(lock.provider=in-memory, jdbc)에서는 인스턴스별 토큰 버킷으로 제한한다.
+ * Redis 의 제한기 키에는 만료 시간을 두어 더 쓰지 않는 계좌/사용자의 키가 쌓이지 않게 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObjectProvider<RedissonClient> redissonClientProvider;
+    private final MeterRegistry meterRegistry;
+
+    // 키별 예약 허용량, 토큰 버킷, Redis 제한기 설정 여부. 함께 정리되도록 한 곳에 둔다.
+    private final Map<String, LocalPermits> localPermits = new ConcurrentHashMap<>();
+
+    // 한 번에 예약할 허용량의 비율. 0.2 면 초당 10건 제한에서 2건씩 예약한다.
+    @Value("${rate-limit.reservation-ratio:0.2}")
+    private double reservationRatio;
+
+    // 로컬 상태를 유지할 최대 키 수. 넘으면 다 쓴 키를 정리한다.
+    @Value("${rate-limit.max-local-keys:10000}")
+    private int maxLocalKeys;
+
+    // Redis 제한기 키의 만료 시간. 쓰는 동안에는 절반이 지날 때마다 다시 늘린다.
+    @Value("${rate-limit.key-ttl:10m}")
+    private Duration keyTtl;
+
+    public boolean tryAcquire(String scope, String key, long permitsPerSecond) {
+        long now = System.nanoTime();
+        if (localPermits.size() > maxLocalKeys) {
+            localPermits.values().removeIf(permits -> permits.isIdle(now));
+        }
+        LocalPermits permits = localPermits.computeIfAbsent(key, k -> new LocalPermits(permitsPerSecond, now));
+
+        RedissonClient redissonClient = redissonClientProvider.getIfAvailable();
+        if (redissonClient == null) {
+            return record(scope, "local", permits.tryTake(permitsPerSecond, now));
+        }
+
+        // 예약해 둔 허용량이 남았으면 Redis 를 거치지 않는다.
+        if (permits.tryTakeReserved(now)) {
+            return record(scope, "local", true);
+        }
+
+        try {
+            RRateLimiter limiter = redissonClient.getRateLimiter(key);
+            if (permits.needsConfigure(permitsPerSecond, now, keyTtl.toNanos() / 2)) {
+                configure(limiter, permitsPerSecond);
+                permits.configured(permitsPerSecond, now);
+            }
+
+            // 예약은 모두 쓰인 것으로 계산되므로 전체 합계가 제한을 넘지 않는다. 한도에 가까우면 한 건씩 확인한다.
+            long batch = Math.max(1L, (long) (permitsPerSecond * reservationRatio));
+            if (batch > 1 && limiter.tryAcquire(batch)) {
+                permits.reserve(batch - 1, now);
+                return record(scope, "redis", true);
+            }
+            return record(scope, "redis", limiter.tryAcquire(1));
+        } catch (RedisException e) {
+            // 제한 장애로 거래를 막지 않는다.
+            log.warn("Rate limiter unavailable. key : {}", key, e);
+            counter(scope, "redis", "error").increment();
+            // 키가 만료됐거나 설정 중 실패했을 수 있으므로 다음 요청에서 다시 설정한다.
+            permits.resetConfigured();
+            return true;
+        }
+    }
+
+    // trySetRate 는 설정이 없을 때만 쓴다. 이미 있는 제한기의 허용량이 다르면 setRate 로 덮어쓴다.
+    private void configure(RRateLimiter limiter, long permitsPerSecond) {
+        if (!limiter.trySetRate(RateType.OVERALL, permitsPerSecond, 1, RateIntervalUnit.SECONDS)) {
+            RateLimiterConfig config = limiter.getConfig();
+            if (config.getRateType() != RateType.OVERALL
+                    || config.getRate() != permitsPerSecond
+                    || config.getRateInterval() != TimeUnit.SECONDS.toMillis(1)) {
+                log.info("Rate limiter {} changed from {} to {} per second", limiter.getName(), config.getRate(), permitsPerSecond);
+                limiter.setRate(RateType.OVERALL, permitsPerSecond, 1, RateIntervalUnit.SECONDS);
+            }
+        }
+        limiter.expire(keyTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private boolean record(String scope, String source, boolean allowed) {
+        counter(scope, source, allowed ? "allowed" : "rejected").increment();
+        return allowed;
+    }
+
+    private Counter counter(String scope, String source, String result) {
+        return Counter.builder("account.ratelimit")
+                .tag("scope", scope)
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class LocalPermits {
+        // Redis 에서 예약한 허용량과 만료 시각
+        private long reserved;
+        private long reservedUntil;
+
+        // Redis 가 없을 때의 토큰 버킷. 최대 1초치까지 쌓인다.
+        private double tokens;
+        private long refilledAt;
+
+        // Redis 제한기에 마지막으로 설정한 허용량과 시각. 0 이면 아직 설정하지 않았다.
+        private long configuredRate;
+        private long configuredAt;
+
+        private LocalPermits(long permitsPerSecond, long now) {
+            this.tokens = permitsPerSecond;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryTakeReserved(long now) {
+            if (reserved > 0 && reservedUntil - now > 0) {
+                reserved--;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void reserve(long permits, long now) {
+            if (reservedUntil - now <= 0) {
+                reserved = 0;
+            }
+            reserved += permits;
+            reservedUntil = now + INTERVAL_NANOS;
+        }
+
+        private synchronized boolean tryTake(long permitsPerSecond, long now) {
+            tokens = Math.min(permitsPerSecond, tokens + (double) (now - refilledAt) * permitsPerSecond / INTERVAL_NANOS);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized boolean needsConfigure(long permitsPerSecond, long now, long refreshNanos) {
+            return configuredRate != permitsPerSecond || now - configuredAt > refreshNanos;
+        }
+
+        private synchronized void configured(long permitsPerSecond, long now) {
+            configuredRate = permitsPerSecond;
+            configuredAt = now;
+        }
+
+        private synchronized void resetConfigured() {
+            configuredRate = 0L;
+        }
+
+        private synchronized boolean isIdle(long now) {
+            return reservedUntil - now <= 0 && now - refilledAt > INTERVAL_NANOS;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.RedissonMultiLock;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RedissonLockProvider implements LockProvider {
+    private final LockNodeRing lockNodeRing;
+
+    @Override
+    public boolean tryLock(String key, long waitMillis, long leaseMillis) throws InterruptedException {
+        try {
+            return getLock(key).tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+        } catch (RedisException e) {
+            throw new LockProviderException("Redis lock failed", e);
+        }
+    }
+
+    // 노드마다 따로 푼다. lease 가 끝났거나 잡지 않은 노드는 이미 풀린 것으로 보고 넘어간다.
+    // 커밋 뒤에 부르므로 여기서 IllegalMonitorStateException 을 던지면 성공한 거래가 실패로 응답된다.
+    @Override
+    public void unlock(String key) {
+        try {
+            for (RedissonClient client : lockNodeRing.clientsFor(key)) {
+                try {
+                    client.getLock(key).unlock();
+                } catch (IllegalMonitorStateException e) {
+                    log.debug("lock {} was not held on a node, skipping", key);
+                }
+            }
+        } catch (RedisException e) {
+            throw new LockProviderException("Redis unlock failed", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(String key, long ownerId, long waitMillis, long leaseMillis) {
+        return translate(getLock(key)
+                .tryLockAsync(waitMillis, leaseMillis, TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture());
+    }
+
+    @Override
+    public CompletableFuture<Void> unlockAsync(String key, long ownerId) {
+        return translate(CompletableFuture.allOf(lockNodeRing.clientsFor(key).stream()
+                .map(client -> client.getLock(key)
+                        .unlockAsync(ownerId)
+                        .toCompletableFuture()
+                        .exceptionally(throwable -> {
+                            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                            if (cause instanceof IllegalMonitorStateException) {
+                                return null;
+                            }
+                            throw new CompletionException(cause);
+                        }))
+                .toArray(CompletableFuture[]::new)));
+    }
+
+    // 락 키가 배치된 Redis 노드의 락. 노드 목록을 바꾸는 배포 중에는 이전 배치의 노드까지 함께 잠근다.
+    private RLock getLock(String key) {
+        List<RedissonClient> clients = lockNodeRing.clientsFor(key);
+        if (clients.size() == 1) {
+            return clients.get(0).getLock(key);
+        }
+        return new RedissonMultiLock(clients.stream()
+                .map(client -> client.getLock(key))
+                .toArray(RLock[]::new));
+    }
+
+    private static <T> CompletableFuture<T> translate(CompletableFuture<T> future) {
+        return future.handle((value, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            if (cause instanceof RedisException) {
+                throw new LockProviderException("Redis lock failed", cause);
+            }
+            if (cause != null) {
+                throw new CompletionException(cause);
+            }
+            return value;
+        });
+    }
+}
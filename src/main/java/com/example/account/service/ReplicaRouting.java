@@ -0,0 +1,103 @@
+package com.example.account.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 읽기 전용 트랜잭션을 복제 DB 로 보낼지 정한다. 이 인스턴스에서 최근(max-lag 이내)에 쓴 사용자나 거래를 읽을 때는
+ * 복제 지연으로 방금 쓴 값이 안 보일 수 있으므로 primary 로 보낸다. 복제 DB 를 설정하지 않으면 아무것도 하지 않는다.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    private static final ConcurrentMap<String, Long> RECENT_WRITES = new ConcurrentHashMap<>();
+
+    private static volatile long maxLagNanos;
+    private static volatile int maxKeys;
+    // 기록할 키가 너무 많으면 이 시각까지 모든 읽기를 primary 로 보낸다.
+    private static volatile long saturatedUntil;
+
+    private ReplicaRouting() {
+    }
+
+    public static void configure(Duration maxLag, int maxKeys) {
+        ReplicaRouting.maxLagNanos = maxLag.toNanos();
+        ReplicaRouting.maxKeys = maxKeys;
+        RECENT_WRITES.clear();
+        saturatedUntil = 0;
+    }
+
+    public static String userKey(Long userId) {
+        return "U:" + userId;
+    }
+
+    public static String transactionKey(String transactionId) {
+        return "T:" + transactionId;
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * 커밋 이후 max-lag 동안 key 에 대한 읽기를 primary 로 보낸다.
+     */
+    public static void markWritten(String key) {
+        if (maxLagNanos == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(key);
+            }
+        });
+    }
+
+    /**
+     * 읽기 전용 트랜잭션 안에서 첫 쿼리 전에 부른다. 커넥션은 첫 쿼리에서 얻으므로 그 전에 정한 경로를 따른다.
+     */
+    public static void usePrimaryIfRecentlyWritten(String key) {
+        if (!recentlyWritten(key) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PRIMARY.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY.remove();
+            }
+        });
+    }
+
+    static boolean recentlyWritten(String key) {
+        if (maxLagNanos == 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - saturatedUntil < 0) {
+            return true;
+        }
+        Long expiresAt = RECENT_WRITES.get(key);
+        return expiresAt != null && now - expiresAt < 0;
+    }
+
+    private static void record(String key) {
+        long now = System.nanoTime();
+        if (RECENT_WRITES.size() >= maxKeys) {
+            RECENT_WRITES.values().removeIf(expiresAt -> now - expiresAt >= 0);
+            if (RECENT_WRITES.size() >= maxKeys) {
+                saturatedUntil = now + maxLagNanos;
+                return;
+            }
+        }
+        RECENT_WRITES.put(key, now + maxLagNanos);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 요청을 받는 중에 버킷 하나를 다른 샤드로 옮긴다.
+ * 계좌마다 계좌 락을 잡고 대상 샤드에 계좌, 거래, 보관 거래를 복사한 뒤 라우팅을 넘기고 원래 샤드에서 지운다.
+ * 락을 잡은 동안에는 그 계좌의 사용/취소가 기다리므로 복사와 삭제 사이에 잔액이 바뀌지 않는다.
+ * id 는 샤드마다 따로 발급되므로 대상 샤드의 hibernate_sequence 로 새로 받는다.
+ * <p>
+ * 라우팅 상태는 인스턴스 메모리에 있다. 이동은 요청을 받는 인스턴스가 하나일 때만 온라인으로 안전하고,
+ * 여러 인스턴스 배포에서는 끝난 뒤 출력된 bucket-map 을 shard.bucket-map 에 반영해 다시 배포한다.
+ * 재기동하면 shard.bucket-map 으로 돌아가므로 이동 뒤에는 설정에도 반영한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shard.urls")
+public class ShardBucketMover {
+    // 이동 중에는 거래를 옮기거나 지우는 배치를 멈춘다. 각 작업의 LOCK_KEY.
+    private static final List<String> JOB_LOCK_KEYS = List.of(
+            "ACLK:shard-bucket-mover",
+            "ACLK:transaction-archiver",
+            "ACLK:cold-storage-exporter",
+            "ACLK:balance-reconciler");
+
+    private static final String NEXT_ID = "select next value for hibernate_sequence";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockService lockService;
+    private final LockProvider lockProvider;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shard.move.page-size:500}")
+    private int pageSize;
+
+    @Value("${shard.move.lock-lease:PT1H}")
+    private Duration lockLease;
+
+    public ShardBucketMover(JdbcTemplate jdbcTemplate,
+                            LockService lockService,
+                            LockProvider lockProvider,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockService = lockService;
+        this.lockProvider = lockProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 버킷을 target 샤드로 옮기고 옮긴 계좌 수를 돌려준다.
+     * 중간에 실패하면 이동 상태가 남아 있으므로 같은 대상으로 다시 부르면 이어서 옮긴다.
+     */
+    public int move(int bucket, int target) {
+        int source = ShardRouting.shardOfBucket(bucket);
+        if (source == target) {
+            return 0;
+        }
+
+        List<String> locked = lockJobs();
+        try {
+            ShardRouting.startMove(bucket, target);
+            log.info("moving bucket {} from shard {} to shard {}", bucket, source, target);
+
+            int moved = 0;
+            // 이동 전에 시작한 계좌 생성이 스캔 뒤에 커밋될 수 있으므로 옮길 계좌가 없을 때까지 다시 훑는다.
+            int movedInPass;
+            do {
+                movedInPass = 0;
+                for (String accountNumber : accountsInBucket(source, bucket)) {
+                    moveAccount(accountNumber, source, target);
+                    movedInPass++;
+                }
+                moved += movedInPass;
+            } while (movedInPass > 0);
+
+            ShardRouting.finishMove(bucket);
+            log.info("moved bucket {} ({} accounts) to shard {}. bucket-map : {}",
+                    bucket, moved, target, ShardRouting.bucketMap());
+            return moved;
+        } finally {
+            locked.forEach(lockProvider::unlock);
+        }
+    }
+
+    private List<String> lockJobs() {
+        List<String> locked = new ArrayList<>();
+        try {
+            for (String key : JOB_LOCK_KEYS) {
+                if (!lockProvider.tryLock(key, 0, lockLease.toMillis())) {
+                    throw new IllegalStateException(key + " is running. Try the move again later");
+                }
+                locked.add(key);
+            }
+            return locked;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked.forEach(lockProvider::unlock);
+            throw new IllegalStateException("interrupted while locking jobs", e);
+        } catch (RuntimeException e) {
+            locked.forEach(lockProvider::unlock);
+            throw e;
+        }
+    }
+
+    // 원래 샤드에 남은 이 버킷의 계좌번호. 계좌번호 해시로 나뉘므로 id 순서로 훑으며 거른다.
+    private List<String> accountsInBucket(int source, int bucket) {
+        List<String> accountNumbers = new ArrayList<>();
+        long lastId = 0L;
+        while (true) {
+            long after = lastId;
+            List<Map<String, Object>> page = ShardRouting.onShard(source, () -> jdbcTemplate.queryForList(
+                    "select id, account_number from account where id > ? order by id limit ?", after, pageSize));
+            if (page.isEmpty()) {
+                return accountNumbers;
+            }
+            for (Map<String, Object> row : page) {
+                String accountNumber = (String) row.get("ACCOUNT_NUMBER");
+                if (ShardRouting.bucketOf(accountNumber) == bucket) {
+                    accountNumbers.add(accountNumber);
+                }
+            }
+            lastId = ((Number) page.get(page.size() - 1).get("ID")).longValue();
+        }
+    }
+
+    void moveAccount(String accountNumber, int source, int target) {
+        // 락 저장소 장애로 행 락 대체 중이면 옮기지 않는다. 사용/취소가 복사 도중 잔액을 바꿀 수 있다.
+        if (!lockService.lock(accountNumber)) {
+            throw new IllegalStateException("account lock unavailable. accountNumber : " + accountNumber);
+        }
+        try {
+            List<Map<String, Object>> accounts = ShardRouting.onShard(source, () -> jdbcTemplate.queryForList(
+                    "select * from account where account_number = ?", accountNumber));
+            if (accounts.isEmpty()) {
+                return;
+            }
+            Map<String, Object> account = accounts.get(0);
+            Object sourceId = account.get("ID");
+
+            List<Map<String, Object>> transactions = ShardRouting.onShard(source, () -> jdbcTemplate.queryForList(
+                    "select * from transaction where account_id = ? order by id", sourceId));
+            List<Map<String, Object>> archives = ShardRouting.onShard(source, () -> jdbcTemplate.queryForList(
+                    "select * from transaction_archive where account_id = ? order by id", sourceId));
+
+            ShardRouting.onShard(target, () -> transactionTemplate.execute(status -> {
+                // 이전 시도가 복사 뒤 멈췄으면 대상 샤드에 사본이 남아 있다. 지우고 다시 복사한다.
+                deleteAccount("(select id from account where account_number = ?)", accountNumber);
+                copy(account, transactions, archives);
+                return null;
+            }));
+            ShardRouting.markMoved(accountNumber);
+
+            ShardRouting.onShard(source, () -> transactionTemplate.execute(status -> {
+                jdbcTemplate.update("delete from reconciliation_account_state where account_id = ?", sourceId);
+                deleteAccount("(?)", sourceId);
+                return null;
+            }));
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private void copy(Map<String, Object> account,
+                      List<Map<String, Object>> transactions,
+                      List<Map<String, Object>> archives) {
+        long accountId = jdbcTemplate.queryForObject(NEXT_ID, Long.class);
+        jdbcTemplate.update("insert into account(id, account_user_id, account_number, account_status, balance, " +
+                        "registered_at, unregistered_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                accountId, account.get("ACCOUNT_USER_ID"), account.get("ACCOUNT_NUMBER"), account.get("ACCOUNT_STATUS"),
+                account.get("BALANCE"), account.get("REGISTERED_AT"), account.get("UNREGISTERED_AT"),
+                account.get("CREATED_AT"), account.get("UPDATED_AT"));
+
+        // 새 id 도 원래 순서대로 발급해 대사가 거래 사슬을 같은 순서로 따라가게 한다.
+        List<Object[]> transactionRows = new ArrayList<>(transactions.size());
+        for (Map<String, Object> transaction : transactions) {
+            transactionRows.add(new Object[]{
+                    jdbcTemplate.queryForObject(NEXT_ID, Long.class),
+                    transaction.get("TRANSACTION_TYPE"), transaction.get("TRANSACTION_RESULT_TYPE"), accountId,
+                    transaction.get("AMOUNT"), transaction.get("BALANCE_SNAPSHOT"), transaction.get("TRANSACTION_ID"),
+                    transaction.get("TRANSACTED_AT"), transaction.get("CREATED_AT"), transaction.get("UPDATED_AT")});
+        }
+        jdbcTemplate.batchUpdate("insert into transaction(id, transaction_type, transaction_result_type, account_id, " +
+                "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactionRows);
+
+        List<Object[]> archiveRows = new ArrayList<>(archives.size());
+        for (Map<String, Object> archive : archives) {
+            archiveRows.add(new Object[]{
+                    jdbcTemplate.queryForObject(NEXT_ID, Long.class),
+                    archive.get("TRANSACTION_TYPE"), archive.get("TRANSACTION_RESULT_TYPE"), accountId,
+                    archive.get("AMOUNT"), archive.get("BALANCE_SNAPSHOT"), archive.get("TRANSACTION_ID"),
+                    archive.get("TRANSACTED_AT"), archive.get("ARCHIVED_AT")});
+        }
+        jdbcTemplate.batchUpdate("insert into transaction_archive(id, transaction_type, transaction_result_type, " +
+                "account_id, amount, balance_snapshot, transaction_id, transacted_at, archived_at) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", archiveRows);
+    }
+
+    // accountIds 는 계좌 id 하나를 고르는 괄호 식. 거래와 보관 거래를 먼저 지운다.
+    private void deleteAccount(String accountIds, Object parameter) {
+        jdbcTemplate.update("delete from transaction_archive where account_id in " + accountIds, parameter);
+        jdbcTemplate.update("delete from transaction where account_id in " + accountIds, parameter);
+        jdbcTemplate.update("delete from account where id in " + accountIds, parameter);
+    }
+}
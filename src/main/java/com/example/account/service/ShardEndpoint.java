@@ -0,0 +1,36 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/shards 로 버킷 배정과 이동 상태 조회, POST {"bucket":3,"target":1} 로 버킷 이동.
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "shard.urls")
+@RequiredArgsConstructor
+public class ShardEndpoint {
+    private final ShardBucketMover shardBucketMover;
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        return Map.of(
+                "bucketMap", ShardRouting.bucketMap(),
+                "moves", ShardRouting.moves());
+    }
+
+    @WriteOperation
+    public Map<String, Object> move(int bucket, int target) {
+        int moved = shardBucketMover.move(bucket, target);
+        return Map.of(
+                "bucket", bucket,
+                "target", target,
+                "movedAccounts", moved,
+                "bucketMap", ShardRouting.bucketMap());
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.account.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+import java.util.function.Supplier;
+
+/**
+ * 계좌번호로 샤드를 고르고, 계좌번호를 모르는 조회는 모든 샤드에 병렬로 보낸다.
+ * 계좌번호는 해시로 버킷에 먼저 매핑하고 버킷을 샤드에 배정하므로, 샤드를 늘릴 때는 버킷 단위로 옮긴다.
+ * 샤딩을 설정하지 않으면 모든 메서드가 현재 스레드에서 그대로 실행한다.
+ * <p>
+ * 버킷을 옮기는 동안(ShardBucketMover)에는 옮겨진 계좌만 대상 샤드로 보내고 나머지는 원래 샤드로 보낸다.
+ * 다 옮기면 버킷 배정을 바꾸고 이동 상태를 지운다.
+ */
+public final class ShardRouting {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private static volatile int[] bucketToShard;
+    private static volatile int shardCount = 1;
+    private static volatile ExecutorService fanOutExecutor;
+    // 이동 중인 버킷 -> 대상 샤드와 이미 옮겨진 계좌
+    private static final Map<Integer, BucketMove> MOVES = new ConcurrentHashMap<>();
+
+    private ShardRouting() {
+    }
+
+    public static void configure(int[] bucketToShard, int shardCount, ExecutorService fanOutExecutor) {
+        ShardRouting.bucketToShard = bucketToShard.clone();
+        ShardRouting.shardCount = shardCount;
+        ShardRouting.fanOutExecutor = fanOutExecutor;
+    }
+
+    public static void reset() {
+        bucketToShard = null;
+        shardCount = 1;
+        fanOutExecutor = null;
+        MOVES.clear();
+    }
+
+    public static boolean isEnabled() {
+        return bucketToShard != null;
+    }
+
+    public static int shardCount() {
+        return shardCount;
+    }
+
+    public static int shardOf(String accountNumber) {
+        int[] buckets = bucketToShard;
+        if (buckets == null) {
+            return 0;
+        }
+        int bucket = Math.floorMod(accountNumber.hashCode(), buckets.length);
+        if (!MOVES.isEmpty()) {
+            BucketMove move = MOVES.get(bucket);
+            if (move != null && move.accountNumbers.contains(accountNumber)) {
+                return move.target;
+            }
+        }
+        return buckets[bucket];
+    }
+
+    public static int bucketOf(String accountNumber) {
+        int[] buckets = bucketToShard;
+        return buckets == null ? 0 : Math.floorMod(accountNumber.hashCode(), buckets.length);
+    }
+
+    public static int shardOfBucket(int bucket) {
+        return bucketToShard[bucket];
+    }
+
+    // 버킷 순서대로 샤드 번호. shard.bucket-map 에 그대로 쓸 수 있다.
+    public static List<Integer> bucketMap() {
+        int[] buckets = bucketToShard;
+        if (buckets == null) {
+            return List.of();
+        }
+        List<Integer> bucketMap = new ArrayList<>(buckets.length);
+        for (int shard : buckets) {
+            bucketMap.add(shard);
+        }
+        return bucketMap;
+    }
+
+    // 이동 중인 버킷 -> 대상 샤드
+    public static Map<Integer, Integer> moves() {
+        return MOVES.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().target));
+    }
+
+    /**
+     * 버킷 이동을 시작한다. 같은 대상으로 이미 이동 중이면 이어서 진행한다.
+     */
+    public static void startMove(int bucket, int target) {
+        if (target < 0 || target >= shardCount) {
+            throw new IllegalArgumentException("unknown shard " + target);
+        }
+        BucketMove move = MOVES.computeIfAbsent(bucket, b -> new BucketMove(target));
+        if (move.target != target) {
+            throw new IllegalStateException("bucket " + bucket + " is already moving to shard " + move.target);
+        }
+    }
+
+    // 계좌를 대상 샤드에 복사한 뒤 부른다. 이후 이 계좌의 요청은 대상 샤드로 간다.
+    public static void markMoved(String accountNumber) {
+        BucketMove move = MOVES.get(bucketOf(accountNumber));
+        if (move != null) {
+            move.accountNumbers.add(accountNumber);
+        }
+    }
+
+    // 버킷의 계좌를 모두 옮긴 뒤 부른다. 배정을 바꾼 다음 이동 상태를 지워 그 사이에도 대상 샤드로 간다.
+    public static synchronized void finishMove(int bucket) {
+        BucketMove move = MOVES.get(bucket);
+        if (move == null) {
+            return;
+        }
+        int[] buckets = bucketToShard.clone();
+        buckets[bucket] = move.target;
+        bucketToShard = buckets;
+        MOVES.remove(bucket);
+    }
+
+    // 라우팅 DataSource 가 커넥션을 얻을 때 본다. null 이면 0번 샤드.
+    public static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 트랜잭션 안에서 첫 쿼리 전에 부른다. 트랜잭션이 끝날 때까지 계좌번호의 샤드를 쓴다.
+     */
+    public static void use(String accountNumber) {
+        if (!isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        CURRENT.set(shardOf(accountNumber));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CURRENT.remove();
+            }
+        });
+    }
+
+    /**
+     * 새 계좌를 만들 때 use 대신 부른다. 이동 중인 버킷이면 원래 샤드가 아닌 대상 샤드에 바로 만든다.
+     */
+    public static void useNew(String accountNumber) {
+        markMoved(accountNumber);
+        use(accountNumber);
+    }
+
+    /**
+     * 트랜잭션 밖에서 shard 를 지정해 실행한다. 배치 작업이 샤드를 하나씩 돌 때 쓴다.
+     */
+    public static <T> T onShard(int shard, Supplier<T> supplier) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void forEachShard(Runnable runnable) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            onShard(shard, () -> {
+                runnable.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 모든 샤드에서 query 를 병렬로 실행하고 샤드 순서대로 이어 붙인다.
+     * 각 샤드의 쿼리는 별도 스레드의 별도 트랜잭션에서 돈다.
+     */
+    public static <T> List<T> fanOut(Supplier<List<T>> query) {
+        ExecutorService executor = fanOutExecutor;
+        if (!isEnabled() || executor == null) {
+            return query.get();
+        }
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, query), executor));
+        }
+
+        List<T> merged = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                merged.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return merged;
+    }
+
+    public static <T> Optional<T> findFirst(Supplier<Optional<T>> query) {
+        return fanOut(() -> query.get().map(List::of).orElse(List.of())).stream().findFirst();
+    }
+
+    private static class BucketMove {
+        private final int target;
+        private final Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+
+        private BucketMove(int target) {
+            this.target = target;
+        }
+    }
+}
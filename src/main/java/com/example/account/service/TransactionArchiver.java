@@ -0,0 +1,139 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionArchive;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 취소 가능 기간이 지난 거래를 transactedAt 월 단위로, 오래된 달부터 보관 테이블로 옮긴다.
+ * 청크마다 옮기기와 지우기를 한 트랜잭션으로 처리하므로 중간에 멈춰도 다음 실행이 이어서 진행한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction.archive.enabled", havingValue = "true")
+public class TransactionArchiver {
+    // 여러 인스턴스 중 한 곳에서만 돈다.
+    static final String LOCK_KEY = "ACLK:transaction-archiver";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final LockProvider lockProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedRows;
+
+    @Value("${transaction.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${transaction.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    // 취소 가능 기간(1년)보다 짧으면 아직 취소할 수 있는 거래를 옮기게 된다.
+    @Value("${transaction.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${transaction.archive.lock-lease:PT30M}")
+    private Duration lockLease;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               TransactionArchiveRepository transactionArchiveRepository,
+                               LockProvider lockProvider,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.lockProvider = lockProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedRows = Counter.builder("transaction.archive.rows")
+                .description("보관 테이블로 옮긴 거래 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.archive.interval:PT1H}",
+            initialDelayString = "${transaction.archive.initial-delay:PT5M}")
+    public void run() {
+        try {
+            if (!lockProvider.tryLock(LOCK_KEY, 0, lockLease.toMillis())) {
+                return;
+            }
+        } catch (LockProviderException e) {
+            log.warn("archiver lock unavailable, skipping run", e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            LocalDateTime cutoff = cutoff(LocalDate.now());
+            ShardRouting.forEachShard(() -> {
+                int moved = archiveBefore(cutoff);
+                if (moved > 0) {
+                    log.info("archived {} transactions", moved);
+                }
+            });
+        } finally {
+            lockProvider.unlock(LOCK_KEY);
+        }
+    }
+
+    // retention-months 전 달의 1일 0시. 이보다 이전 거래만 옮기므로 항상 달 전체가 옮겨진다.
+    LocalDateTime cutoff(LocalDate today) {
+        return today.minusMonths(retentionMonths).withDayOfMonth(1).atStartOfDay();
+    }
+
+    int archiveBefore(LocalDateTime cutoff) {
+        int moved = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Optional<Transaction> oldest =
+                    transactionRepository.findFirstByTransactedAtBeforeOrderByTransactedAtAsc(cutoff);
+            if (oldest.isEmpty()) {
+                break;
+            }
+
+            LocalDateTime monthStart = oldest.get().getTransactedAt()
+                    .toLocalDate().withDayOfMonth(1).atStartOfDay();
+            Integer count = transactionTemplate.execute(status ->
+                    moveChunk(monthStart, monthStart.plusMonths(1)));
+            if (count == null || count == 0) {
+                break;
+            }
+            moved += count;
+        }
+        return moved;
+    }
+
+    private int moveChunk(LocalDateTime from, LocalDateTime to) {
+        List<Transaction> transactions = transactionRepository
+                .findByTransactedAtGreaterThanEqualAndTransactedAtLessThanOrderByIdAsc(
+                        from, to, PageRequest.of(0, chunkSize));
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionArchiveRepository.saveAll(transactions.stream()
+                .map(transaction -> TransactionArchive.from(transaction, now))
+                .collect(Collectors.toList()));
+        transactionRepository.deleteAllInBatch(transactions);
+        archivedRows.increment(transactions.size());
+        return transactions.size();
+    }
+}
@@ -1,23 +1,38 @@
 package com.example.account.service;
 
+import com.example.account.coldstorage.ColdStorageService;
 import com.example.account.domain.Account;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
+import com.example.account.jfr.CommitEvent;
+import com.example.account.jfr.EntityLoadEvent;
+import com.example.account.jfr.FailureRecordEvent;
+import com.example.account.jfr.ValidationEvent;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
+import com.example.account.warmup.WarmupRunner;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -27,41 +42,59 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ColdStorageService coldStorageService;
 
+    @Timed("transaction.service")
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        ShardRouting.use(accountNumber);
+        recordCommit(accountNumber, "useBalance");
+
+        EntityLoadEvent loadEvent = new EntityLoadEvent();
+        loadEvent.begin();
         AccountUser accountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.USER_NOT_FOUND));
+        Account account = getAccountForBalanceChange(accountNumber);
+        loadEvent.commit(accountNumber, "useBalance");
 
+        ValidationEvent validationEvent = new ValidationEvent();
+        validationEvent.begin();
         validateUseBalance(accountUser, account, amount);
+        validationEvent.commit(accountNumber, "useBalance");
 
         account.useBalance(amount);
+        ReplicaRouting.markWritten(ReplicaRouting.userKey(userId));
 
         return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
     }
 
     public void validateUseBalance(AccountUser accountUser, Account account, Long amount) {
         if(accountUser.getId() != account.getAccountUser().getId()) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UNMATCH);
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UNMATCH);
         }
 
         if(account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
 
         if(account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
     }
 
+    @Timed("transaction.service")
     @Transactional
     public void saveFailedUseTransaction(String accountNumber, Long amount) {
+        ShardRouting.use(accountNumber);
+        FailureRecordEvent failureRecordEvent = new FailureRecordEvent();
+        failureRecordEvent.begin();
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         saveAndGetTransaction(TransactionType.USE, TransactionResultType.F, account, amount);
+        failureRecordEvent.commit(accountNumber, "useBalance");
     }
 
     private Transaction saveAndGetTransaction(
@@ -69,59 +102,148 @@ public class TransactionService {
             TransactionResultType transactionResultType,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                    .transactionType(transactionType)
-                    .transactionResultType(transactionResultType)
-                    .account(account)
-                    .amount(amount)
-                    .balanceSnapshot(account.getBalance())
-                    .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                    .transactedAt(LocalDateTime.now())
-                    .build()
-        );
+        String transactionId = generateTransactionId();
+        ReplicaRouting.markWritten(ReplicaRouting.transactionKey(transactionId));
+        Transaction transaction = Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        // 워밍업 계좌의 거래는 다른 시스템에 알리지 않는다.
+        if (!WarmupRunner.isWarmupUser(account.getAccountUser().getId())) {
+            outboxEventRepository.save(OutboxEvent.transactionRecorded(transaction));
+        }
+        return transactionRepository.save(transaction);
+    }
+
+    public static String generateTransactionId() {
+        return UUID.randomUUID().toString().replace("-", "");
     }
 
+    @Timed("transaction.service")
     @Transactional
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        ShardRouting.use(accountNumber);
+        recordCommit(accountNumber, "cancelBalance");
+
+        EntityLoadEvent loadEvent = new EntityLoadEvent();
+        loadEvent.begin();
+        Account account = getAccountForBalanceChange(accountNumber);
 
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+                        .orElseThrow(() -> notFoundOrTooOld(transactionId, accountNumber));
+        loadEvent.commit(accountNumber, "cancelBalance");
 
+        ValidationEvent validationEvent = new ValidationEvent();
+        validationEvent.begin();
         validateCancelBalance(transaction, account, amount);
+        validationEvent.commit(accountNumber, "cancelBalance");
 
         account.cancelBalance(amount);
+        ReplicaRouting.markWritten(ReplicaRouting.userKey(account.getAccountUser().getId()));
 
         return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, account, amount));
     }
 
     public void validateCancelBalance(Transaction transaction, Account account, Long amount) {
         if(!transaction.getAccount().getId().equals(account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UNMATCH);
+            throw AccountException.of(ErrorCode.TRANSACTION_ACCOUNT_UNMATCH);
         }
 
         if(!transaction.getAmount().equals(amount)) {
-            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+            throw AccountException.of(ErrorCode.CANCEL_MUST_FULLY);
         }
 
         if(transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+            throw AccountException.of(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
         }
 
     }
 
+    @Timed("transaction.service")
     @Transactional
     public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+        ShardRouting.use(accountNumber);
+        FailureRecordEvent failureRecordEvent = new FailureRecordEvent();
+        failureRecordEvent.begin();
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
 
         saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.F, account, amount);
+        failureRecordEvent.commit(accountNumber, "cancelBalance");
+    }
+
+    // 보관 테이블이나 콜드 파일에 있는 거래는 취소 가능 기간이 지난 거래다.
+    private AccountException notFoundOrTooOld(String transactionId, String accountNumber) {
+        return transactionArchiveRepository.findByTransactionId(transactionId).isPresent()
+                || coldStorageService.findByTransactionId(accountNumber, transactionId).isPresent()
+                ? AccountException.of(ErrorCode.TOO_OLD_ORDER_TO_CANCEL)
+                : AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND);
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+    @Timed("transaction.service")
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(String transactionId, String accountNumber) {
+        // 이 인스턴스에서 방금 만든 거래는 복제 지연이 있을 수 있어 primary 에서 읽는다.
+        ReplicaRouting.usePrimaryIfRecentlyWritten(ReplicaRouting.transactionKey(transactionId));
+        // 최근 거래 테이블에 없을 때만 보관 테이블을 본다.
+        // 거래 id 로는 샤드를 알 수 없어 모든 샤드에 묻는다.
+        return ShardRouting.findFirst(() -> transactionRepository.findByTransactionId(transactionId))
+                .map(TransactionDto::fromEntity)
+                .or(() -> ShardRouting.findFirst(() -> transactionArchiveRepository.findByTransactionId(transactionId))
+                        .map(TransactionDto::fromArchive))
+                // 콜드 파일은 계좌번호로만 좁힐 수 있어 계좌번호를 함께 받았을 때만 찾는다.
+                .or(() -> accountNumber == null
+                        ? Optional.<TransactionDto>empty()
+                        : coldStorageService.findByTransactionId(accountNumber, transactionId))
+                .orElseThrow(() -> AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 콜드 파일로 내보낸 계좌 거래를 거래 시각 [from, to) 로 조회한다. from, to 는 null 이면 제한하지 않는다.
+     */
+    public List<TransactionDto> queryColdTransactions(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        return coldStorageService.findByAccountNumber(accountNumber, from, to);
+    }
+
+    // 잔액을 바꾸는 경로는 항상 계좌 행을 잠가서 읽는다. Redis 락은 인스턴스마다 회로 상태가 달라
+    // 어떤 인스턴스는 Redis 락만, 어떤 인스턴스는 락 없이 진행할 수 있으므로 행 락이 최종 직렬화 지점이다.
+    // Redis 락을 잡은 요청끼리는 경합이 없어 행 락은 바로 잡힌다. 대기 한도를 넘기면 락 경합과 같은 에러로 응답.
+    private Account getAccountForBalanceChange(String accountNumber) {
+        try {
+            return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                    .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
+        } catch (PessimisticLockingFailureException e) {
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    // flush 와 commit 은 메서드가 끝난 뒤 일어나므로 트랜잭션 동기화 콜백으로 구간을 잰다.
+    private static void recordCommit(String accountNumber, String endpoint) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private final CommitEvent commitEvent = new CommitEvent();
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                started = true;
+                commitEvent.begin();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started) {
+                    commitEvent.commit(accountNumber, endpoint);
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -19,6 +19,8 @@ public enum ErrorCode {
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    RATE_LIMIT_EXCEEDED("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
+    SERVICE_OVERLOADED("서버가 요청을 처리할 수 없는 상태입니다. 잠시 후 다시 시도해 주세요."),
     INTERNAL_SERVER_ERROR("서버 오류")
     ;
 
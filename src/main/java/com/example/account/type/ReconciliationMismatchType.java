@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum ReconciliationMismatchType {
+    // 직전 거래의 잔액 스냅샷에서 계산한 값과 이 거래의 스냅샷이 다르다.
+    SNAPSHOT_CHAIN,
+    // 계좌 잔액이 마지막 거래의 스냅샷과 다르다.
+    BALANCE
+}
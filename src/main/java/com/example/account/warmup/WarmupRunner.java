@@ -0,0 +1,282 @@
+package com.example.account.warmup;
+
+import com.example.account.service.ShardRouting;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기동 직후 워밍업 전용 계좌로 사용/취소/조회를 반복해 JIT 컴파일, Hibernate 쿼리 계획, 락 저장소 커넥션을 데운다.
+ * ApplicationRunner 가 끝나야 Spring 이 ACCEPTING_TRAFFIC 을 알리므로, 워밍업이 끝날 때까지 readiness 는 거부 상태다.
+ * <p>
+ * 워밍업 사용자(id 0)는 모든 샤드에 한 번만 만들고, 그 계좌도 해지하지 않고 다음 기동에 다시 쓴다.
+ * 사이클마다 잔액이 원래대로 돌아오며, 끝나면 워밍업 계좌의 거래를 지워 보관/대사/콜드 스토리지에 남지 않게 한다.
+ * 요청 한도와 사용 지연, 아웃박스 이벤트는 워밍업 계좌에만 적용하지 않는다.
+ * 실제 HTTP 경로를 타므로 롤백 전용 트랜잭션으로 감쌀 수 없고 서비스 DB 에 쓴다. 그래서 warmup.enabled=true 일 때만 동작한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+    private static final long INITIAL_BALANCE = 1_000L;
+    private static final long AMOUNT = 10L;
+    // 처음과 마지막 구간의 사이클 지연 시간을 비교한다.
+    private static final int SAMPLE_SIZE = 200;
+
+    // 시퀀스는 1부터 발급하므로 다른 사용자와 겹치지 않는다.
+    public static final long WARMUP_USER_ID = 0L;
+    // 사용자당 계좌 한도
+    private static final int MAX_ACCOUNTS = 10;
+
+    private static final Set<String> ACCOUNT_NUMBERS = ConcurrentHashMap.newKeySet();
+
+    private final ApplicationContext applicationContext;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${warmup.min-iterations:2000}")
+    private long minIterations;
+
+    @Value("${warmup.max-duration:60s}")
+    private Duration maxDuration;
+
+    // 1초 동안의 JIT 컴파일 시간이 이 값 아래로 내려가면 핫 메서드 컴파일이 끝난 것으로 본다.
+    @Value("${warmup.jit-settle-millis:10}")
+    private long jitSettleMillis;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    public static boolean isWarmupUser(Long userId) {
+        return userId != null && userId == WARMUP_USER_ID;
+    }
+
+    // 이 인스턴스가 지금 워밍업 중인 계좌
+    public static boolean isWarmupAccount(String accountNumber) {
+        return ACCOUNT_NUMBERS.contains(accountNumber);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!(applicationContext instanceof WebServerApplicationContext)) {
+            log.debug("No embedded web server. Skipping warm-up");
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+
+        int port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+        long startedAt = System.nanoTime();
+        try {
+            warmUp("http://127.0.0.1:" + port);
+        } catch (Exception e) {
+            // 워밍업 실패로 기동을 막지는 않는다.
+            log.warn("Warm-up failed. Continuing startup", e);
+        } finally {
+            ACCOUNT_NUMBERS.clear();
+            Timer.builder("warmup.duration")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void warmUp(String baseUrl) throws Exception {
+        ensureWarmupUser();
+        List<String> accountNumbers = warmupAccounts(baseUrl);
+        ACCOUNT_NUMBERS.addAll(accountNumbers);
+
+        Timer coldTimer = cycleTimer("cold");
+        Timer warmTimer = cycleTimer("warm");
+        Counter iterations = meterRegistry.counter("warmup.iterations");
+        AtomicLong completed = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        long[] recent = new long[SAMPLE_SIZE];
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (String accountNumber : accountNumbers) {
+                futures.add(workers.submit(() -> {
+                    // 사이클 중간에 끊으면 취소되지 않은 사용 거래가 남으므로 인터럽트 대신 플래그로 멈춘다.
+                    while (!stopped.get() && System.nanoTime() < deadline) {
+                        long cycleStartedAt = System.nanoTime();
+                        cycle(baseUrl, accountNumber);
+                        long latency = System.nanoTime() - cycleStartedAt;
+
+                        long index = completed.getAndIncrement();
+                        if (index < SAMPLE_SIZE) {
+                            coldTimer.record(latency, TimeUnit.NANOSECONDS);
+                        }
+                        synchronized (recent) {
+                            recent[(int) (index % SAMPLE_SIZE)] = latency;
+                        }
+                        iterations.increment();
+                    }
+                    return null;
+                }));
+            }
+
+            long lastCompileMillis = compilationTime(compilation);
+            while (System.nanoTime() < deadline && futures.stream().noneMatch(Future::isDone)) {
+                Thread.sleep(1_000L);
+                long compileMillis = compilationTime(compilation);
+                if (completed.get() >= minIterations && compileMillis - lastCompileMillis < jitSettleMillis) {
+                    break;
+                }
+                lastCompileMillis = compileMillis;
+            }
+        } finally {
+            stopped.set(true);
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.warn("Warm-up cycle failed", e.getCause());
+            }
+        }
+
+        synchronized (recent) {
+            int samples = (int) Math.min(completed.get(), SAMPLE_SIZE);
+            for (int i = 0; i < samples; i++) {
+                warmTimer.record(recent[i], TimeUnit.NANOSECONDS);
+            }
+        }
+        log.info("Warm-up finished. iterations : {}, cold p99 : {} ms, warm p99 : {} ms",
+                completed.get(), p99Millis(coldTimer), p99Millis(warmTimer));
+
+        deleteTransactions();
+    }
+
+    // 사용자는 기동 시에만 샤드에 복사되므로 모든 샤드에 직접 넣는다. 여러 인스턴스가 동시에 넣으면 한쪽은 무시된다.
+    private void ensureWarmupUser() {
+        ShardRouting.forEachShard(() -> {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "select count(*) from account_user where id = ?", Integer.class, WARMUP_USER_ID);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            try {
+                jdbcTemplate.update("insert into account_user(id, name, created_at, updated_at) " +
+                        "values (?, 'warmup', current_timestamp, current_timestamp)", WARMUP_USER_ID);
+            } catch (DuplicateKeyException e) {
+                log.debug("Warm-up user already created by another instance");
+            }
+        });
+    }
+
+    // 지난 기동에서 만든 계좌를 다시 쓰고 모자란 만큼만 만든다. 해지한 계좌도 한도에 들어가므로 해지하지 않는다.
+    private List<String> warmupAccounts(String baseUrl) throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (JsonNode account : send(baseUrl, "GET", "/account?user_id=" + WARMUP_USER_ID, null)) {
+            accountNumbers.add(account.path("accountNumber").asText());
+        }
+
+        int target = Math.min(concurrency, MAX_ACCOUNTS);
+        // 계좌번호 채번이 동시 생성에 안전하지 않으므로 차례로 만든다.
+        while (accountNumbers.size() < target) {
+            JsonNode created = send(baseUrl, "POST", "/account",
+                    Map.of("userId", WARMUP_USER_ID, "initialBalance", INITIAL_BALANCE));
+            accountNumbers.add(created.path("accountNumber").asText());
+        }
+        return accountNumbers.subList(0, target);
+    }
+
+    // 동시에 워밍업 중인 다른 인스턴스의 사이클은 취소 대상 거래가 지워져 실패할 수 있다. 워밍업 실패로만 기록된다.
+    private void deleteTransactions() {
+        ShardRouting.forEachShard(() -> {
+            int deleted = jdbcTemplate.update("delete from transaction where account_id in " +
+                    "(select id from account where account_user_id = ?)", WARMUP_USER_ID);
+            log.debug("Deleted {} warm-up transactions", deleted);
+        });
+    }
+
+    // 사용 -> 조회 -> 취소. 취소로 잔액이 원래대로 돌아온다.
+    private void cycle(String baseUrl, String accountNumber) throws Exception {
+        JsonNode used = send(baseUrl, "POST", "/transaction/use",
+                Map.of("userId", WARMUP_USER_ID, "accountNumber", accountNumber, "amount", AMOUNT));
+        String transactionId = used.path("transactionId").asText();
+        send(baseUrl, "GET", "/transaction/" + transactionId, null);
+        send(baseUrl, "POST", "/transaction/cancel",
+                Map.of("transactionId", transactionId, "accountNumber", accountNumber, "amount", AMOUNT));
+    }
+
+    private JsonNode send(String baseUrl, String method, String path, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (body == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        }
+
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode() + " : " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private Timer cycleTimer(String phase) {
+        return Timer.builder("warmup.cycle")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static long compilationTime(CompilationMXBean compilation) {
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime()
+                : 0L;
+    }
+
+    private static double p99Millis(Timer timer) {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0.0;
+    }
+}
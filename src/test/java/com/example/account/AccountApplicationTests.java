@@ -2,8 +2,11 @@ package com.example.account;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+// Redis 없이 컨텍스트만 확인한다.
 @SpringBootTest
+@ActiveProfiles("inmemory")
 class AccountApplicationTests {
 
     @Test
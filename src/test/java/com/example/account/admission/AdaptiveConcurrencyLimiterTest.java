@@ -0,0 +1,87 @@
+package com.example.account.admission;
+
+import com.example.account.admission.AdaptiveConcurrencyLimiter.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_NANOS, 2.0, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void increaseWhenFastAndBusy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_NANOS, 2.0, 0.5);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), Outcome.SUCCESS);
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void decreaseWhenSlowOrFailed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, TARGET_NANOS, 2.0, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), Outcome.SUCCESS);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), Outcome.FAILURE);
+        assertEquals(2, limiter.getLimit());
+
+        // 최소 한도 아래로는 내려가지 않는다.
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), Outcome.SUCCESS);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void targetFollowsObservedLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, TARGET_NANOS, 2.0, 0.5);
+        assertEquals(TARGET_NANOS, limiter.latencyTargetNanos());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.SECONDS.toNanos(3), Outcome.SUCCESS);
+
+        // 처리 자체가 느린 엔드포인트는 관측한 최소 지연의 tolerance 배를 목표로 삼는다.
+        assertEquals(TimeUnit.SECONDS.toNanos(6), limiter.latencyTargetNanos());
+    }
+
+    @Test
+    void fastRejectionsDoNotLowerTargetForSlowSuccesses() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, TARGET_NANOS, 2.0, 0.5);
+
+        // 3초 걸리는 정상 사용 요청 사이에 1ms 요청 한도 초과, 1초 락 대기 초과 응답이 섞인다.
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1), Outcome.REJECTED);
+            limiter.release(TimeUnit.SECONDS.toNanos(1), Outcome.REJECTED);
+            limiter.release(TimeUnit.SECONDS.toNanos(3), Outcome.SUCCESS);
+            limiter.release(TimeUnit.SECONDS.toNanos(3), Outcome.SUCCESS);
+            limiter.release(TimeUnit.SECONDS.toNanos(3), Outcome.SUCCESS);
+        }
+
+        // 거절 응답이 기준에 들어가면 목표가 100ms 로 내려가 정상 요청마다 한도를 줄이게 된다.
+        assertEquals(TimeUnit.SECONDS.toNanos(6), limiter.latencyTargetNanos());
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
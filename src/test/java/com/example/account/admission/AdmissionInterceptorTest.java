@@ -0,0 +1,86 @@
+package com.example.account.admission;
+
+import com.example.account.controller.TransactionController;
+import com.example.account.dto.UseBalance;
+import com.example.account.admission.AdaptiveConcurrencyLimiter.Outcome;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.GlobalExceptionHandler;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AdmissionInterceptorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead readBulkhead;
+    private Bulkhead writeBulkhead;
+    private AdmissionInterceptor admissionInterceptor;
+    private HandlerMethod useBalance;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        long target = TimeUnit.SECONDS.toNanos(1);
+        readBulkhead = new Bulkhead("read", 10, 1, 1, target, 2.0, 0.9, meterRegistry);
+        writeBulkhead = new Bulkhead("write", 10, 1, 1, target, 2.0, 0.9, meterRegistry);
+        admissionInterceptor = new AdmissionInterceptor(readBulkhead, writeBulkhead, meterRegistry);
+        useBalance = new HandlerMethod(mock(TransactionController.class),
+                TransactionController.class.getMethod("useBalance", UseBalance.Request.class));
+    }
+
+    @Test
+    void rejectWhenWriteLimitReached() {
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/transaction/use");
+        assertTrue(admissionInterceptor.preHandle(first, new MockHttpServletResponse(), useBalance));
+
+        AccountException exception = assertThrows(AccountException.class, () -> admissionInterceptor.preHandle(
+                new MockHttpServletRequest("POST", "/transaction/use"), new MockHttpServletResponse(), useBalance));
+        assertEquals(ErrorCode.SERVICE_OVERLOADED, exception.getErrorCode());
+        assertEquals(1.0, meterRegistry.counter("account.admission.rejected",
+                "bulkhead", "write", "endpoint", "useBalance").count());
+
+        // 읽기 요청은 쓰기 벌크헤드의 영향을 받지 않는다.
+        assertTrue(admissionInterceptor.preHandle(
+                new MockHttpServletRequest("GET", "/transaction/1"), new MockHttpServletResponse(), useBalance));
+    }
+
+    @Test
+    void releaseAfterAsyncDispatch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/transaction/use");
+        assertTrue(admissionInterceptor.preHandle(request, new MockHttpServletResponse(), useBalance));
+
+        // 비동기 디스패치에서는 다시 입장하지 않고, 완료 시 한 번만 반납한다.
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(admissionInterceptor.preHandle(request, new MockHttpServletResponse(), useBalance));
+        admissionInterceptor.afterCompletion(request, new MockHttpServletResponse(), useBalance, null);
+        admissionInterceptor.afterCompletion(request, new MockHttpServletResponse(), useBalance, null);
+
+        assertTrue(writeBulkhead.tryAcquire("useBalance"));
+        assertEquals(1.0, meterRegistry.get("account.admission.inflight").tag("bulkhead", "write").gauge().value());
+    }
+
+    @Test
+    void classifyErrorResponses() {
+        MockHttpServletRequest success = new MockHttpServletRequest("POST", "/transaction/use");
+        assertEquals(Outcome.SUCCESS, AdmissionInterceptor.outcome(success, null));
+
+        // 업무상 거절은 HTTP 200 으로 응답하므로 예외 처리기가 남긴 속성으로 구분한다.
+        MockHttpServletRequest rejected = new MockHttpServletRequest("POST", "/transaction/use");
+        rejected.setAttribute(GlobalExceptionHandler.ERROR_CODE_ATTRIBUTE, ErrorCode.RATE_LIMIT_EXCEEDED);
+        assertEquals(Outcome.REJECTED, AdmissionInterceptor.outcome(rejected, null));
+
+        MockHttpServletRequest failed = new MockHttpServletRequest("POST", "/transaction/use");
+        failed.setAttribute(GlobalExceptionHandler.ERROR_CODE_ATTRIBUTE, ErrorCode.INTERNAL_SERVER_ERROR);
+        assertEquals(Outcome.FAILURE, AdmissionInterceptor.outcome(failed, null));
+        assertEquals(Outcome.FAILURE, AdmissionInterceptor.outcome(success, new IllegalStateException()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.account.cache;
+
+import com.example.account.domain.AccountUser;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountUserCacheTest {
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private AccountUserCache accountUserCache;
+
+    @Test
+    void evictUser() {
+        given(entityManagerFactory.getCache()).willReturn(cache);
+
+        accountUserCache.evict(12L);
+
+        verify(cache).evict(AccountUser.class, 12L);
+    }
+
+    @Test
+    void evictAllUsers() {
+        given(entityManagerFactory.getCache()).willReturn(cache);
+
+        accountUserCache.evictAll();
+
+        verify(cache).evict(AccountUser.class);
+    }
+
+    @Test
+    void hitRatio(@Mock SessionFactory sessionFactory, @Mock Statistics statistics,
+                  @Mock CacheRegionStatistics regionStatistics) {
+        given(entityManagerFactory.unwrap(SessionFactory.class)).willReturn(sessionFactory);
+        given(sessionFactory.getStatistics()).willReturn(statistics);
+        given(statistics.getDomainDataRegionStatistics(AccountUser.CACHE_REGION)).willReturn(regionStatistics);
+        given(regionStatistics.getHitCount()).willReturn(90L);
+        given(regionStatistics.getMissCount()).willReturn(10L);
+        given(regionStatistics.getPutCount()).willReturn(10L);
+        given(regionStatistics.getElementCountInMemory()).willReturn(10L);
+
+        Map<String, Object> stats = accountUserCache.stats();
+
+        assertEquals(90L, stats.get("hits"));
+        assertEquals(0.9, (double) stats.get("hitRatio"), 1e-9);
+        assertEquals(10L, stats.get("entries"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.account.coldstorage;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.TransactionArchive;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.service.LockProvider;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ColdStorageExporterTest {
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @TempDir
+    Path dir;
+
+    private ColdStorageService coldStorageService;
+    private ColdStorageExporter coldStorageExporter;
+
+    @BeforeEach
+    void setUp() {
+        coldStorageService = new ColdStorageService();
+        ReflectionTestUtils.setField(coldStorageService, "dir", dir.toString());
+        ReflectionTestUtils.setField(coldStorageService, "rowGroupSize", 2);
+
+        coldStorageExporter = new ColdStorageExporter(transactionArchiveRepository, coldStorageService,
+                lockProvider, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coldStorageExporter, "pageSize", 1000);
+        ReflectionTestUtils.setField(coldStorageExporter, "maxRowsPerFile", 5_000_000);
+        ReflectionTestUtils.setField(coldStorageExporter, "maxMonthsPerRun", 3);
+        ReflectionTestUtils.setField(coldStorageExporter, "afterMonths", 24);
+        ReflectionTestUtils.setField(coldStorageExporter, "lockLease", Duration.ofHours(2));
+    }
+
+    @Test
+    void cutoffIsStartOfMonth() {
+        assertEquals(LocalDateTime.of(2024, 10, 1, 0, 0),
+                coldStorageExporter.cutoff(LocalDate.of(2026, 10, 19)));
+    }
+
+    @Test
+    void refuseToStartWithoutSharedDir() {
+        assertThrows(IllegalStateException.class, coldStorageExporter::checkSharedDir);
+
+        ReflectionTestUtils.setField(coldStorageExporter, "sharedDir", true);
+        coldStorageExporter.checkSharedDir();
+    }
+
+    @Test
+    void exportMonthThenDeleteArchivedRows() {
+        List<TransactionArchive> rows = List.of(
+                archive(3L, "1000000001", 1), archive(1L, "1000000001", 2), archive(2L, "1000000002", 1));
+        given(transactionArchiveRepository.findByTransactedAtGreaterThanEqualAndTransactedAtLessThan(
+                any(), any(), any()))
+                .willReturn(new SliceImpl<>(rows));
+
+        assertEquals(3, coldStorageExporter.exportMonth(MONTH));
+
+        verify(transactionArchiveRepository).deleteAllByIdInBatch(List.of(3L, 1L, 2L));
+        assertEquals(1, coldStorageService.files(MONTH).size());
+        assertEquals(2, coldStorageService.findByAccountNumber("1000000001", null, null).size());
+        // 지운 뒤에도 거래 id 로 찾을 수 있다.
+        assertEquals("t1", coldStorageService.findByTransactionId("1000000001", "t1").get().getTransactionId());
+        assertTrue(coldStorageService.findByTransactionId("1000000002", "t1").isEmpty());
+    }
+
+    @Test
+    void skipRowsAlreadyInColdStorage() throws IOException {
+        try (ColdTransactionFileWriter writer = coldStorageService.newWriter(MONTH)) {
+            writer.append(archive(3L, "1000000001", 1));
+        }
+        given(transactionArchiveRepository.findByTransactedAtGreaterThanEqualAndTransactedAtLessThan(
+                any(), any(), any()))
+                .willReturn(new SliceImpl<>(List.of(archive(3L, "1000000001", 1), archive(4L, "1000000001", 2))));
+
+        assertEquals(1, coldStorageExporter.exportMonth(MONTH));
+
+        verify(transactionArchiveRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        assertEquals(2, coldStorageService.files(MONTH).size());
+        assertEquals(2, coldStorageService.findByAccountNumber("1000000001",
+                MONTH.atDay(1).atStartOfDay(), MONTH.plusMonths(1).atDay(1).atStartOfDay()).size());
+    }
+
+    private static TransactionArchive archive(Long id, String accountNumber, int day) {
+        return TransactionArchive.builder()
+                .id(id)
+                .account(Account.builder().accountNumber(accountNumber).build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("t" + id)
+                .transactedAt(MONTH.atDay(day).atTime(10, 0))
+                .build();
+    }
+}
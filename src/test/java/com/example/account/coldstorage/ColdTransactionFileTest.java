@@ -0,0 +1,118 @@
+package com.example.account.coldstorage;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.TransactionArchive;
+import com.example.account.dto.TransactionDto;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdTransactionFileTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 30, 0, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void scanAccountAcrossRowGroups() throws IOException {
+        Path path = write(dir.resolve("transactions-2024-03-000.actx"), 3);
+
+        ColdTransactionFile file = ColdTransactionFile.open(path);
+        List<TransactionDto> transactions = new ArrayList<>();
+        file.scan("1000000002", null, null, transactions::add);
+
+        assertEquals(12, file.rowCount());
+        assertEquals(BASE, file.minTransactedAt());
+        assertEquals(4, transactions.size());
+        assertEquals(List.of("t20", "t21", "t22", "t23"), transactionIds(transactions));
+        assertEquals("1000000002", transactions.get(1).getAccountNumber());
+        assertEquals(TransactionType.CANCEL, transactions.get(1).getTransactionType());
+        assertEquals(TransactionResultType.S, transactions.get(1).getTransactionResultType());
+        assertEquals(1000L, transactions.get(1).getAmount());
+        assertEquals(-1L, transactions.get(1).getBalanceSnapshot());
+        assertEquals(BASE.plusDays(5), transactions.get(1).getTransactedAt());
+    }
+
+    @Test
+    void scanAllAccountsByTime() throws IOException {
+        ColdTransactionFile file = ColdTransactionFile.open(write(dir.resolve("transactions-2024-03-000.actx"), 5));
+        List<TransactionDto> transactions = new ArrayList<>();
+
+        file.scan(null, BASE.plusDays(5), BASE.plusDays(10), transactions::add);
+
+        assertEquals(List.of("t11", "t21", "t51"), transactionIds(transactions));
+        assertEquals(List.of("1000000001", "1000000002", "1000000005"), transactions.stream()
+                .map(TransactionDto::getAccountNumber)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void unknownAccount() throws IOException {
+        ColdTransactionFile file = ColdTransactionFile.open(write(dir.resolve("transactions-2024-03-000.actx"), 3));
+        List<TransactionDto> transactions = new ArrayList<>();
+
+        file.scan("1000000003", null, null, transactions::add);
+
+        assertTrue(transactions.isEmpty());
+        assertFalse(file.containsAccount("1000000003"));
+    }
+
+    @Test
+    void ids() throws IOException {
+        ColdTransactionFile file = ColdTransactionFile.open(write(dir.resolve("transactions-2024-03-000.actx"), 3));
+
+        assertArrayEquals(new long[]{10, 11, 12, 13, 20, 21, 22, 23, 50, 51, 52, 53}, file.ids());
+    }
+
+    @Test
+    void rejectUnsortedAccounts() throws IOException {
+        Path path = dir.resolve("transactions-2024-03-000.actx");
+        ColdTransactionFileWriter writer = new ColdTransactionFileWriter(path, 3);
+        writer.append(archive(20L, "1000000002", 0));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.append(archive(10L, "1000000001", 0)));
+        writer.abort();
+        assertFalse(Files.exists(path));
+    }
+
+    private static Path write(Path path, int rowGroupSize) throws IOException {
+        try (ColdTransactionFileWriter writer = new ColdTransactionFileWriter(path, rowGroupSize)) {
+            for (int account : new int[]{1, 2, 5}) {
+                for (int i = 0; i < 4; i++) {
+                    writer.append(archive(account * 10L + i, "100000000" + account, i));
+                }
+            }
+        }
+        return path;
+    }
+
+    private static TransactionArchive archive(Long id, String accountNumber, int i) {
+        return TransactionArchive.builder()
+                .id(id)
+                .account(Account.builder().accountNumber(accountNumber).build())
+                .transactionType(i % 2 == 0 ? TransactionType.USE : TransactionType.CANCEL)
+                .transactionResultType(TransactionResultType.S)
+                .amount(i * 1000L)
+                .balanceSnapshot(i - 2L)
+                .transactionId("t" + id)
+                .transactedAt(BASE.plusDays(i * 5L))
+                .build();
+    }
+
+    private static List<String> transactionIds(List<TransactionDto> transactions) {
+        return transactions.stream()
+                .map(TransactionDto::getTransactionId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.account.config;
+
+import com.example.account.service.ReplicaRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTemplate;
+    private TransactionTemplate readOnlyTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing-primary");
+        DataSource replica = database("routing-replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        ReplicaRouting.configure(Duration.ofSeconds(5), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.configure(Duration.ZERO, 0);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("routing-replica", readOnlyTemplate.execute(status -> whoami()));
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        assertEquals("routing-primary", writeTemplate.execute(status -> whoami()));
+    }
+
+    @Test
+    void recentlyWrittenKeyReadsPrimary() {
+        writeTemplate.executeWithoutResult(status -> ReplicaRouting.markWritten(ReplicaRouting.userKey(1L)));
+
+        assertEquals("routing-primary", readOnlyTemplate.execute(status -> {
+            ReplicaRouting.usePrimaryIfRecentlyWritten(ReplicaRouting.userKey(1L));
+            return whoami();
+        }));
+        // 트랜잭션이 끝나면 다시 복제 DB 로 간다.
+        assertEquals("routing-replica", readOnlyTemplate.execute(status -> {
+            ReplicaRouting.usePrimaryIfRecentlyWritten(ReplicaRouting.userKey(2L));
+            return whoami();
+        }));
+    }
+
+    @Test
+    void rolledBackWriteIsNotTracked() {
+        writeTemplate.executeWithoutResult(status -> {
+            ReplicaRouting.markWritten(ReplicaRouting.userKey(1L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("routing-replica", readOnlyTemplate.execute(status -> {
+            ReplicaRouting.usePrimaryIfRecentlyWritten(ReplicaRouting.userKey(1L));
+            return whoami();
+        }));
+    }
+
+    private String whoami() {
+        return jdbcTemplate.queryForObject("select name from whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists whoami (name varchar(32))");
+        jdbcTemplate.execute("delete from whoami");
+        jdbcTemplate.update("insert into whoami values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.account.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+    @Test
+    void namedVirtualThreads() {
+        Thread thread = VirtualThreads.factory("txn-").newThread(() -> { });
+
+        assertEquals("txn-0", thread.getName());
+        assertTrue(thread.isVirtual());
+    }
+
+    @Test
+    void runEachTaskOnVirtualThread() throws Exception {
+        ExecutorService executor = VirtualThreads.perTaskExecutor("http-vt-");
+        try {
+            assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
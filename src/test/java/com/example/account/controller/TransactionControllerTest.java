@@ -12,24 +12,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TransactionController.class)
+@WebMvcTest(value = TransactionController.class, properties = "transaction.use.delay-ms=0")
 public class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private ThreadPoolTaskExecutor transactionExecutor;
+
+    @Autowired
+    private TransactionController transactionController;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -48,11 +64,15 @@ public class TransactionControllerTest {
                         .build());
 
 
-        mockMvc.perform(post("/transaction/use")
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/use")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
                                 new UseBalance.Request(1L, "1234567890", 1000L)))
-                ).andDo(print())
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$.transactionResultType").value("S"))
@@ -60,6 +80,60 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    void useBalanceAfterDelayOnExecutor() throws Exception {
+        ReflectionTestUtils.setField(transactionController, "useBalanceDelayMs", 50L);
+        willAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).given(transactionExecutor).execute(any(Runnable.class));
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build());
+
+        try {
+            MvcResult mvcResult = mockMvc.perform(post("/transaction/use")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new UseBalance.Request(1L, "1234567890", 1000L)))
+                    ).andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactionId").value("transactionId"));
+        } finally {
+            ReflectionTestUtils.setField(transactionController, "useBalanceDelayMs", 0L);
+        }
+    }
+
+    @Test
+    void useBalanceRejectedByFullExecutorIsOverloaded() throws Exception {
+        ReflectionTestUtils.setField(transactionController, "useBalanceDelayMs", 10L);
+        willThrow(new RejectedExecutionException("queue full"))
+                .given(transactionExecutor).execute(any(Runnable.class));
+
+        try {
+            MvcResult mvcResult = mockMvc.perform(post("/transaction/use")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new UseBalance.Request(1L, "1234567890", 1000L)))
+                    ).andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.errorCode").value("SERVICE_OVERLOADED"));
+        } finally {
+            ReflectionTestUtils.setField(transactionController, "useBalanceDelayMs", 0L);
+        }
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
@@ -73,11 +147,15 @@ public class TransactionControllerTest {
                         .build());
 
 
-        mockMvc.perform(post("/transaction/cancel")
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/cancel")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
                                 new CancelBalance.Request("transactionId", "1234567890", 12345L)))
-                ).andDo(print())
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$.transactionResultType").value("S"))
@@ -88,7 +166,7 @@ public class TransactionControllerTest {
     @Test
     void success_queryTransaction() throws Exception {
         //given
-        given(transactionService.queryTransaction(anyString()))
+        given(transactionService.queryTransaction(anyString(), any()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactionType(TransactionType.USE)
@@ -110,4 +188,29 @@ public class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    void success_queryColdTransactions() throws Exception {
+        //given
+        given(transactionService.queryColdTransactions("1234567890", LocalDateTime.of(2022, 1, 1, 0, 0), null))
+                .willReturn(List.of(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(12345L)
+                        .transactedAt(LocalDateTime.of(2022, 3, 1, 0, 0))
+                        .transactionId("transactionId")
+                        .build()));
+
+        //when
+        //then
+        mockMvc.perform(get("/transaction/cold")
+                        .param("account_number", "1234567890")
+                        .param("from", "2022-01-01T00:00:00"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$[0].amount").value(12345));
+    }
+
 }
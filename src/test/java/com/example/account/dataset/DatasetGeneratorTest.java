@@ -0,0 +1,99 @@
+package com.example.account.dataset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+    private static final DatasetSpec SPEC = DatasetSpec.builder()
+            .users(20)
+            .accounts(150)
+            .transactions(5_000L)
+            .skew(1.0)
+            .months(12)
+            .end(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .batchSize(64)
+            .threads(3)
+            .accountsPerChunk(40)
+            .build();
+
+    @Test
+    void generateVolumes() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database("dataset-volumes"));
+
+        Dataset dataset = new DatasetGenerator(jdbcTemplate.getDataSource()).generate(SPEC);
+
+        assertEquals(20, count(jdbcTemplate, "account_user"));
+        assertEquals(150, count(jdbcTemplate, "account"));
+        assertEquals(5_000, count(jdbcTemplate, "transaction"));
+        assertEquals("1000000000", dataset.accountNumber(0));
+        // 이후 엔티티 저장이 만든 id 와 겹치지 않는다.
+        assertEquals(dataset.transactionId(5_000L),
+                jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class));
+        // 사용자당 계좌 수 제한을 넘지 않는다.
+        assertEquals(8, jdbcTemplate.queryForObject(
+                "select max(c) from (select count(*) c from account group by account_user_id)", Integer.class));
+    }
+
+    @Test
+    void balanceMatchesLastSnapshot() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database("dataset-balances"));
+
+        new DatasetGenerator(jdbcTemplate.getDataSource()).generate(SPEC);
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from account a join transaction t on t.account_id = a.id " +
+                        "where t.id = (select max(id) from transaction where account_id = a.id) " +
+                        "and t.balance_snapshot <> a.balance", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from transaction t join transaction n " +
+                        "on n.account_id = t.account_id and n.id = t.id + 1 " +
+                        "where n.transacted_at < t.transacted_at", Integer.class));
+    }
+
+    @Test
+    void sameSeedSameData() {
+        JdbcTemplate first = new JdbcTemplate(database("dataset-seed-1"));
+        JdbcTemplate second = new JdbcTemplate(database("dataset-seed-2"));
+
+        new DatasetGenerator(first.getDataSource()).generate(SPEC);
+        new DatasetGenerator(second.getDataSource()).generate(SPEC.toBuilder().threads(1).batchSize(7).build());
+
+        assertEquals(transactions(first), transactions(second));
+    }
+
+    private static List<String> transactions(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList(
+                "select concat(id, account_id, transaction_type, transaction_result_type, amount, " +
+                        "balance_snapshot, transaction_id, transacted_at) from transaction order by id",
+                String.class);
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    // 운영 스키마에서 생성기가 쓰는 컬럼만 만든다.
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create sequence hibernate_sequence start with 1 increment by 1");
+        jdbcTemplate.execute("create table account_user (id bigint primary key, name varchar(255), " +
+                "created_at timestamp, updated_at timestamp)");
+        jdbcTemplate.execute("create table account (id bigint primary key, " +
+                "account_user_id bigint references account_user(id), account_number varchar(255), " +
+                "account_status varchar(255), balance bigint, registered_at timestamp, unregistered_at timestamp, " +
+                "created_at timestamp, updated_at timestamp)");
+        jdbcTemplate.execute("create table transaction (id bigint primary key, transaction_type varchar(255), " +
+                "transaction_result_type varchar(255), account_id bigint references account(id), amount bigint, " +
+                "balance_snapshot bigint, transaction_id varchar(255), transacted_at timestamp, " +
+                "created_at timestamp, updated_at timestamp)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.account.exception;
+
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlobalExceptionHandlerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        globalExceptionHandler = new GlobalExceptionHandler(objectMapper,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                        .getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void countErrorsInInjectedRegistry() throws Exception {
+        globalExceptionHandler.handleAccountException(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        globalExceptionHandler.handleAccountException(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        assertEquals(2.0, meterRegistry.get("account.errors")
+                .tag("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE.name())
+                .counter()
+                .count());
+    }
+
+    @Test
+    void rejectedExecutionIsOverloaded() throws Exception {
+        byte[] body = globalExceptionHandler.handleRejectedExecutionException(
+                new RejectedExecutionException("queue full")).getBody();
+
+        assertTrue(objectMapper.readTree(body).get("errorCode").asText().equals("SERVICE_OVERLOADED"));
+        assertEquals(1.0, meterRegistry.get("account.errors")
+                .tag("errorCode", ErrorCode.SERVICE_OVERLOADED.name())
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.account.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class AccountEventTest {
+    @Test
+    void commitHashedAccountNumberAndEndpoint() throws InterruptedException {
+        BlockingQueue<RecordedEvent> events = new ArrayBlockingQueue<>(1);
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(LockAcquireEvent.class).withThreshold(Duration.ZERO);
+            stream.onEvent("com.example.account.LockAcquire", events::offer);
+            stream.startAsync();
+
+            LockAcquireEvent event = new LockAcquireEvent();
+            event.begin();
+            event.commit("1000000012", "useBalance");
+
+            RecordedEvent recorded = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(recorded);
+            assertEquals("useBalance", recorded.getString("endpoint"));
+            // 계좌번호 원문은 남기지 않는다.
+            assertNotEquals(0, recorded.getInt("accountNumberHash"));
+            assertNotEquals("1000000012".hashCode(), recorded.getInt("accountNumberHash"));
+            assertEquals("계좌 락 획득 대기", recorded.getEventType().getDescription());
+        }
+    }
+
+    @Test
+    void nullAccountNumberHashesToZero() throws InterruptedException {
+        BlockingQueue<RecordedEvent> events = new ArrayBlockingQueue<>(1);
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(ValidationEvent.class).withThreshold(Duration.ZERO);
+            stream.onEvent("com.example.account.Validation", events::offer);
+            stream.startAsync();
+
+            ValidationEvent event = new ValidationEvent();
+            event.begin();
+            event.commit(null, "createAccount");
+
+            RecordedEvent recorded = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(recorded);
+            assertEquals(0, recorded.getInt("accountNumberHash"));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.account.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountFlightRecorderTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(AccountFlightRecorder.class, JfrDumpEndpoint.class);
+
+    @TempDir
+    Path dumpDir;
+
+    @Test
+    void disabledByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(AccountFlightRecorder.class);
+            assertThat(context).doesNotHaveBean(JfrDumpEndpoint.class);
+        });
+    }
+
+    @Test
+    void dumpContinuousRecordingThroughEndpoint() {
+        contextRunner
+                .withPropertyValues("jfr.continuous.enabled=true",
+                        "jfr.continuous.dump-dir=" + dumpDir)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(AccountFlightRecorder.class);
+
+                    CommitEvent event = new CommitEvent();
+                    event.begin();
+                    event.commit("1000000012", "useBalance");
+
+                    Map<String, String> result = context.getBean(JfrDumpEndpoint.class).dump();
+
+                    Path file = Paths.get(result.get("file"));
+                    assertTrue(Files.exists(file));
+                    assertEquals(dumpDir.toAbsolutePath(), file.getParent());
+                    assertTrue(events(file).stream()
+                            .anyMatch(e -> e.getEventType().getName().equals("com.example.account.Commit")
+                                    && "useBalance".equals(e.getString("endpoint"))));
+                });
+    }
+
+    private static List<RecordedEvent> events(Path file) throws IOException {
+        return RecordingFile.readAllEvents(file);
+    }
+}
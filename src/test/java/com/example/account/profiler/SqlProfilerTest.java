@@ -0,0 +1,81 @@
+package com.example.account.profiler;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlProfilerTest {
+    private SqlProfiler sqlProfiler;
+
+    @BeforeEach
+    void setUp() {
+        sqlProfiler = new SqlProfiler();
+        ReflectionTestUtils.setField(sqlProfiler, "slowQueryMillis", 100L);
+        ReflectionTestUtils.setField(sqlProfiler, "slowQueryCapacity", 2);
+        ReflectionTestUtils.setField(sqlProfiler, "nPlusOneThreshold", 3);
+    }
+
+    @Test
+    void countStatementsPerScope() {
+        sqlProfiler.enter("TransactionController.useBalance");
+        sqlProfiler.enter("TransactionService.useBalance");
+        execute("select * from account where account_number=?", 1L);
+        sqlProfiler.exit();
+        execute("insert into transaction values (?)", 1L);
+        sqlProfiler.exit();
+
+        Map<String, Map<String, Object>> stats = sqlProfiler.getStats();
+        assertEquals(2L, stats.get("TransactionController.useBalance").get("statements"));
+        assertEquals(1L, stats.get("TransactionService.useBalance").get("statements"));
+    }
+
+    @Test
+    void detectNPlusOneAndRepeatedQueries() {
+        sqlProfiler.enter("AccountService.getAccountByUserId");
+        execute("select * from account_user where id=?", 1L);
+        execute("select * from account_user where id=?", 1L);
+        execute("select * from account_user where id=?", 2L);
+        sqlProfiler.exit();
+
+        Map<String, Object> stats = sqlProfiler.getStats().get("AccountService.getAccountByUserId");
+        assertEquals(1L, stats.get("nPlusOneSuspects"));
+        assertEquals(1L, stats.get("repeatedQueries"));
+    }
+
+    @Test
+    void keepOnlyLatestSlowQueries() {
+        sqlProfiler.enter("TransactionService.queryTransaction");
+        for (long elapsed = 100L; elapsed < 400L; elapsed += 100L) {
+            executeWithElapsed("select * from transaction where transaction_id=?", elapsed);
+        }
+        sqlProfiler.exit();
+
+        List<SlowQuery> slowQueries = sqlProfiler.getSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals(200L, slowQueries.get(0).getElapsedMillis());
+        assertEquals(300L, slowQueries.get(1).getElapsedMillis());
+    }
+
+    private void execute(String query, Object parameter) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(1L);
+        QueryInfo queryInfo = new QueryInfo(query);
+        queryInfo.getParametersList().add(List.of(
+                new ParameterSetOperation(null, new Object[]{1, parameter})));
+        sqlProfiler.afterQuery(executionInfo, List.of(queryInfo));
+    }
+
+    private void executeWithElapsed(String query, long elapsed) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsed);
+        sqlProfiler.afterQuery(executionInfo, List.of(new QueryInfo(query)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.account.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountChainTest {
+    @Test
+    void consistentChain() {
+        AccountChain chain = new AccountChain(1L, "1000000000", null, 0L);
+
+        // 첫 거래는 기준이 된다.
+        assertNull(chain.accept(10L, USE, S, 1000L, 9000L));
+        assertNull(chain.accept(11L, USE, F, 50000L, 9000L));
+        assertNull(chain.accept(12L, CANCEL, S, 1000L, 10000L));
+
+        assertTrue(chain.isAdvanced());
+        assertEquals(12L, chain.getLastTransactionId());
+        assertTrue(chain.balanceMatches(10000L));
+        assertFalse(chain.balanceMatches(9000L));
+    }
+
+    @Test
+    void brokenSnapshotDoesNotCascade() {
+        AccountChain chain = new AccountChain(1L, "1000000000", 10000L, 5L);
+
+        assertArrayEquals(new long[]{9000L, 8000L}, chain.accept(10L, USE, S, 1000L, 8000L));
+        // 어긋난 스냅샷에서 이어서 검증한다.
+        assertNull(chain.accept(11L, USE, S, 1000L, 7000L));
+        assertEquals(7000L, chain.getLastSnapshot());
+    }
+
+    @Test
+    void skipAlreadyVerifiedTransactions() {
+        AccountChain chain = new AccountChain(1L, "1000000000", 9000L, 11L);
+
+        assertNull(chain.accept(10L, USE, S, 1000L, 123L));
+        assertNull(chain.accept(11L, USE, S, 1000L, 456L));
+        assertFalse(chain.isAdvanced());
+        assertNull(chain.accept(12L, USE, S, 1000L, 8000L));
+        assertEquals(8000L, chain.getLastSnapshot());
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.account.reconciliation;
+
+import com.example.account.domain.ReconciliationCheckpoint;
+import com.example.account.domain.ReconciliationMismatch;
+import com.example.account.repository.ReconciliationCheckpointRepository;
+import com.example.account.repository.ReconciliationMismatchRepository;
+import com.example.account.service.LockProvider;
+import com.example.account.type.ReconciliationMismatchType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconcilerTest {
+    @Mock
+    private ReconciliationMismatchRepository mismatchRepository;
+
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    private final Map<Integer, ReconciliationCheckpoint> checkpoints = new HashMap<>();
+    private final List<ReconciliationMismatch> mismatches = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private BalanceReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = database("reconciler-" + UUID.randomUUID());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        reconciler = new BalanceReconciler(dataSource, mismatchRepository, checkpointRepository, lockProvider,
+                new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reconciler, "parallelism", 2);
+        ReflectionTestUtils.setField(reconciler, "leafAccounts", 1L);
+        ReflectionTestUtils.setField(reconciler, "fetchSize", 10);
+        ReflectionTestUtils.setField(reconciler, "mismatchFlushSize", 10);
+        ReflectionTestUtils.setField(reconciler, "settle", Duration.ofMinutes(5));
+
+        lenient().when(checkpointRepository.findById(anyInt()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<Integer>getArgument(0))));
+        lenient().when(checkpointRepository.save(any())).thenAnswer(invocation -> {
+            ReconciliationCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getShard(), checkpoint);
+            return checkpoint;
+        });
+        lenient().when(mismatchRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<ReconciliationMismatch>>getArgument(0).forEach(mismatches::add);
+            return null;
+        });
+    }
+
+    @Test
+    void checkpointStopsBeforeUnsettledTransactions() {
+        account(1L, 8000L);
+        transaction(10L, 1L, "USE", "S", 1000L, 9000L, LocalDateTime.now().minusHours(1));
+        // 방금 id 를 받은 거래. 이보다 작은 id 의 거래가 아직 커밋 전일 수 있다.
+        transaction(11L, 1L, "USE", "S", 1000L, 8000L, LocalDateTime.now());
+
+        ReconciliationResult result = reconciler.reconcile();
+
+        assertEquals(0L, result.getFromTransactionId());
+        assertEquals(10L, result.getToTransactionId());
+        assertEquals(1L, result.getTransactions());
+        // 구간 이후 거래가 있는 계좌의 잔액은 다음 실행에서 본다.
+        assertEquals(0L, result.getMismatches());
+        assertEquals(10L, checkpoints.get(0).getLastTransactionId());
+        assertEquals(Arrays.asList(10L, 9000L), state(1L));
+    }
+
+    @Test
+    void lateCommitIsReconciledByNextRun() {
+        account(1L, 8000L);
+        account(2L, 5000L);
+        transaction(10L, 1L, "USE", "S", 1000L, 9000L, LocalDateTime.now().minusHours(1));
+        // id 11 을 받은 거래가 아직 커밋 전일 때 12 가 먼저 커밋됐다.
+        transaction(12L, 1L, "USE", "S", 1000L, 8000L, LocalDateTime.now());
+        assertEquals(10L, reconciler.reconcile().getToTransactionId());
+
+        transaction(11L, 2L, "USE", "S", 5000L, 5000L, LocalDateTime.now());
+        // settle 만큼 시간이 지났다.
+        ReflectionTestUtils.setField(reconciler, "settle", Duration.ZERO);
+        ReconciliationResult result = reconciler.reconcile();
+
+        assertEquals(10L, result.getFromTransactionId());
+        assertEquals(12L, result.getToTransactionId());
+        assertEquals(2L, result.getTransactions());
+        assertEquals(0L, result.getMismatches());
+        assertEquals(Arrays.asList(11L, 5000L), state(2L));
+        assertEquals(Arrays.asList(12L, 8000L), state(1L));
+    }
+
+    @Test
+    void chainContinuesAcrossRuns() {
+        account(1L, 9000L);
+        transaction(10L, 1L, "USE", "S", 1000L, 9000L, LocalDateTime.now().minusHours(2));
+        assertEquals(0L, reconciler.reconcile().getMismatches());
+
+        jdbcTemplate.update("update account set balance = 8000 where id = 1");
+        transaction(11L, 1L, "USE", "S", 1000L, 7500L, LocalDateTime.now().minusHours(1));
+        ReconciliationResult result = reconciler.reconcile();
+
+        assertEquals(10L, result.getFromTransactionId());
+        assertEquals(11L, result.getToTransactionId());
+        assertEquals(1L, result.getTransactions());
+        // 지난 실행의 스냅샷 9000 에서 이어서 8000 을 기대하고, 잔액도 마지막 스냅샷과 다르다.
+        assertEquals(2L, result.getMismatches());
+        assertEquals(ReconciliationMismatchType.SNAPSHOT_CHAIN, mismatches.get(0).getMismatchType());
+        assertEquals(8000L, mismatches.get(0).getExpected());
+        assertEquals(7500L, mismatches.get(0).getActual());
+        assertEquals(ReconciliationMismatchType.BALANCE, mismatches.get(1).getMismatchType());
+        assertEquals(Arrays.asList(11L, 7500L), state(1L));
+    }
+
+    @Test
+    void nothingSettledKeepsCheckpoint() {
+        account(1L, 9000L);
+        transaction(10L, 1L, "USE", "S", 1000L, 9000L, LocalDateTime.now());
+
+        ReconciliationResult result = reconciler.reconcile();
+
+        assertEquals(0L, result.getToTransactionId());
+        assertTrue(checkpoints.isEmpty());
+    }
+
+    private void account(long id, long balance) {
+        jdbcTemplate.update("insert into account (id, account_number, balance) values (?, ?, ?)",
+                id, String.valueOf(1000000000L + id), balance);
+    }
+
+    private void transaction(long id, long accountId, String type, String result, long amount,
+                             long balanceSnapshot, LocalDateTime transactedAt) {
+        jdbcTemplate.update("insert into transaction (id, account_id, transaction_type, transaction_result_type, " +
+                        "amount, balance_snapshot, transaction_id, transacted_at) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, accountId, type, result, amount, balanceSnapshot, "tx-" + id, Timestamp.valueOf(transactedAt));
+    }
+
+    private List<Long> state(long accountId) {
+        return jdbcTemplate.query(
+                "select last_transaction_id, last_snapshot from reconciliation_account_state where account_id = ?",
+                (rs, rowNum) -> Arrays.asList(rs.getLong(1), rs.getLong(2)), accountId)
+                .stream().findFirst().orElse(Collections.emptyList());
+    }
+
+    // 운영 스키마에서 대사가 읽는 컬럼만 만든다.
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table account (id bigint primary key, account_number varchar(255), " +
+                "balance bigint)");
+        jdbcTemplate.execute("create table transaction (id bigint primary key, account_id bigint, " +
+                "transaction_type varchar(255), transaction_result_type varchar(255), amount bigint, " +
+                "balance_snapshot bigint, transaction_id varchar(255), transacted_at timestamp)");
+        jdbcTemplate.execute("create table reconciliation_account_state (account_id bigint primary key, " +
+                "last_transaction_id bigint, last_snapshot bigint)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:account-number-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        allocator = new AccountNumberAllocator(dataSource, accountRepository,
+                new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void firstAccountNumber() {
+        given(accountRepository.findFirstByOrderByIdDesc()).willReturn(Optional.empty());
+
+        assertEquals("1000000000", allocator.next());
+        assertEquals("1000000001", allocator.next());
+    }
+
+    @Test
+    void continueAfterExistingAccounts() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder().accountNumber("1000000012").build()));
+
+        assertEquals("1000000013", allocator.next());
+        assertEquals("1000000014", allocator.next());
+        // 시퀀스를 만든 뒤에는 기존 계좌를 다시 보지 않는다.
+        verify(accountRepository, times(1)).findFirstByOrderByIdDesc();
+    }
+
+    @Test
+    void concurrentCallersGetDistinctNumbers() throws Exception {
+        given(accountRepository.findFirstByOrderByIdDesc()).willReturn(Optional.empty());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(allocator::next));
+            }
+            Set<String> numbers = new HashSet<>();
+            for (Future<String> future : futures) {
+                numbers.add(future.get());
+            }
+            assertEquals(200, numbers.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.example.account.service;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.dto.AccountDto;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.repository.AccountRepository;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.OutboxEventType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +37,12 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -47,12 +56,8 @@ class AccountServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountNumber("1000000012")
-                                .build()));
+        given(accountNumberAllocator.next())
+                .willReturn("1000000013");
 
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
@@ -66,33 +71,7 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000013", accountDto.getAccountNumber());
-    }
-
-    @Test
-    void createFirstAccount() {
-        AccountUser accountUser = AccountUser.builder()
-                .id(15L)
-                .name("Pobi")
-                .build();
-
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(accountUser));
-
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
-
-        given(accountRepository.save(any()))
-                .willReturn(Account.builder()
-                        .accountUser(accountUser)
-                        .accountNumber("1000000015")
-                        .build());
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-
-        AccountDto accountDto = accountService.createAccount(1L, 100L);
-
-        verify(accountRepository, times(1)).save(captor.capture());
-        assertEquals(15L, accountDto.getUserId());
-        assertEquals("1000000000", captor.getValue().getAccountNumber());
+        assertEquals("1000000013", captor.getValue().getAccountNumber());
     }
 
     @Test
@@ -154,6 +133,11 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000012", accountDto.getAccountNumber());
+
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(outboxCaptor.capture());
+        assertEquals(OutboxEventType.ACCOUNT_UNREGISTERED, outboxCaptor.getValue().getEventType());
+        assertEquals("1000000012", outboxCaptor.getValue().getAccountNumber());
     }
 
     @Test
@@ -0,0 +1,69 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockProviderTest {
+    private final InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+
+    @Test
+    void lockAndUnlock() throws InterruptedException {
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 1_000L));
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 1_000L));
+    }
+
+    @Test
+    void failWhenHeldByOtherOwner() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 1_000L).join());
+
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -2L, 0L, 1_000L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -2L, 50L, 1_000L).join());
+    }
+
+    @Test
+    void handOffToWaiterOnUnlock() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 1_000L).join());
+        CompletableFuture<Boolean> waiter = lockProvider.tryLockAsync("ACLK:1", -2L, 1_000L, 1_000L);
+        assertFalse(waiter.isDone());
+
+        lockProvider.unlockAsync("ACLK:1", -1L).join();
+
+        assertTrue(waiter.join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void handOffToWaiterOnLeaseExpiry() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 50L).join());
+
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -2L, 1_000L, 1_000L).join());
+    }
+
+    @Test
+    void unlockByOtherOwnerKeepsLock() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 1_000L).join());
+
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+        assertDoesNotThrow(() -> lockProvider.unlockAsync("ACLK:1", -2L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void unlockExpiredLeaseTakenOver() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 50L).join());
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -2L, 1_000L, 1_000L).join());
+
+        // lease 가 지난 뒤의 해제는 예외 없이 끝나고, 가져간 소유자의 락은 그대로다.
+        assertDoesNotThrow(() -> lockProvider.unlockAsync("ACLK:1", -1L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void unlockNeverLocked() {
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+    }
+}
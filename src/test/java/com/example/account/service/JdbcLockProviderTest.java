@@ -0,0 +1,97 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcLockProviderTest {
+    private JdbcTemplate jdbcTemplate;
+    private JdbcLockProvider lockProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:jdbc-lock-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        lockProvider = new JdbcLockProvider(jdbcTemplate, 2);
+    }
+
+    @Test
+    void lockAndUnlock() throws InterruptedException {
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 1_000L));
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 1_000L));
+        // 풀어도 행은 남겨 다음 잠금은 update 한 번으로 끝난다.
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from account_lock", Integer.class));
+    }
+
+    @Test
+    void failWhenHeldByOtherOwner() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 1_000L).join());
+
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -2L, 0L, 1_000L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -2L, 50L, 1_000L).join());
+    }
+
+    @Test
+    void otherInstanceIsOtherOwner() throws InterruptedException {
+        JdbcLockProvider otherInstance = new JdbcLockProvider(jdbcTemplate, 1);
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 1_000L));
+
+        assertFalse(otherInstance.tryLock("ACLK:1", 0L, 1_000L));
+    }
+
+    @Test
+    void waiterAcquiresAfterUnlock() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 5_000L).join());
+        CompletableFuture<Boolean> waiter = lockProvider.tryLockAsync("ACLK:1", -2L, 2_000L, 1_000L);
+
+        lockProvider.unlockAsync("ACLK:1", -1L).join();
+
+        assertTrue(waiter.join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void takeOverExpiredLease() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 50L).join());
+
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -2L, 1_000L, 1_000L).join());
+        // 가져간 뒤의 이전 소유자 해제는 예외 없이 끝나고, 가져간 소유자의 락은 풀리지 않는다.
+        assertDoesNotThrow(() -> lockProvider.unlockAsync("ACLK:1", -1L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void unlockExpiredLease() throws InterruptedException {
+        assertTrue(lockProvider.tryLock("ACLK:1", 0L, 50L));
+        Thread.sleep(100L);
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -2L, 0L, 1_000L).join());
+
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void unlockByOtherOwnerKeepsLock() {
+        assertTrue(lockProvider.tryLockAsync("ACLK:1", -1L, 0L, 1_000L).join());
+
+        assertDoesNotThrow(() -> lockProvider.unlock("ACLK:1"));
+        assertDoesNotThrow(() -> lockProvider.unlockAsync("ACLK:1", -2L).join());
+        assertFalse(lockProvider.tryLockAsync("ACLK:1", -3L, 0L, 1_000L).join());
+    }
+
+    @Test
+    void backoffGrowsToCeiling() {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            long backoff = JdbcLockProvider.backoff(attempt);
+            assertTrue(backoff >= 2 && backoff <= JdbcLockProvider.MAX_BACKOFF_MILLIS, "backoff : " + backoff);
+        }
+        assertTrue(JdbcLockProvider.backoff(10) >= JdbcLockProvider.MAX_BACKOFF_MILLIS / 2);
+    }
+}
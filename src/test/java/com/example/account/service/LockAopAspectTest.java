@@ -1,19 +1,29 @@
 package com.example.account.service;
 
+import com.example.account.controller.TransactionController;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,18 +32,35 @@ public class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private ThreadPoolTaskExecutor transactionExecutor;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
-    @InjectMocks
+    @Mock
+    private MethodSignature methodSignature;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private LockAopAspect lockAopAspect;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockAopAspect = new LockAopAspect(lockService, transactionExecutor, meterRegistry);
+    }
+
     @Test
     void lockAndUnlock() throws Throwable {
         ArgumentCaptor<String> lockArgumentCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> unlockArgumentCaptor = ArgumentCaptor.forClass(String.class);
         UseBalance.Request request = new UseBalance.Request(12L, "1000000000", 100000L);
 
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(Object.class);
+        given(lockService.lock(anyString())).willReturn(true);
         given(proceedingJoinPoint.proceed())
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
@@ -46,5 +73,77 @@ public class LockAopAspectTest {
         assertEquals("1000000000", lockArgumentCaptor.getValue());
         assertEquals("1000000000", unlockArgumentCaptor.getValue());
     }
-}
 
+    @Test
+    void lockAndUnlockAsync() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(12L, "1000000000", 100000L);
+
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(CompletableFuture.class);
+        given(methodSignature.getMethod())
+                .willReturn(TransactionController.class.getMethod("useBalance", UseBalance.Request.class));
+        given(lockService.lockAsync(anyString(), anyLong())).willReturn(CompletableFuture.completedFuture(-1L));
+        given(lockService.unlockAsync(anyString(), anyLong())).willReturn(CompletableFuture.completedFuture(null));
+        willAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).given(transactionExecutor).execute(any(Runnable.class));
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        CompletableFuture<?> result =
+                (CompletableFuture<?>) lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, ((AccountException) exception.getCause()).getErrorCode());
+        verify(lockService, times(1)).lockAsync("1000000000", 5000L);
+        verify(lockService, times(1)).unlockAsync("1000000000", -1L);
+        assertEquals(1, meterRegistry.get("account.lock.hold")
+                .tag("endpoint", "useBalance")
+                .timer().count());
+    }
+
+    @Test
+    void lockFailAsync() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(12L, "1000000000", 100000L);
+
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(CompletableFuture.class);
+        given(methodSignature.getMethod())
+                .willReturn(TransactionController.class.getMethod("useBalance", UseBalance.Request.class));
+        given(lockService.lockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+
+        CompletableFuture<?> result =
+                (CompletableFuture<?>) lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ((AccountException) exception.getCause()).getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(lockService, never()).unlockAsync(anyString(), anyLong());
+        assertEquals(1, meterRegistry.get("account.lock.wait")
+                .tag("endpoint", "useBalance")
+                .tag("result", "failed")
+                .timer().count());
+    }
+
+    @Test
+    void proceedWithRowLockWhenRedisUnavailable() throws Throwable {
+        UseBalance.Request request = new UseBalance.Request(12L, "1000000000", 100000L);
+
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getName()).willReturn("useBalance");
+        given(methodSignature.getReturnType()).willReturn(Object.class);
+        given(lockService.lock(anyString())).willReturn(false);
+        given(proceedingJoinPoint.proceed()).willReturn("result");
+
+        assertEquals("result", lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+
+        verify(lockService, never()).unlock(anyString());
+        assertEquals(1, meterRegistry.get("account.lock.fallback")
+                .tag("endpoint", "useBalance")
+                .counter().count());
+    }
+}
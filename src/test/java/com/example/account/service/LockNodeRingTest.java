@@ -0,0 +1,95 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class LockNodeRingTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    void spreadKeysAcrossNodes() {
+        LockNodeRing lockNodeRing = new LockNodeRing(128, nodes("node-1", "node-2", "node-3"));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(lockNodeRing.nodeNameFor("ACLK:" + (1_000_000_000L + i)), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS / 3 * 0.7, "unbalanced : " + counts));
+    }
+
+    @Test
+    void moveOnlyPartOfKeysWhenNodeAdded() {
+        LockNodeRing before = new LockNodeRing(128, nodes("node-1", "node-2", "node-3"));
+        LockNodeRing after = new LockNodeRing(128, nodes("node-1", "node-2", "node-3", "node-4"));
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "ACLK:" + (1_000_000_000L + i);
+            String owner = after.nodeNameFor(key);
+            if (!owner.equals(before.nodeNameFor(key))) {
+                assertEquals("node-4", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved < KEYS / 2, "moved : " + moved);
+    }
+
+    @Test
+    void sameOwnerRegardlessOfNodeOrder() {
+        LockNodeRing first = new LockNodeRing(128, nodes("node-1", "node-2", "node-3"));
+        LockNodeRing second = new LockNodeRing(128, nodes("node-3", "node-1", "node-2"));
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "ACLK:" + (1_000_000_000L + i);
+            assertEquals(first.nodeNameFor(key), second.nodeNameFor(key));
+        }
+    }
+
+    @Test
+    void lockBothOwnersWhilePreviousNodesAreConfigured() {
+        RedissonClient first = mock(RedissonClient.class);
+        RedissonClient second = mock(RedissonClient.class);
+        Map<String, RedissonClient> nodes = new LinkedHashMap<>();
+        nodes.put("node-1", first);
+        nodes.put("node-2", second);
+        LockNodeRing lockNodeRing = new LockNodeRing(128, nodes, Map.of("node-1", first));
+
+        for (int i = 0; i < 100; i++) {
+            String key = "ACLK:" + (1_000_000_000L + i);
+            List<RedissonClient> clients = lockNodeRing.clientsFor(key);
+            if ("node-2".equals(lockNodeRing.nodeNameFor(key))) {
+                assertEquals(List.of(second, first), clients);
+            } else {
+                assertEquals(List.of(first), clients);
+            }
+        }
+    }
+
+    @Test
+    void singleOwnerWithoutPreviousNodes() {
+        LockNodeRing lockNodeRing = new LockNodeRing(128, nodes("node-1", "node-2"));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, lockNodeRing.clientsFor("ACLK:" + (1_000_000_000L + i)).size());
+        }
+    }
+
+    private static Map<String, RedissonClient> nodes(String... names) {
+        Map<String, RedissonClient> nodes = new LinkedHashMap<>();
+        for (String name : names) {
+            nodes.put(name, mock(RedissonClient.class));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.redis.port=6380",
+        "lock.redis.nodes=redis://127.0.0.1:6380,redis://127.0.0.1:6381,redis://127.0.0.1:6382"
+})
+class LockServiceMultiNodeTest {
+    @Autowired
+    private LockService lockService;
+
+    @Autowired
+    private LockNodeRing lockNodeRing;
+
+    @Test
+    void lockAndUnlockOnEveryNode() {
+        Set<String> nodes = new HashSet<>();
+        for (long accountNumber = 1_000_000_000L; accountNumber < 1_000_000_100L; accountNumber++) {
+            String account = String.valueOf(accountNumber);
+            nodes.add(lockNodeRing.nodeNameFor("ACLK:" + account));
+
+            assertDoesNotThrow(() -> lockService.lock(account));
+            assertDoesNotThrow(() -> lockService.unlock(account));
+
+            Long ownerId = lockService.lockAsync(account, 1000L).join();
+            lockService.unlockAsync(account, ownerId).join();
+        }
+
+        assertEquals(3, nodes.size());
+    }
+}
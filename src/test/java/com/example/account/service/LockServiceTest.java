@@ -6,39 +6,131 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class LockServiceTest {
     @Mock
-    private RedissonClient redissonClient;
+    private LockProvider lockProvider;
 
-    @Mock
-    private RLock rLock;
+    @Spy
+    private LockCircuitBreaker lockCircuitBreaker = new LockCircuitBreaker(2, 10_000L);
 
     @InjectMocks
     private LockService lockService;
 
     @Test
     void successGetLock() throws InterruptedException {
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any())).willReturn(true);
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true);
 
         assertDoesNotThrow(() -> lockService.lock("123"));
+        verify(lockProvider).tryLock(eq("ACLK:123"), anyLong(), anyLong());
     }
 
     @Test
     void failGetLock() throws InterruptedException {
-        given(redissonClient.getLock(anyString())).willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any())).willReturn(false);
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(false);
 
         AccountException accountException = assertThrows(AccountException.class, () -> lockService.lock("123"));
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
     }
+
+    @Test
+    void successGetLockAsync() {
+        given(lockProvider.tryLockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(true));
+
+        Long ownerId = lockService.lockAsync("123", 1000L).join();
+
+        assertTrue(ownerId < 0);
+    }
+
+    @Test
+    void failGetLockAsync() {
+        given(lockProvider.tryLockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(false));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> lockService.lockAsync("123", 1000L).join());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ((AccountException) exception.getCause()).getErrorCode());
+    }
+
+    @Test
+    void fallbackWhenProviderFails() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong()))
+                .willThrow(new LockProviderException("down", null));
+
+        assertFalse(lockService.lock("123"));
+        assertFalse(lockService.lock("123"));
+
+        // 연속 실패로 서킷이 열리면 락 저장소를 호출하지 않고 바로 대체 모드로 진행한다.
+        assertTrue(lockCircuitBreaker.isOpen());
+        assertFalse(lockService.lock("123"));
+        verify(lockProvider, times(2)).tryLock(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void fallbackWhenProviderFailsAsync() {
+        given(lockProvider.tryLockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.failedFuture(new LockProviderException("down", null)));
+
+        Long ownerId = lockService.lockAsync("123", 1000L).join();
+
+        assertTrue(LockService.isDegraded(ownerId));
+    }
+
+    @Test
+    void interruptedTrialLetsNextRequestProbe() throws InterruptedException {
+        LockService halfOpenLockService = new LockService(lockProvider, new LockCircuitBreaker(1, 0L));
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong()))
+                .willThrow(new LockProviderException("down", null))
+                .willThrow(new InterruptedException())
+                .willReturn(true);
+
+        assertFalse(halfOpenLockService.lock("123"));
+        assertThrows(AccountException.class, () -> halfOpenLockService.lock("123"));
+        assertTrue(Thread.interrupted());
+
+        // 시험 요청이 인터럽트로 끝나도 HALF_OPEN 에 머물지 않고 다음 요청이 다시 시험한다.
+        assertTrue(halfOpenLockService.lock("123"));
+        verify(lockProvider, times(3)).tryLock(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void unexpectedErrorInTrialReopensCircuit() throws InterruptedException {
+        LockCircuitBreaker halfOpenBreaker = new LockCircuitBreaker(1, 0L);
+        LockService halfOpenLockService = new LockService(lockProvider, halfOpenBreaker);
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong()))
+                .willThrow(new LockProviderException("down", null))
+                .willThrow(new IllegalStateException("unexpected"))
+                .willReturn(true);
+
+        assertFalse(halfOpenLockService.lock("123"));
+        assertThrows(IllegalStateException.class, () -> halfOpenLockService.lock("123"));
+        assertTrue(halfOpenBreaker.isOpen());
+
+        assertTrue(halfOpenLockService.lock("123"));
+        assertFalse(halfOpenBreaker.isOpen());
+    }
+
+    @Test
+    void fallbackWhenProviderThrowsSynchronouslyAsync() {
+        given(lockProvider.tryLockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willThrow(new IllegalStateException("unexpected"));
+
+        Long ownerId = lockService.lockAsync("123", 1000L).join();
+
+        assertTrue(LockService.isDegraded(ownerId));
+        verify(lockCircuitBreaker).recordFailure();
+    }
 }
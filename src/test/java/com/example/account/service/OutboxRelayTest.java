@@ -0,0 +1,134 @@
+package com.example.account.service;
+
+import com.example.account.domain.OutboxEvent;
+import com.example.account.repository.OutboxEventRepository;
+import com.example.account.type.OutboxEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ObjectProvider<RedissonClient> redissonClientProvider;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBatch batch;
+
+    @Mock
+    private RStreamAsync<Object, Object> streamAsync;
+
+    @Mock
+    private RStream<Object, Object> stream;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, redissonClientProvider, lockProvider,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "maxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(outboxRelay, "lockLease", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(outboxRelay, "streamPrefix", "account-events");
+        ReflectionTestUtils.setField(outboxRelay, "partitions", 16);
+        ReflectionTestUtils.setField(outboxRelay, "maxLen", 1000);
+        ReflectionTestUtils.setField(outboxRelay, "groups", List.of("notifications"));
+    }
+
+    @Test
+    void publishBatchThenDelete() {
+        given(redissonClient.createBatch(any())).willReturn(batch);
+        given(batch.getStream(anyString(), any(Codec.class))).willReturn(streamAsync);
+        given(redissonClient.getStream(anyString(), any(Codec.class))).willReturn(stream);
+        given(outboxEventRepository.findByOrderByIdAsc(any()))
+                .willReturn(List.of(event(1L), event(2L)), List.of(event(3L)));
+
+        assertEquals(3, outboxRelay.relay(redissonClient));
+
+        InOrder inOrder = inOrder(batch, outboxEventRepository);
+        inOrder.verify(batch).execute();
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(batch).execute();
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(streamAsync, times(3)).addAsync(any());
+        // 같은 계좌는 같은 스트림이므로 소비자 그룹은 한 번만 만든다.
+        verify(stream, times(1)).createGroup("notifications", StreamMessageId.ALL);
+    }
+
+    @Test
+    void keepEventsWhenPublishFails() throws InterruptedException {
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true);
+        given(redissonClient.createBatch(any())).willReturn(batch);
+        given(batch.getStream(anyString(), any(Codec.class))).willReturn(streamAsync);
+        given(redissonClient.getStream(anyString(), any(Codec.class))).willReturn(stream);
+        given(batch.execute()).willThrow(new RedisException("down"));
+        given(outboxEventRepository.findByOrderByIdAsc(any())).willReturn(List.of(event(1L)));
+
+        outboxRelay.run();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(lockProvider).unlock(OutboxRelay.LOCK_KEY);
+    }
+
+    @Test
+    void existingGroupIsIgnored() {
+        given(redissonClient.createBatch(any())).willReturn(batch);
+        given(batch.getStream(anyString(), any(Codec.class))).willReturn(streamAsync);
+        given(redissonClient.getStream(anyString(), any(Codec.class))).willReturn(stream);
+        doThrow(new RedisException("BUSYGROUP Consumer Group name already exists"))
+                .when(stream).createGroup(anyString(), any(StreamMessageId.class));
+        given(outboxEventRepository.findByOrderByIdAsc(any())).willReturn(List.of(event(1L)));
+
+        assertEquals(1, outboxRelay.relay(redissonClient));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void skipWithoutRedis() {
+        outboxRelay.run();
+
+        verifyNoInteractions(lockProvider, outboxEventRepository);
+    }
+
+    private static OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType(OutboxEventType.TRANSACTION_RECORDED)
+                .accountNumber("1000000012")
+                .transactionId("t" + id)
+                .amount(1000L)
+                .build();
+    }
+}
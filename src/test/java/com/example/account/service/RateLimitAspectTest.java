@@ -0,0 +1,61 @@
+package com.example.account.service;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitAspectTest {
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    private RateLimitAspect rateLimitAspect;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitAspect = new RateLimitAspect(rateLimitService);
+        ReflectionTestUtils.setField(rateLimitAspect, "enabled", true);
+        ReflectionTestUtils.setField(rateLimitAspect, "userPermitsPerSecond", 20L);
+        ReflectionTestUtils.setField(rateLimitAspect, "accountPermitsPerSecond", 10L);
+    }
+
+    @Test
+    void checkUserAndAccount() throws Throwable {
+        given(rateLimitService.tryAcquire(anyString(), anyString(), anyLong())).willReturn(true);
+
+        rateLimitAspect.aroundMethod(proceedingJoinPoint, new UseBalance.Request(12L, "1000000000", 100L));
+
+        verify(rateLimitService).tryAcquire("user", "RLU:12", 20L);
+        verify(rateLimitService).tryAcquire("account", "RLA:1000000000", 10L);
+        verify(proceedingJoinPoint).proceed();
+    }
+
+    @Test
+    void rejectBeforeProceed() throws Throwable {
+        given(rateLimitService.tryAcquire(eq("account"), anyString(), anyLong())).willReturn(false);
+
+        AccountException exception = assertThrows(AccountException.class, () -> rateLimitAspect.aroundMethod(
+                proceedingJoinPoint, new CancelBalance.Request("transactionId", "1000000000", 100L)));
+
+        assertEquals(ErrorCode.RATE_LIMIT_EXCEEDED, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+    @Mock
+    private ObjectProvider<RedissonClient> redissonClientProvider;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(redissonClientProvider, meterRegistry);
+        ReflectionTestUtils.setField(rateLimitService, "reservationRatio", 0.2);
+        ReflectionTestUtils.setField(rateLimitService, "maxLocalKeys", 100);
+        ReflectionTestUtils.setField(rateLimitService, "keyTtl", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void localBucketWithoutRedis() {
+        given(redissonClientProvider.getIfAvailable()).willReturn(null);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 5));
+        }
+        assertFalse(rateLimitService.tryAcquire("account", "RLA:1000000000", 5));
+        // 다른 키는 영향을 받지 않는다.
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000001", 5));
+    }
+
+    @Test
+    void serveReservedPermitsLocally() {
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(redissonClient.getRateLimiter(anyString())).willReturn(rateLimiter);
+        given(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).willReturn(true);
+        given(rateLimiter.tryAcquire(2L)).willReturn(true);
+
+        // 초당 10건이면 2건씩 예약한다. 두 번째 요청은 Redis 를 거치지 않는다.
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+
+        verify(rateLimiter, times(1)).trySetRate(any(), eq(10L), eq(1L), any());
+        verify(rateLimiter, times(1)).expire(Duration.ofMinutes(10).toMillis(), TimeUnit.MILLISECONDS);
+        verify(rateLimiter, times(2)).tryAcquire(2L);
+        assertEquals(1.0, meterRegistry.counter("account.ratelimit",
+                "result", "allowed", "scope", "account", "source", "local").count());
+    }
+
+    @Test
+    void rejectWhenRedisLimitReached() {
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(redissonClient.getRateLimiter(anyString())).willReturn(rateLimiter);
+        given(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).willReturn(true);
+        given(rateLimiter.tryAcquire(2L)).willReturn(false);
+        given(rateLimiter.tryAcquire(1L)).willReturn(false);
+
+        assertFalse(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+    }
+
+    @Test
+    void allowWhenRedisFails() {
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(redissonClient.getRateLimiter(anyString())).willReturn(rateLimiter);
+        given(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).willReturn(true);
+        given(rateLimiter.tryAcquire(anyLong())).willThrow(new RedisConnectionException("down"));
+
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+        // 장애 뒤에는 키가 만료됐을 수 있으므로 다시 설정한다.
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+        verify(rateLimiter, times(2)).trySetRate(any(), eq(10L), eq(1L), any());
+    }
+
+    @Test
+    void overrideChangedRate() {
+        RateLimiterConfig config = new RateLimiterConfig(RateType.OVERALL, 1_000L, 5L);
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(redissonClient.getRateLimiter(anyString())).willReturn(rateLimiter);
+        given(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).willReturn(false);
+        given(rateLimiter.getConfig()).willReturn(config);
+        given(rateLimiter.tryAcquire(2L)).willReturn(true);
+
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+
+        // trySetRate 는 이미 있는 설정을 바꾸지 않는다.
+        verify(rateLimiter).setRate(RateType.OVERALL, 10L, 1L, RateIntervalUnit.SECONDS);
+    }
+
+    @Test
+    void keepSameRate() {
+        RateLimiterConfig config = new RateLimiterConfig(RateType.OVERALL, 1_000L, 10L);
+        given(redissonClientProvider.getIfAvailable()).willReturn(redissonClient);
+        given(redissonClient.getRateLimiter(anyString())).willReturn(rateLimiter);
+        given(rateLimiter.trySetRate(any(), anyLong(), anyLong(), any())).willReturn(false);
+        given(rateLimiter.getConfig()).willReturn(config);
+        given(rateLimiter.tryAcquire(2L)).willReturn(true);
+
+        assertTrue(rateLimitService.tryAcquire("account", "RLA:1000000000", 10));
+
+        verify(rateLimiter, never()).setRate(any(), anyLong(), anyLong(), any());
+    }
+}
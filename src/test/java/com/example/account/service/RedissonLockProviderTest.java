@@ -0,0 +1,72 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedissonLockProviderTest {
+    private static final String KEY = "ACLK:1000000000";
+
+    @Mock
+    private LockNodeRing lockNodeRing;
+
+    @Mock
+    private RLock ownerLock;
+
+    @Mock
+    private RLock previousOwnerLock;
+
+    private RedissonLockProvider lockProvider;
+
+    @BeforeEach
+    void setUp() {
+        RedissonClient owner = mock(RedissonClient.class);
+        RedissonClient previousOwner = mock(RedissonClient.class);
+        given(owner.getLock(KEY)).willReturn(ownerLock);
+        given(previousOwner.getLock(KEY)).willReturn(previousOwnerLock);
+        given(lockNodeRing.clientsFor(KEY)).willReturn(List.of(owner, previousOwner));
+        lockProvider = new RedissonLockProvider(lockNodeRing);
+    }
+
+    @Test
+    void unlockSkipsNodeNotHeld() {
+        willThrow(new IllegalMonitorStateException()).given(previousOwnerLock).unlock();
+
+        assertDoesNotThrow(() -> lockProvider.unlock(KEY));
+
+        verify(ownerLock).unlock();
+        verify(previousOwnerLock).unlock();
+    }
+
+    @Test
+    void unlockAsyncSkipsNodeNotHeld() {
+        RFuture<Void> released = future(CompletableFuture.completedFuture(null));
+        RFuture<Void> notHeld = future(CompletableFuture.failedFuture(new IllegalMonitorStateException()));
+        given(ownerLock.unlockAsync(7L)).willReturn(released);
+        given(previousOwnerLock.unlockAsync(7L)).willReturn(notHeld);
+
+        assertDoesNotThrow(() -> lockProvider.unlockAsync(KEY, 7L).join());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RFuture<Void> future(CompletableFuture<Void> completableFuture) {
+        RFuture<Void> future = mock(RFuture.class);
+        given(future.toCompletableFuture()).willReturn(completableFuture);
+        return future;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ShardBucketMoverTest {
+    private static final List<String> SCHEMA = List.of(
+            "create sequence hibernate_sequence start with 1",
+            "create table account (id bigint primary key, account_user_id bigint, account_number varchar(255), " +
+                    "account_status varchar(255), balance bigint, registered_at timestamp, unregistered_at timestamp, " +
+                    "created_at timestamp, updated_at timestamp)",
+            "create table transaction (id bigint primary key, transaction_type varchar(255), " +
+                    "transaction_result_type varchar(255), account_id bigint references account(id), amount bigint, " +
+                    "balance_snapshot bigint, transaction_id varchar(255), transacted_at timestamp, " +
+                    "created_at timestamp, updated_at timestamp)",
+            "create table transaction_archive (id bigint primary key, transaction_type varchar(255), " +
+                    "transaction_result_type varchar(255), account_id bigint references account(id), amount bigint, " +
+                    "balance_snapshot bigint, transaction_id varchar(255), transacted_at timestamp, archived_at timestamp)",
+            "create table reconciliation_account_state (account_id bigint primary key, last_transaction_id bigint, " +
+                    "last_snapshot bigint)");
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private JdbcTemplate jdbcTemplate;
+    private ShardBucketMover shardBucketMover;
+
+    @BeforeEach
+    void setUp() {
+        String name = "shard-move-" + UUID.randomUUID();
+        List<DataSource> shards = List.of(
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-0;DB_CLOSE_DELAY=-1", "sa", ""),
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-1;DB_CLOSE_DELAY=-1", "sa", ""));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // 버킷 두 개 모두 0번 샤드에서 시작한다.
+        ShardRouting.configure(new int[]{0, 0}, 2, executor);
+        ShardRouting.forEachShard(() -> SCHEMA.forEach(jdbcTemplate::execute));
+
+        shardBucketMover = new ShardBucketMover(jdbcTemplate, lockService, lockProvider,
+                new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(shardBucketMover, "pageSize", 2);
+        ReflectionTestUtils.setField(shardBucketMover, "lockLease", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardRouting.reset();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void moveBucketAccountByAccount() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true);
+        given(lockService.lock(anyString())).willReturn(true);
+        List<String> moving = accountsInBucket(1, 3);
+        List<String> staying = accountsInBucket(0, 2);
+        moving.forEach(this::insertAccount);
+        staying.forEach(this::insertAccount);
+
+        int moved = shardBucketMover.move(1, 1);
+
+        assertEquals(3, moved);
+        assertEquals(List.of(0, 1), ShardRouting.bucketMap());
+        assertEquals(2, count(0, "select count(*) from account"));
+        assertEquals(2, count(0, "select count(*) from transaction"));
+        assertEquals(3, count(1, "select count(*) from account"));
+        assertEquals(3, count(1, "select count(*) from transaction"));
+        assertEquals(3, count(1, "select count(*) from transaction_archive"));
+        // 대상 샤드에서 새 id 를 받아도 거래는 옮겨진 계좌를 가리킨다.
+        assertEquals(3, count(1, "select count(*) from transaction t join account a on t.account_id = a.id " +
+                "where t.balance_snapshot = a.balance"));
+        for (String accountNumber : moving) {
+            assertEquals(1, ShardRouting.shardOf(accountNumber));
+            verify(lockService).lock(accountNumber);
+            verify(lockService).unlock(accountNumber);
+        }
+        verify(lockProvider, times(4)).unlock(anyString());
+    }
+
+    @Test
+    void refuseMoveWhileJobRunning() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true, false);
+        insertAccount(accountsInBucket(1, 1).get(0));
+
+        assertThrows(IllegalStateException.class, () -> shardBucketMover.move(1, 1));
+
+        // 잡은 락만 푼다.
+        verify(lockProvider, times(1)).unlock(anyString());
+        assertEquals(1, count(0, "select count(*) from account"));
+        assertEquals(List.of(0, 0), ShardRouting.bucketMap());
+    }
+
+    @Test
+    void resumeAfterLockFailure() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true);
+        List<String> moving = accountsInBucket(1, 2);
+        moving.forEach(this::insertAccount);
+        given(lockService.lock(anyString())).willReturn(true, false);
+
+        assertThrows(IllegalStateException.class, () -> shardBucketMover.move(1, 1));
+        // 옮겨진 계좌는 대상 샤드로, 남은 계좌는 원래 샤드로 간다.
+        assertEquals(1, count(0, "select count(*) from account"));
+        assertEquals(1, count(1, "select count(*) from account"));
+        assertEquals(1, moving.stream().filter(accountNumber -> ShardRouting.shardOf(accountNumber) == 1).count());
+
+        given(lockService.lock(anyString())).willReturn(true);
+        assertEquals(1, shardBucketMover.move(1, 1));
+        assertEquals(2, count(1, "select count(*) from account"));
+    }
+
+    private void insertAccount(String accountNumber) {
+        ShardRouting.onShard(0, () -> {
+            long accountId = jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class);
+            jdbcTemplate.update("insert into account(id, account_user_id, account_number, account_status, balance, " +
+                    "registered_at, created_at, updated_at) " +
+                    "values (?, 1, ?, 'IN_USE', 900, current_timestamp, current_timestamp, current_timestamp)",
+                    accountId, accountNumber);
+            jdbcTemplate.update("insert into transaction(id, transaction_type, transaction_result_type, account_id, " +
+                    "amount, balance_snapshot, transaction_id, transacted_at) " +
+                    "values (next value for hibernate_sequence, 'USE', 'S', ?, 100, 900, ?, current_timestamp)",
+                    accountId, UUID.randomUUID().toString());
+            jdbcTemplate.update("insert into transaction_archive(id, transaction_type, transaction_result_type, " +
+                    "account_id, amount, balance_snapshot, transaction_id, transacted_at, archived_at) " +
+                    "values (next value for hibernate_sequence, 'USE', 'S', ?, 100, 1000, ?, " +
+                    "current_timestamp, current_timestamp)", accountId, UUID.randomUUID().toString());
+            jdbcTemplate.update("insert into reconciliation_account_state values (?, 0, 1000)", accountId);
+            return null;
+        });
+    }
+
+    private int count(int shard, String sql) {
+        return ShardRouting.onShard(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class));
+    }
+
+    private static List<String> accountsInBucket(int bucket, int size) {
+        List<String> accountNumbers = new ArrayList<>();
+        for (long number = 1000000000L; accountNumbers.size() < size; number++) {
+            String accountNumber = String.valueOf(number);
+            if (ShardRouting.bucketOf(accountNumber) == bucket) {
+                accountNumbers.add(accountNumber);
+            }
+        }
+        return accountNumbers;
+    }
+}
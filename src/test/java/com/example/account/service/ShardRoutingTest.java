@@ -0,0 +1,129 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRoutingTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        ShardRouting.reset();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void notShardedRunsInline() {
+        Thread caller = Thread.currentThread();
+
+        List<Thread> threads = ShardRouting.fanOut(() -> List.of(Thread.currentThread()));
+
+        assertFalse(ShardRouting.isEnabled());
+        assertEquals(List.of(caller), threads);
+        assertEquals(0, ShardRouting.shardOf("1000000000"));
+    }
+
+    @Test
+    void shardByBucket() {
+        ShardRouting.configure(new int[]{0, 1, 2, 2}, 3, executor);
+
+        for (int i = 0; i < 100; i++) {
+            String accountNumber = String.valueOf(1000000000 + i);
+            int expected = new int[]{0, 1, 2, 2}[Math.floorMod(accountNumber.hashCode(), 4)];
+            assertEquals(expected, ShardRouting.shardOf(accountNumber));
+        }
+    }
+
+    @Test
+    void fanOutMergesInShardOrder() {
+        ShardRouting.configure(new int[]{0, 1, 2}, 3, executor);
+
+        List<Integer> shards = ShardRouting.fanOut(() -> List.of(ShardRouting.currentShard()));
+
+        assertEquals(List.of(0, 1, 2), shards);
+        assertNull(ShardRouting.currentShard());
+    }
+
+    @Test
+    void findFirstAcrossShards() {
+        ShardRouting.configure(new int[]{0, 1, 2}, 3, executor);
+
+        Optional<String> found = ShardRouting.findFirst(() -> ShardRouting.currentShard() == 2
+                ? Optional.of("transaction") : Optional.empty());
+
+        assertEquals(Optional.of("transaction"), found);
+    }
+
+    @Test
+    void fanOutRethrowsShardFailure() {
+        ShardRouting.configure(new int[]{0, 1}, 2, executor);
+
+        assertThrows(IllegalStateException.class, () -> ShardRouting.fanOut(() -> {
+            if (ShardRouting.currentShard() == 1) {
+                throw new IllegalStateException("shard down");
+            }
+            return List.of();
+        }));
+    }
+
+    @Test
+    void onShardRestoresPrevious() {
+        ShardRouting.onShard(1, () -> ShardRouting.onShard(2, ShardRouting::currentShard));
+
+        assertNull(ShardRouting.currentShard());
+        assertEquals(1, ShardRouting.onShard(1, () -> {
+            ShardRouting.onShard(2, ShardRouting::currentShard);
+            return ShardRouting.currentShard();
+        }));
+    }
+
+    @Test
+    void routeMovedAccountsToTargetDuringMove() {
+        ShardRouting.configure(new int[]{0, 0}, 2, executor);
+        String moved = accountInBucket(1, 0);
+        String notMoved = accountInBucket(1, 1);
+
+        ShardRouting.startMove(1, 1);
+        ShardRouting.markMoved(moved);
+
+        assertEquals(1, ShardRouting.shardOf(moved));
+        assertEquals(0, ShardRouting.shardOf(notMoved));
+        assertEquals(Map.of(1, 1), ShardRouting.moves());
+
+        ShardRouting.finishMove(1);
+
+        assertEquals(1, ShardRouting.shardOf(notMoved));
+        assertEquals(List.of(0, 1), ShardRouting.bucketMap());
+        assertTrue(ShardRouting.moves().isEmpty());
+    }
+
+    @Test
+    void failMoveToOtherTargetWhileMoving() {
+        ShardRouting.configure(new int[]{0, 0}, 3, executor);
+
+        ShardRouting.startMove(1, 1);
+
+        assertDoesNotThrow(() -> ShardRouting.startMove(1, 1));
+        assertThrows(IllegalStateException.class, () -> ShardRouting.startMove(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> ShardRouting.startMove(0, 3));
+    }
+
+    // bucket 에 들어가는 index 번째 계좌번호
+    private static String accountInBucket(int bucket, int index) {
+        int found = 0;
+        for (long number = 1000000000L; ; number++) {
+            String accountNumber = String.valueOf(number);
+            if (ShardRouting.bucketOf(accountNumber) == bucket && found++ == index) {
+                return accountNumber;
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionArchive;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiverTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionArchiver transactionArchiver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionArchiver = new TransactionArchiver(transactionRepository, transactionArchiveRepository,
+                lockProvider, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(transactionArchiver, "chunkSize", 500);
+        ReflectionTestUtils.setField(transactionArchiver, "maxChunksPerRun", 200);
+        ReflectionTestUtils.setField(transactionArchiver, "retentionMonths", 12);
+        ReflectionTestUtils.setField(transactionArchiver, "lockLease", Duration.ofMinutes(30));
+    }
+
+    @Test
+    void cutoffIsStartOfMonth() {
+        assertEquals(LocalDateTime.of(2025, 10, 1, 0, 0),
+                transactionArchiver.cutoff(LocalDate.of(2026, 10, 19)));
+    }
+
+    @Test
+    void moveOldestMonthInChunks() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 10, 1, 0, 0);
+        Transaction first = transaction(1L, LocalDateTime.of(2025, 3, 5, 10, 0));
+        Transaction second = transaction(2L, LocalDateTime.of(2025, 3, 20, 10, 0));
+
+        given(transactionRepository.findFirstByTransactedAtBeforeOrderByTransactedAtAsc(cutoff))
+                .willReturn(Optional.of(first), Optional.empty());
+        given(transactionRepository.findByTransactedAtGreaterThanEqualAndTransactedAtLessThanOrderByIdAsc(
+                any(), any(), any()))
+                .willReturn(List.of(first, second));
+
+        int moved = transactionArchiver.archiveBefore(cutoff);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionArchive>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).findByTransactedAtGreaterThanEqualAndTransactedAtLessThanOrderByIdAsc(
+                eq(LocalDateTime.of(2025, 3, 1, 0, 0)), eq(LocalDateTime.of(2025, 4, 1, 0, 0)), any());
+        verify(transactionArchiveRepository).saveAll(captor.capture());
+        verify(transactionRepository).deleteAllInBatch(List.of(first, second));
+        assertEquals(2, moved);
+        assertEquals(List.of(1L, 2L), List.of(captor.getValue().get(0).getId(), captor.getValue().get(1).getId()));
+        assertEquals("t1", captor.getValue().get(0).getTransactionId());
+        assertEquals(2.0, meterRegistry.get("transaction.archive.rows").counter().count());
+    }
+
+    @Test
+    void stopAtMaxChunksPerRun() {
+        ReflectionTestUtils.setField(transactionArchiver, "maxChunksPerRun", 3);
+        Transaction transaction = transaction(1L, LocalDateTime.of(2025, 3, 5, 10, 0));
+
+        given(transactionRepository.findFirstByTransactedAtBeforeOrderByTransactedAtAsc(any()))
+                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findByTransactedAtGreaterThanEqualAndTransactedAtLessThanOrderByIdAsc(
+                any(), any(), any()))
+                .willReturn(List.of(transaction));
+
+        assertEquals(3, transactionArchiver.archiveBefore(LocalDateTime.of(2025, 10, 1, 0, 0)));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void skipWhenAnotherInstanceRuns() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(false);
+
+        transactionArchiver.run();
+
+        verifyNoInteractions(transactionRepository, transactionArchiveRepository);
+        verify(lockProvider, never()).unlock(anyString());
+    }
+
+    @Test
+    void releaseLockAfterRun() throws InterruptedException {
+        given(lockProvider.tryLock(anyString(), anyLong(), anyLong())).willReturn(true);
+        given(transactionRepository.findFirstByTransactedAtBeforeOrderByTransactedAtAsc(any()))
+                .willReturn(Optional.empty());
+
+        transactionArchiver.run();
+
+        verify(lockProvider).tryLock(TransactionArchiver.LOCK_KEY, 0, Duration.ofMinutes(30).toMillis());
+        verify(lockProvider).unlock(TransactionArchiver.LOCK_KEY);
+    }
+
+    private static Transaction transaction(Long id, LocalDateTime transactedAt) {
+        return Transaction.builder()
+                .id(id)
+                .account(Account.builder().accountNumber("1000000012").build())
+                .transactionId("t" + id)
+                .amount(1000L)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.account.service;
 
+import com.example.account.coldstorage.ColdStorageService;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionArchive;
 import com.example.account.dto.TransactionDto;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.OutboxEventType;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
+import com.example.account.warmup.WarmupRunner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -41,6 +49,15 @@ public class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ColdStorageService coldStorageService;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -61,7 +78,7 @@ public class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.save(any()))
@@ -87,6 +104,39 @@ public class TransactionServiceTest {
         assertEquals(TransactionType.USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        // 거래와 같은 트랜잭션에서 아웃박스 이벤트를 남긴다.
+        ArgumentCaptor<OutboxEvent> outboxCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(outboxCaptor.capture());
+        assertEquals(OutboxEventType.TRANSACTION_RECORDED, outboxCaptor.getValue().getEventType());
+        assertEquals(captor.getValue().getTransactionId(), outboxCaptor.getValue().getTransactionId());
+        assertEquals("1000000012", outboxCaptor.getValue().getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("워밍업 계좌의 거래는 아웃박스 이벤트를 남기지 않음")
+    void useBalance_warmupAccountSkipsOutbox() {
+        AccountUser accountUser = AccountUser.builder()
+                .id(WarmupRunner.WARMUP_USER_ID)
+                .name("warmup")
+                .build();
+
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000012")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.useBalance(WarmupRunner.WARMUP_USER_ID, "1000000012", 10L);
+
+        verify(outboxEventRepository, times(0)).save(any());
     }
 
     @Test
@@ -120,7 +170,7 @@ public class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(
                         Account.builder()
                                 .accountUser(accountOtherUser)
@@ -144,7 +194,7 @@ public class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(
                         Account.builder()
                                 .accountUser(accountUser)
@@ -176,7 +226,7 @@ public class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         AccountException accountException = assertThrows(AccountException.class,
@@ -185,6 +235,25 @@ public class TransactionServiceTest {
         assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
     }
 
+    @Test
+    @DisplayName("계좌 행 락 대기 초과 - 잔액 사용 실패")
+    void useBalance_rowLockTimeout() {
+        AccountUser accountUser = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willThrow(new PessimisticLockingFailureException("lock timeout"));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+    }
+
     @Test
     @DisplayName("실패 트렌젝션 저장 성공")
     void saveFailedUseBalance() {
@@ -247,7 +316,7 @@ public class TransactionServiceTest {
                 .balanceSnapshot(100000L)
                 .build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.findByTransactionId(anyString()))
@@ -272,7 +341,7 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("해당 계좌 없음 - 잔액 사용 취소 실패")
     void cancelBalance_accountNotFound() {
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.empty());
 
         AccountException accountException = assertThrows(AccountException.class,
@@ -296,7 +365,7 @@ public class TransactionServiceTest {
                 .accountNumber("1000000012")
                 .build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.findByTransactionId(anyString()))
@@ -343,7 +412,7 @@ public class TransactionServiceTest {
                 .build();
 
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(accountNotUse));
 
         given(transactionRepository.findByTransactionId(anyString()))
@@ -382,7 +451,7 @@ public class TransactionServiceTest {
                 .build();
 
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.findByTransactionId(anyString()))
@@ -421,7 +490,7 @@ public class TransactionServiceTest {
                 .build();
 
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
                 .willReturn(Optional.of(account));
 
         given(transactionRepository.findByTransactionId(anyString()))
@@ -460,7 +529,7 @@ public class TransactionServiceTest {
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
 
-        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId", null);
 
         assertEquals(TransactionType.USE, transactionDto.getTransactionType());
         assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
@@ -475,9 +544,125 @@ public class TransactionServiceTest {
                 .willReturn(Optional.empty());
 
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.queryTransaction("transactionId"));
+                () -> transactionService.queryTransaction("transactionId", null));
 
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
     }
 
+    @Test
+    @DisplayName("보관된 거래 조회 성공")
+    void success_queryTransaction_fromArchive() {
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .build();
+
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionArchive.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now().minusYears(2))
+                        .amount(10000L)
+                        .balanceSnapshot(90000L)
+                        .build()));
+
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId", null);
+
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertEquals(10000L, transactionDto.getAmount());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("최근 거래에 있으면 보관 테이블은 조회하지 않음")
+    void queryTransaction_skipArchiveOnHit() {
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .build();
+
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionId("transactionId")
+                        .amount(10000L)
+                        .build()));
+
+        transactionService.queryTransaction("transactionId", null);
+
+        verify(transactionArchiveRepository, times(0)).findByTransactionId(anyString());
+    }
+
+    @Test
+    @DisplayName("보관된 거래 취소 - 취소 가능 기간 초과")
+    void cancelBalance_archivedTransaction() {
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(90000L)
+                .accountNumber("1000000012")
+                .build();
+
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionArchive.builder()
+                        .transactionId("transactionId")
+                        .build()));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", 10000L));
+
+        assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("콜드 파일로 내보낸 거래 취소 - 취소 가능 기간 초과")
+    void cancelBalance_coldTransaction() {
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(90000L)
+                .accountNumber("1000000012")
+                .build();
+
+        given(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(coldStorageService.findByTransactionId("1000000012", "transactionId"))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .transactionId("transactionId")
+                        .build()));
+
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000012", 10000L));
+
+        assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("콜드 파일로 내보낸 거래 조회 성공")
+    void success_queryTransaction_fromColdStorage() {
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(coldStorageService.findByTransactionId("1000000012", "transactionId"))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionId("transactionId")
+                        .amount(10000L)
+                        .build()));
+
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId", "1000000012");
+
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(10000L, transactionDto.getAmount());
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.account.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void skipWithoutWebServer() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WarmupRunner warmupRunner = new WarmupRunner(
+                applicationContext, jdbcTemplate, new ObjectMapper(), meterRegistry);
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(jdbcTemplate, applicationContext);
+        assertFalse(meterRegistry.getMeters().stream()
+                .anyMatch(meter -> meter.getId().getName().startsWith("warmup.")));
+    }
+
+    @Test
+    void exemptOnlyWarmupUser() {
+        assertTrue(WarmupRunner.isWarmupUser(WarmupRunner.WARMUP_USER_ID));
+        assertFalse(WarmupRunner.isWarmupUser(1L));
+        assertFalse(WarmupRunner.isWarmupUser(null));
+        // 워밍업이 돌지 않으면 어떤 계좌도 면제되지 않는다.
+        assertFalse(WarmupRunner.isWarmupAccount("1000000000"));
+    }
+}